@@ -0,0 +1,54 @@
+#!/bin/bash
+# Compares the wall time of CLI invocations with a cold JVM against the same
+# invocations forwarded to a running `epirus daemon`.
+#
+# Usage: scripts/daemon-benchmark.sh [iterations] [epirus args...]
+# Requires the distribution to be installed first: ./gradlew installDist
+set -eo pipefail
+
+[[ "$TRACE" ]] && set -x
+
+SCRIPTS_DIR="$( cd -P "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
+EPIRUS="$SCRIPTS_DIR/../build/install/epirus/bin/epirus"
+
+ITERATIONS=${1:-10}
+shift || true
+COMMAND=("$@")
+if [[ ${#COMMAND[@]} -eq 0 ]]; then
+    COMMAND=(--version)
+fi
+
+if [[ ! -x "$EPIRUS" ]]; then
+    echo "ERROR: $EPIRUS not found, run ./gradlew installDist first"
+    exit 1
+fi
+
+now_millis() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+measure() {
+    local total=0
+    for ((i = 0; i < ITERATIONS; i++)); do
+        local start=$(now_millis)
+        "$EPIRUS" "${COMMAND[@]}" > /dev/null 2>&1 || true
+        total=$(( total + $(now_millis) - start ))
+    done
+    echo $(( total / ITERATIONS ))
+}
+
+COLD=$(EPIRUS_NO_DAEMON=true measure)
+
+"$EPIRUS" daemon > /dev/null 2>&1 &
+trap '"$EPIRUS" daemon --stop > /dev/null 2>&1 || kill $!' EXIT
+while [[ ! -f "$HOME/.epirus/daemon.properties" ]]; do
+    sleep 0.2
+done
+
+# warm up the daemon before measuring
+"$EPIRUS" "${COMMAND[@]}" > /dev/null 2>&1 || true
+DAEMON=$(measure)
+
+echo "epirus ${COMMAND[*]} ($ITERATIONS iterations)"
+echo "  cold JVM: ${COLD} ms"
+echo "  daemon:   ${DAEMON} ms"
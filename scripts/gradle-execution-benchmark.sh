@@ -0,0 +1,72 @@
+#!/bin/bash
+# Compares the wall time of building and testing a generated project with
+# `./gradlew` subprocesses against the CLI's Tooling API connection, both from
+# a cold CLI JVM and from a running `epirus daemon` that keeps the connection.
+#
+# Usage: scripts/gradle-execution-benchmark.sh [iterations] [network]
+# With a network (e.g. rinkeby) `epirus run` is measured too, which requires a
+# logged in account. Requires the distribution to be installed first:
+# ./gradlew installDist
+set -eo pipefail
+
+[[ "$TRACE" ]] && set -x
+
+SCRIPTS_DIR="$( cd -P "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
+EPIRUS="$SCRIPTS_DIR/../build/install/epirus/bin/epirus"
+ITERATIONS=${1:-5}
+NETWORK=$2
+
+if [[ ! -x "$EPIRUS" ]]; then
+    echo "ERROR: $EPIRUS not found, run ./gradlew installDist first"
+    exit 1
+fi
+
+WORK_DIR=$(mktemp -d)
+PROJECT_DIR="$WORK_DIR/Benchmark"
+trap '"$EPIRUS" daemon --stop > /dev/null 2>&1 || true; rm -rf "$WORK_DIR"' EXIT
+
+now_millis() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# prints the average wall time of running the given command in the project
+measure() {
+    local total=0
+    for ((i = 0; i < ITERATIONS; i++)); do
+        local start=$(now_millis)
+        (cd "$PROJECT_DIR" && "$@" > /dev/null 2>&1) || true
+        total=$(( total + $(now_millis) - start ))
+    done
+    echo $(( total / ITERATIONS ))
+}
+
+START=$(now_millis)
+EPIRUS_NO_DAEMON=true "$EPIRUS" new -n Benchmark -p io.epirus.benchmark -o "$WORK_DIR" > /dev/null
+NEW=$(( $(now_millis) - START ))
+
+GRADLEW_BUILD=$(measure ./gradlew build -q)
+GRADLEW_TEST=$(measure ./gradlew test)
+COLD_TEST=$(EPIRUS_NO_DAEMON=true measure "$EPIRUS" test)
+
+# the daemon only serves invocations from its own working directory
+(cd "$PROJECT_DIR" && "$EPIRUS" daemon > /dev/null 2>&1 &)
+while [[ ! -f "$HOME/.epirus/daemon.properties" ]]; do
+    sleep 0.2
+done
+(cd "$PROJECT_DIR" && "$EPIRUS" test > /dev/null 2>&1) || true
+DAEMON_TEST=$(measure "$EPIRUS" test)
+
+echo "epirus new: ${NEW} ms"
+echo "test ($ITERATIONS iterations)"
+echo "  ./gradlew build + test:  $(( GRADLEW_BUILD + GRADLEW_TEST )) ms"
+echo "  ./gradlew test:          ${GRADLEW_TEST} ms"
+echo "  epirus test, cold JVM:   ${COLD_TEST} ms"
+echo "  epirus test, daemon:     ${DAEMON_TEST} ms"
+
+if [[ -n "$NETWORK" ]]; then
+    GRADLEW_RUN=$(DEPLOY_NETWORK=$NETWORK measure ./gradlew run -q)
+    DAEMON_RUN=$(measure "$EPIRUS" run "$NETWORK")
+    echo "run on $NETWORK ($ITERATIONS iterations)"
+    echo "  ./gradlew run:           ${GRADLEW_RUN} ms"
+    echo "  epirus run, daemon:      ${DAEMON_RUN} ms"
+fi
@@ -0,0 +1,72 @@
+#!/bin/bash
+# Measures `epirus import` of a folder of generated Solidity contracts: a first
+# import, the same import again over the project and its manifest (a no-op),
+# and a fresh import without the manifest, for each Gradle build scope.
+#
+# Usage: scripts/import-benchmark.sh [contracts] [build scopes...]
+# Requires the distribution to be installed first: ./gradlew installDist
+set -eo pipefail
+
+[[ "$TRACE" ]] && set -x
+
+SCRIPTS_DIR="$( cd -P "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
+EPIRUS="$SCRIPTS_DIR/../build/install/epirus/bin/epirus"
+CONTRACTS=${1:-50}
+shift || true
+SCOPES=("$@")
+if [[ ${#SCOPES[@]} -eq 0 ]]; then
+    SCOPES=(FULL WRAPPERS NONE)
+fi
+
+if [[ ! -x "$EPIRUS" ]]; then
+    echo "ERROR: $EPIRUS not found, run ./gradlew installDist first"
+    exit 1
+fi
+
+WORK_DIR=$(mktemp -d)
+trap 'rm -rf "$WORK_DIR"' EXIT
+mkdir -p "$WORK_DIR/solidity"
+for ((i = 0; i < CONTRACTS; i++)); do
+    cat > "$WORK_DIR/solidity/Contract$i.sol" <<SOLIDITY
+pragma solidity ^0.6.0;
+
+contract Contract$i {
+    uint256 private value = $i;
+
+    event Changed(uint256 value);
+
+    function get() public view returns (uint256) {
+        return value;
+    }
+
+    function set(uint256 newValue) public {
+        value = newValue;
+        emit Changed(newValue);
+    }
+}
+SOLIDITY
+done
+
+now_millis() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+import() {
+    local start=$(now_millis)
+    (cd "$WORK_DIR" && EPIRUS_NO_DAEMON=true "$EPIRUS" import -n Benchmark -p io.epirus.benchmark \
+        -s "$WORK_DIR/solidity" -t --build="$1" < /dev/null > /dev/null)
+    echo $(( $(now_millis) - start ))
+}
+
+echo "epirus import of $CONTRACTS contracts"
+for scope in "${SCOPES[@]}"; do
+    rm -rf "$WORK_DIR/Benchmark"
+    FIRST=$(import "$scope")
+    AGAIN=$(import "$scope")
+    rm -rf "$WORK_DIR/Benchmark"
+    WITHOUT=$(import "$scope")
+    echo "  --build=$scope"
+    echo "    first import:               ${FIRST} ms"
+    echo "    again, with the manifest:   ${AGAIN} ms"
+    echo "    again, without a manifest:  ${WITHOUT} ms"
+done
@@ -0,0 +1,114 @@
+#!/bin/bash
+# Runs the native executable through the main offline commands, then compares
+# its startup time with the JVM distribution.
+#
+# Usage: scripts/native-smoke-test.sh <native executable> [jvm launcher] [iterations]
+# Normally invoked through: ./gradlew nativeSmokeTest
+set -o pipefail
+
+[[ "$TRACE" ]] && set -x
+
+NATIVE=$1
+JVM=$2
+ITERATIONS=${3:-10}
+
+if [[ ! -x "$NATIVE" ]]; then
+    echo "ERROR: native executable $NATIVE not found, run ./gradlew nativeImage first"
+    exit 1
+fi
+
+WORK_DIR=$(mktemp -d)
+trap 'rm -rf "$WORK_DIR"' EXIT
+export EPIRUS_NO_DAEMON=true
+export HOME="$WORK_DIR/home"
+mkdir -p "$HOME/.epirus"
+# keep the smoke test offline
+echo '{"clientId":"smoke-test","telemetryDisabled":true}' > "$HOME/.epirus/.config"
+
+FAILURES=0
+
+# check <description> <expected output> <command...>
+check() {
+    local description=$1
+    local expected=$2
+    shift 2
+    local output
+    output=$("$@" 2>&1)
+    if [[ $? -eq 0 && "$output" == *"$expected"* ]]; then
+        echo "  ok    $description"
+    else
+        echo "  FAIL  $description"
+        echo "$output" | sed 's/^/        /'
+        FAILURES=$((FAILURES + 1))
+    fi
+}
+
+# type_lines <line...> answers the prompts of an interactive command
+type_lines() {
+    sleep 2
+    for LINE in "$@"; do
+        printf '%s\r' "$LINE"
+        sleep 1
+    done
+    sleep 5
+}
+
+# interactive commands read from the console, which needs a terminal
+# check_with_terminal <description> <expected output> <command> <input lines...>
+check_with_terminal() {
+    local description=$1
+    local expected=$2
+    local command=$3
+    shift 3
+    if ! command -v script > /dev/null; then
+        echo "  skip  $description (script is not installed)"
+        return
+    fi
+    check "$description" "$expected" \
+        bash -c 'type_lines "${@:2}" | timeout 60 script -qec "$1" /dev/null' _ "$command" "$@"
+}
+export -f type_lines
+
+cat > "$WORK_DIR/Greeter.abi" <<'ABI'
+[{"inputs":[],"name":"greet","outputs":[{"internalType":"string","name":"","type":"string"}],"stateMutability":"view","type":"function"}]
+ABI
+echo "6080604052348015600f57600080fd5b50" > "$WORK_DIR/Greeter.bin"
+
+echo "Smoke testing $NATIVE"
+check "version" "Version:" "$NATIVE" --version
+check "usage" "Commands:" "$NATIVE" --help
+for COMMAND in wallet account new import solidity truffle audit run test docker; do
+    check "$COMMAND usage" "Options:" "$NATIVE" $COMMAND --help
+done
+check "solidity generate" "File written to" \
+    "$NATIVE" solidity generate -a "$WORK_DIR/Greeter.abi" -b "$WORK_DIR/Greeter.bin" \
+    -o "$WORK_DIR/wrappers" -p io.epirus.smoke
+check "generated wrapper" "Greeter.java" find "$WORK_DIR/wrappers" -name Greeter.java
+check_with_terminal "wallet create" "successfully created" "$NATIVE wallet create" \
+    password password "$WORK_DIR/keystore"
+check "wallet file" "UTC--" ls "$WORK_DIR/keystore"
+
+if [[ -x "$JVM" ]]; then
+    now_millis() {
+        echo $(( $(date +%s%N) / 1000000 ))
+    }
+
+    measure() {
+        local start=$(now_millis)
+        for ((i = 0; i < ITERATIONS; i++)); do
+            "$@" > /dev/null 2>&1
+        done
+        echo $(( ($(now_millis) - start) / ITERATIONS ))
+    }
+
+    echo "Startup time, average of $ITERATIONS runs"
+    for COMMAND in "--version" "wallet --help"; do
+        printf "  epirus %-14s native: %5d ms  jvm: %5d ms\n" "$COMMAND" \
+            "$(measure "$NATIVE" $COMMAND)" "$(measure "$JVM" $COMMAND)"
+    done
+fi
+
+if [[ $FAILURES -gt 0 ]]; then
+    echo "$FAILURES smoke test(s) failed"
+    exit 1
+fi
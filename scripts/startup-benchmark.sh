@@ -0,0 +1,53 @@
+#!/bin/bash
+# Reports wall time and loaded classes for short CLI invocations, optionally
+# against a second installation to compare before/after a change.
+#
+# Usage: scripts/startup-benchmark.sh [iterations] [baseline install dir]
+# Requires the distribution to be installed first: ./gradlew installDist
+set -eo pipefail
+
+[[ "$TRACE" ]] && set -x
+
+SCRIPTS_DIR="$( cd -P "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
+ITERATIONS=${1:-10}
+INSTALLS=("$SCRIPTS_DIR/../build/install/epirus")
+if [[ -n "$2" ]]; then
+    INSTALLS=("$2" "${INSTALLS[@]}")
+fi
+COMMANDS=("--version" "wallet --help")
+
+BENCHMARK_HOME=$(mktemp -d)
+trap 'rm -rf "$BENCHMARK_HOME"' EXIT
+export EPIRUS_NO_DAEMON=true
+
+now_millis() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+for INSTALL in "${INSTALLS[@]}"; do
+    EPIRUS="$INSTALL/bin/epirus"
+    if [[ ! -x "$EPIRUS" ]]; then
+        echo "ERROR: $EPIRUS not found, run ./gradlew installDist first"
+        exit 1
+    fi
+    # the first run creates the config and the default wallet
+    JAVA_OPTS="-Duser.home=$BENCHMARK_HOME" "$EPIRUS" wallet --help > /dev/null 2>&1 || true
+
+    echo "$INSTALL"
+    for COMMAND in "${COMMANDS[@]}"; do
+        CLASSES=$(JAVA_OPTS="-Duser.home=$BENCHMARK_HOME -verbose:class" "$EPIRUS" $COMMAND 2>&1 \
+            | grep -E '\[class,load\]|\[Loaded ' || true)
+        total=0
+        for ((i = 0; i < ITERATIONS; i++)); do
+            start=$(now_millis)
+            JAVA_OPTS="-Duser.home=$BENCHMARK_HOME" "$EPIRUS" $COMMAND > /dev/null 2>&1 || true
+            total=$(( total + $(now_millis) - start ))
+        done
+        printf "  epirus %-14s %5d ms  %5d classes (web3j: %d, docker-java: %d, kotlin: %d)\n" \
+            "$COMMAND" $(( total / ITERATIONS )) \
+            "$(echo "$CLASSES" | grep -c . || true)" \
+            "$(echo "$CLASSES" | grep -c ' org\.web3j\.' || true)" \
+            "$(echo "$CLASSES" | grep -c ' com\.github\.dockerjava\.' || true)" \
+            "$(echo "$CLASSES" | grep -c ' kotlin\.' || true)"
+    done
+done
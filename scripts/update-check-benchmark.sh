@@ -0,0 +1,54 @@
+#!/bin/bash
+# Measures CLI startup with a fresh update-check cache against an expired one,
+# showing that the update check adds no network time to command execution.
+#
+# Usage: scripts/update-check-benchmark.sh [iterations]
+# Requires the distribution to be installed first: ./gradlew installDist
+set -eo pipefail
+
+[[ "$TRACE" ]] && set -x
+
+SCRIPTS_DIR="$( cd -P "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
+EPIRUS="$SCRIPTS_DIR/../build/install/epirus/bin/epirus"
+ITERATIONS=${1:-10}
+
+if [[ ! -x "$EPIRUS" ]]; then
+    echo "ERROR: $EPIRUS not found, run ./gradlew installDist first"
+    exit 1
+fi
+
+BENCHMARK_HOME=$(mktemp -d)
+trap 'rm -rf "$BENCHMARK_HOME"' EXIT
+export EPIRUS_NO_DAEMON=true
+
+now_millis() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+run_epirus() {
+    JAVA_OPTS="-Duser.home=$BENCHMARK_HOME" "$EPIRUS" --version > /dev/null 2>&1 || true
+}
+
+# the first run creates the config and the default wallet
+run_epirus
+WALLET=$(sed -n 's/.*"defaultWalletPath":"\([^"]*\)".*/\1/p' "$BENCHMARK_HOME/.epirus/.config")
+
+measure() {
+    local last_check=$1
+    local total=0
+    for ((i = 0; i < ITERATIONS; i++)); do
+        echo "{\"clientId\":\"benchmark\",\"defaultWalletPath\":\"$WALLET\",\"defaultWalletPassword\":\"\",\"lastUpdateCheck\":$last_check}" \
+            > "$BENCHMARK_HOME/.epirus/.config"
+        local start=$(now_millis)
+        run_epirus
+        total=$(( total + $(now_millis) - start ))
+    done
+    echo $(( total / ITERATIONS ))
+}
+
+FRESH=$(measure "$(now_millis)")
+EXPIRED=$(measure 0)
+
+echo "epirus --version ($ITERATIONS iterations)"
+echo "  fresh update-check cache:   ${FRESH} ms"
+echo "  expired update-check cache: ${EXPIRED} ms"
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.project;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Imports a generated tree of Solidity files, with vendored dependencies and other files mixed in,
+ * into an empty project and again into an up to date one, and compares it with the serial walk and
+ * {@code Files.copy} of every file the import replaced. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class SolidityImportBenchmark {
+
+    @Param({"5000"})
+    public int files;
+
+    private Path source;
+    private Path destination;
+    private Path upToDate;
+
+    @Setup(Level.Trial)
+    public void createTree() throws IOException {
+        source = Files.createTempDirectory("epirus-import-source");
+        for (int i = 0; i < files; i++) {
+            final Path folder =
+                    source.resolve(
+                            i % 5 == 0 ? "node_modules/lib" + i % 50 : "contracts/c" + i % 20);
+            Files.createDirectories(folder);
+            final String name = i % 10 == 9 ? "Contract" + i + ".json" : "Contract" + i + ".sol";
+            Files.write(folder.resolve(name), contract(i));
+        }
+        upToDate = Files.createTempDirectory("epirus-import-up-to-date");
+        new SolidityImporter().importSolidity(source, upToDate);
+    }
+
+    @Setup(Level.Invocation)
+    public void createDestination() throws IOException {
+        destination = Files.createTempDirectory("epirus-import-destination");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteDestination() throws IOException {
+        delete(destination);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        delete(source);
+        delete(upToDate);
+    }
+
+    @Benchmark
+    public SolidityImporter.Result importIntoEmptyProject() throws IOException {
+        return new SolidityImporter().importSolidity(source, destination);
+    }
+
+    @Benchmark
+    public SolidityImporter.Result importIntoUpToDateProject() throws IOException {
+        return new SolidityImporter().importSolidity(source, upToDate);
+    }
+
+    @Benchmark
+    public Path serialCopy() throws IOException {
+        Files.walkFileTree(
+                source,
+                new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(
+                            final Path file, final BasicFileAttributes attributes)
+                            throws IOException {
+                        final Path target =
+                                destination.resolve(
+                                        source.toFile()
+                                                .getCanonicalFile()
+                                                .toPath()
+                                                .relativize(
+                                                        file.toFile().getCanonicalFile().toPath()));
+                        Files.createDirectories(target.getParent());
+                        Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+        return destination;
+    }
+
+    private static byte[] contract(final int i) {
+        final StringBuilder builder = new StringBuilder("pragma solidity ^0.6.0;\n\n");
+        builder.append("contract Contract").append(i).append(" {\n");
+        for (int j = 0; j < 40; j++) {
+            builder.append("    uint256 public value").append(j).append(";\n");
+        }
+        return builder.append("}\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void delete(final Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder())
+                    .map(Path::toFile)
+                    .forEach(file -> file.delete());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.project.templates;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Renders all project templates for a number of synthetic projects, with the compiled and cached
+ * templates and with the read and {@code replaceAll} passes they replaced. Run with {@code
+ * ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class TemplateRenderingBenchmark {
+
+    private static final String[] TEMPLATES = {
+        "project/Java.template",
+        "project/Kotlin.template",
+        "project/EmptyJava.template",
+        "project/EmptyKotlin.template",
+        "project/build.gradle.template",
+        "project/build.gradleJava11.template",
+        "project/build.gradleImport.template",
+        "project/build.gradleImportJava11.template",
+        "project/settings.gradle.template",
+        "project/Dockerfile.template",
+        "project/gradlew-wrapper.properties.template",
+        "project/gradlew.template",
+        "project/gradlew.bat.template"
+    };
+
+    @Param({"1000"})
+    public int projects;
+
+    private String[] packageNames;
+    private String[] projectNames;
+
+    @Setup
+    public void setUp() {
+        packageNames = new String[projects];
+        projectNames = new String[projects];
+        for (int i = 0; i < projects; i++) {
+            packageNames[i] = "io.epirus.benchmark.p" + i;
+            projectNames[i] = "Project" + i;
+        }
+    }
+
+    @Benchmark
+    public long compiledTemplates() throws IOException {
+        final CountingOutputStream out = new CountingOutputStream();
+        final Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < projects; i++) {
+            values.put(Template.PACKAGE_NAME, packageNames[i]);
+            values.put(Template.PROJECT_NAME, projectNames[i]);
+            for (String template : TEMPLATES) {
+                TemplateReader.readTemplate(template).render(values, out);
+            }
+        }
+        return out.count;
+    }
+
+    @Benchmark
+    public long readAndReplaceAll() throws IOException {
+        final CountingOutputStream out = new CountingOutputStream();
+        for (int i = 0; i < projects; i++) {
+            for (String template : TEMPLATES) {
+                out.write(
+                        readFile(template)
+                                .replaceAll("<package_name>", packageNames[i])
+                                .replaceAll("<project_name>", projectNames[i])
+                                .getBytes());
+            }
+        }
+        return out.count;
+    }
+
+    private static String readFile(final String name) throws IOException {
+        try (final InputStream stream =
+                        TemplateRenderingBenchmark.class
+                                .getClassLoader()
+                                .getResourceAsStream(name);
+                final BufferedReader reader = new BufferedReader(new InputStreamReader(stream))) {
+            String temp;
+            final StringBuilder stringBuilder = new StringBuilder();
+            while ((temp = reader.readLine()) != null) {
+                stringBuilder.append(temp).append("\n");
+            }
+            return stringBuilder.toString();
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(final int b) {
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Audits a generated corpus of contracts, each with a few of the patterns the SmartCheck rules
+ * report, with one worker, with one worker per CPU and again from the audit cache. Run with {@code
+ * ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ContractAuditBenchmark {
+
+    @Param({"800"})
+    public int contracts;
+
+    private Path corpus;
+    private Path cacheFile;
+
+    @Setup
+    public void createCorpus() throws IOException {
+        corpus = Files.createTempDirectory("epirus-audit-corpus");
+        for (int i = 0; i < contracts; i++) {
+            final Path folder = corpus.resolve("contracts" + i % 16);
+            Files.createDirectories(folder);
+            Files.write(folder.resolve("Contract" + i + ".sol"), contract(i));
+        }
+        cacheFile = corpus.resolve("build").resolve(AuditCache.FILE_NAME);
+    }
+
+    @TearDown
+    public void deleteCorpus() throws IOException {
+        try (Stream<Path> paths = Files.walk(corpus)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public AuditRunner.Result singleWorker() throws Exception {
+        return new AuditRunner(1, SmartCheckAuditor::new).run(corpus);
+    }
+
+    @Benchmark
+    public AuditRunner.Result workerPerCpu() throws Exception {
+        return new AuditRunner(Runtime.getRuntime().availableProcessors(), SmartCheckAuditor::new)
+                .run(corpus);
+    }
+
+    /** Audits a corpus that has not changed since it was last audited. */
+    @Benchmark
+    public AuditRunner.Result noChangeRerun() throws Exception {
+        return new AuditRunner(Runtime.getRuntime().availableProcessors(), SmartCheckAuditor::new)
+                .run(corpus, cacheFile);
+    }
+
+    static byte[] contract(final int i) {
+        final StringBuilder builder = new StringBuilder("pragma solidity ^0.5.0;\n\n");
+        builder.append("contract Contract").append(i).append(" {\n");
+        builder.append("    address owner;\n    mapping(address => uint) balances;\n\n");
+        for (int j = 0; j < 10; j++) {
+            builder.append("    function withdraw")
+                    .append(j)
+                    .append("(uint amount) public {\n")
+                    .append("        require(tx.origin == owner);\n")
+                    .append("        for (uint k = 0; k < balances[msg.sender]; k++) {}\n")
+                    .append("        msg.sender.call.value(amount)(\"\");\n")
+                    .append("        balances[msg.sender] -= amount;\n")
+                    .append("    }\n\n");
+        }
+        return builder.append("}\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluates the rules against the parse tree of each contract, either loading and compiling the
+ * rules again for every tree or compiling them once and reusing them for all trees, as the audit
+ * workers do. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(RuleEvaluationBenchmark.CONTRACTS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RuleEvaluationBenchmark {
+
+    static final int CONTRACTS = 100;
+
+    private Path corpus;
+    private final List<Path> contracts = new ArrayList<>();
+
+    @Setup
+    public void createCorpus() throws IOException {
+        corpus = Files.createTempDirectory("epirus-rules-corpus");
+        for (int i = 0; i < CONTRACTS; i++) {
+            final Path contract = corpus.resolve("Contract" + i + ".sol");
+            Files.write(contract, ContractAuditBenchmark.contract(i));
+            contracts.add(contract);
+        }
+    }
+
+    @TearDown
+    public void deleteCorpus() throws IOException {
+        try (Stream<Path> paths = Files.walk(corpus)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public int rulesPerTree() throws Exception {
+        int findings = 0;
+        for (Path contract : contracts) {
+            try (SmartCheckAuditor auditor = new SmartCheckAuditor()) {
+                findings += auditor.audit(contract).size();
+            }
+        }
+        return findings;
+    }
+
+    @Benchmark
+    public int compiledRules() throws Exception {
+        int findings = 0;
+        try (SmartCheckAuditor auditor = new SmartCheckAuditor()) {
+            for (Path contract : contracts) {
+                findings += auditor.audit(contract).size();
+            }
+        }
+        return findings;
+    }
+}
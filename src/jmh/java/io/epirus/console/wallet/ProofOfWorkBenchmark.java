@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.wallet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.web3j.utils.Numeric;
+
+import static org.web3j.crypto.Hash.sha256;
+
+/**
+ * Compares the faucet proof of work solver against the parallel stream implementation it replaced.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ProofOfWorkBenchmark {
+
+    @Param({"4", "5", "6"})
+    public int difficulty;
+
+    @Param({"0x2c1ba3e9d8f74b6a"})
+    public String seed;
+
+    @Benchmark
+    public int proofOfWork() throws InterruptedException {
+        return new ProofOfWork(seed, difficulty).solve().getNonce();
+    }
+
+    @Benchmark
+    public int parallelStream() {
+        final AtomicBoolean found = new AtomicBoolean(false);
+        final AtomicInteger intResult = new AtomicInteger(0);
+        IntStream.range(0, Integer.MAX_VALUE)
+                .parallel()
+                .forEach(
+                        i -> {
+                            if (found.get()) return;
+                            String potentialHash =
+                                    Numeric.toHexString(
+                                                    sha256(
+                                                            (i + seed)
+                                                                    .getBytes(
+                                                                            StandardCharsets
+                                                                                    .UTF_8)))
+                                            .substring(2);
+                            if (potentialHash.startsWith(
+                                    new String(new char[difficulty]).replace("\0", "0"))) {
+                                found.set(true);
+                                intResult.set(i);
+                            }
+                        });
+        return intResult.get();
+    }
+}
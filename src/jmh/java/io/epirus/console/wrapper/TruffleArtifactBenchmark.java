@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.wrapper;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.web3j.codegen.TruffleJsonFunctionWrapperGenerator;
+import org.web3j.protocol.ObjectMapperFactory;
+
+/**
+ * Reads a generated Truffle artifact of about 50MB, mostly {@code ast} and {@code source}, with the
+ * pull parser and with the full binding of {@code TruffleJsonFunctionWrapperGenerator}. The full
+ * binding keeps the whole AST in memory and needs a heap of about 512MB to get through it, the pull
+ * parser runs in an 8MB heap; run with {@code profilers = ['gc']} in the jmh block to compare their
+ * allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class TruffleArtifactBenchmark {
+
+    @Param({"50"})
+    public int megabytes;
+
+    private File artifact;
+
+    @Setup
+    public void createArtifact() throws IOException {
+        artifact = Files.createTempFile("epirus-truffle", ".json").toFile();
+        writeArtifact(artifact.toPath(), megabytes * 1024L * 1024L);
+    }
+
+    @TearDown
+    public void deleteArtifact() {
+        artifact.delete();
+    }
+
+    @Benchmark
+    public TruffleArtifact pullParser() throws IOException {
+        return TruffleArtifact.read(artifact);
+    }
+
+    @Benchmark
+    public TruffleJsonFunctionWrapperGenerator.Contract fullBinding() throws IOException {
+        return ObjectMapperFactory.getObjectMapper()
+                .readValue(artifact, TruffleJsonFunctionWrapperGenerator.Contract.class);
+    }
+
+    /** Writes an artifact whose AST nodes and source add up to about the given size. */
+    static void writeArtifact(final Path path, final long size) throws IOException {
+        try (Writer writer =
+                new BufferedWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            writer.write("{\"contractName\":\"MetaCoin\",\"abi\":[");
+            for (int i = 0; i < 20; i++) {
+                writer.write(i == 0 ? "" : ",");
+                writer.write(
+                        "{\"constant\":false,\"inputs\":[{\"name\":\"receiver\",\"type\":\"address\"},"
+                                + "{\"name\":\"amount\",\"type\":\"uint256\"}],\"name\":\"send"
+                                + i
+                                + "\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],"
+                                + "\"payable\":false,\"stateMutability\":\"nonpayable\","
+                                + "\"type\":\"function\"}");
+            }
+            writer.write("],\"bytecode\":\"0x608060405234801561001057600080fd5b50\",");
+            long written = 0;
+            writer.write("\"ast\":{\"nodeType\":\"SourceUnit\",\"nodes\":[");
+            for (int i = 0; written < size / 2; i++) {
+                final String node =
+                        (i == 0 ? "" : ",")
+                                + "{\"id\":"
+                                + i
+                                + ",\"nodeType\":\"VariableDeclaration\",\"name\":\"value"
+                                + i
+                                + "\",\"src\":\""
+                                + i
+                                + ":24:0\",\"typeDescriptions\":{\"typeIdentifier\":"
+                                + "\"t_uint256\",\"typeString\":\"uint256\"}}";
+                writer.write(node);
+                written += node.length();
+            }
+            writer.write("]},\"source\":\"");
+            while (written < size) {
+                final String line = "    uint256 public value; // padding the source map\\n";
+                writer.write(line);
+                written += line.length();
+            }
+            writer.write(
+                    "\",\"networks\":{\"5777\":{\"events\":{},\"links\":{},"
+                            + "\"address\":\"0x2a5a5f3c7e2d8a0b9f4e1e6b8d5c3a2f1e0d9c8b\"}},"
+                            + "\"schemaVersion\":\"3.0.23\"}");
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.wrapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.web3j.codegen.SolidityFunctionWrapperGenerator;
+
+/**
+ * Generates the wrappers of synthetic contracts one after the other, as separate {@code epirus
+ * solidity generate} runs did minus their JVM start, and as one concurrent batch. Run with {@code
+ * ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class WrapperGenerationBenchmark {
+
+    @Param({"200"})
+    public int contracts;
+
+    private Path inputs;
+    private Path destination;
+    private SolidityWrapperBatch batch;
+
+    @Setup(Level.Trial)
+    public void createContracts() throws IOException {
+        inputs = Files.createTempDirectory("epirus-wrapper-inputs");
+        for (int i = 0; i < contracts; i++) {
+            Files.write(inputs.resolve("Contract" + i + ".abi"), abi(i));
+            Files.write(
+                    inputs.resolve("Contract" + i + ".bin"),
+                    "608060405234801561001057600080fd5b50".getBytes(StandardCharsets.UTF_8));
+        }
+        final List<File> folder = Collections.singletonList(inputs.toFile());
+        batch = SolidityWrapperBatch.of(folder, folder);
+    }
+
+    @Setup(Level.Invocation)
+    public void createDestination() throws IOException {
+        destination = Files.createTempDirectory("epirus-wrappers");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteDestination() throws IOException {
+        delete(destination);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteContracts() throws IOException {
+        delete(inputs);
+    }
+
+    @Benchmark
+    public int serial() throws Exception {
+        for (SolidityWrapperBatch.Contract contract : batch.getContracts()) {
+            new SolidityFunctionWrapperGenerator(
+                            contract.getBinFile(),
+                            contract.getAbiFile(),
+                            destination.toFile(),
+                            contract.getName(),
+                            "io.epirus.benchmark",
+                            true,
+                            false,
+                            20)
+                    .generate();
+        }
+        return batch.getContracts().size();
+    }
+
+    @Benchmark
+    public List<SolidityWrapperBatch.Result> batch() throws InterruptedException, IOException {
+        return batch.generate(
+                destination.toFile(),
+                "io.epirus.benchmark",
+                true,
+                false,
+                20,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /** A contract with a constructor, an event and functions over the common Solidity types. */
+    private static byte[] abi(final int i) {
+        final String[] types = {"uint256", "address", "bool", "bytes32", "string", "uint8[]"};
+        final StringBuilder builder = new StringBuilder("[");
+        builder.append(
+                "{\"inputs\":[{\"name\":\"owner\",\"type\":\"address\"}],"
+                        + "\"stateMutability\":\"nonpayable\",\"type\":\"constructor\"},");
+        builder.append(
+                        "{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"from\","
+                                + "\"type\":\"address\"},{\"indexed\":false,\"name\":\"value\","
+                                + "\"type\":\"uint256\"}],\"name\":\"Changed")
+                .append(i)
+                .append("\",\"type\":\"event\"}");
+        for (int j = 0; j < 12; j++) {
+            final String type = types[(i + j) % types.length];
+            builder.append(",{\"inputs\":[{\"name\":\"arg\",\"type\":\"")
+                    .append(type)
+                    .append("\"}],\"name\":\"set")
+                    .append(j)
+                    .append("\",\"outputs\":[],\"stateMutability\":\"nonpayable\",")
+                    .append("\"type\":\"function\"}");
+            builder.append(",{\"inputs\":[],\"name\":\"get")
+                    .append(j)
+                    .append("\",\"outputs\":[{\"name\":\"\",\"type\":\"")
+                    .append(type)
+                    .append("\"}],\"stateMutability\":\"view\",\"type\":\"function\"}");
+        }
+        return builder.append("]").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void delete(final Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
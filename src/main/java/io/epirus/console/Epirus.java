@@ -12,8 +12,17 @@
  */
 package io.epirus.console;
 
+import java.util.OptionalInt;
+
+import io.epirus.console.daemon.DaemonClient;
+
 public class Epirus {
     public static void main(String[] args) {
+        final OptionalInt daemonResult = DaemonClient.forward(args, System.getenv());
+        if (daemonResult.isPresent()) {
+            System.exit(daemonResult.getAsInt());
+        }
+
         System.setProperty("picocli.version.name.0", "-v");
         final int result = new EpirusCommand(System.getenv(), args).parse();
         if (result != 0) {
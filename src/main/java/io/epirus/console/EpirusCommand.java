@@ -13,13 +13,20 @@
 package io.epirus.console;
 
 import java.io.IOException;
-import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import com.google.common.annotations.VisibleForTesting;
 import io.epirus.console.account.AccountCommand;
 import io.epirus.console.account.subcommands.LoginCommand;
 import io.epirus.console.account.subcommands.LogoutCommand;
 import io.epirus.console.config.ConfigManager;
+import io.epirus.console.daemon.DaemonCommand;
+import io.epirus.console.daemon.ExitTrappedException;
 import io.epirus.console.docker.DockerCommand;
 import io.epirus.console.openapi.OpenApiCommand;
 import io.epirus.console.project.ImportProjectCommand;
@@ -41,28 +48,10 @@ import org.web3j.codegen.Console;
 
 import static io.epirus.console.config.ConfigManager.config;
 import static java.io.File.separator;
-import static org.web3j.codegen.Console.exitSuccess;
 
 /** Main entry point for running command line utilities. */
 @CommandLine.Command(
         name = "epirus",
-        subcommands = {
-            CommandLine.HelpCommand.class,
-            WalletCommand.class,
-            DockerCommand.class,
-            SolidityFunctionWrapperGeneratorCommand.class,
-            TruffleFunctionWrapperGeneratorCommand.class,
-            ContractAuditCommand.class,
-            NewProjectCommand.class,
-            ImportProjectCommand.class,
-            AccountCommand.class,
-            LoginCommand.class,
-            LogoutCommand.class,
-            ProjectTestCommand.class,
-            UnitTestCommand.class,
-            RunCommand.class,
-            OpenApiCommand.class,
-        },
         showDefaultValues = true,
         abbreviateSynopsis = true,
         description = "Run Epirus CLI commands",
@@ -88,37 +77,94 @@ public class EpirusCommand implements Runnable {
                     + "        | |                     \n"
                     + "        |_|                     ";
 
+    /**
+     * Subcommands by name. Only the invoked one is registered, so that the classes needed by the
+     * others (web3j, docker-java, Kotlin, Gradle...) are not loaded on startup.
+     */
+    private static final Map<String, Supplier<Class<?>>> SUBCOMMANDS = new LinkedHashMap<>();
+
+    static {
+        SUBCOMMANDS.put("help", () -> CommandLine.HelpCommand.class);
+        SUBCOMMANDS.put("wallet", () -> WalletCommand.class);
+        SUBCOMMANDS.put("docker", () -> DockerCommand.class);
+        SUBCOMMANDS.put("solidity", () -> SolidityFunctionWrapperGeneratorCommand.class);
+        SUBCOMMANDS.put("truffle", () -> TruffleFunctionWrapperGeneratorCommand.class);
+        SUBCOMMANDS.put("audit", () -> ContractAuditCommand.class);
+        SUBCOMMANDS.put("new", () -> NewProjectCommand.class);
+        SUBCOMMANDS.put("import", () -> ImportProjectCommand.class);
+        SUBCOMMANDS.put("account", () -> AccountCommand.class);
+        SUBCOMMANDS.put("login", () -> LoginCommand.class);
+        SUBCOMMANDS.put("logout", () -> LogoutCommand.class);
+        SUBCOMMANDS.put("test", () -> ProjectTestCommand.class);
+        SUBCOMMANDS.put("generate-tests", () -> UnitTestCommand.class);
+        SUBCOMMANDS.put("run", () -> RunCommand.class);
+        SUBCOMMANDS.put("openapi", () -> OpenApiCommand.class);
+        SUBCOMMANDS.put("daemon", () -> DaemonCommand.class);
+    }
+
+    private static final String[] VERSION_OPTIONS = {"-v", "-V", "--version"};
+    private static final String[] HELP_OPTIONS = {"-h", "--help"};
+
     private final CommandLine commandLine;
     private final Map<String, String> environment;
     private final String[] args;
 
-    @CommandLine.Option(
-            names = {"--telemetry"},
-            description = "Whether to perform analytics.",
-            defaultValue = "false")
-    public boolean telemetry;
-
     public EpirusCommand(final Map<String, String> environment, String[] args) {
         this.commandLine = new CommandLine(this);
         this.environment = environment;
         this.args = args;
+        registerSubcommands();
     }
 
     public int parse() {
         commandLine.setCaseInsensitiveEnumValuesAllowed(true);
         commandLine.setParameterExceptionHandler(this::handleParseException);
+        commandLine.setExecutionExceptionHandler(this::handleExecutionException);
         commandLine.setDefaultValueProvider(new EnvironmentVariableDefaultProvider(environment));
 
         System.out.println(LOGO);
         try {
             ConfigManager.setProduction();
-            maybeCreateDefaultWallet();
+            if (!isVersionRequest()) {
+                maybeCreateDefaultWallet();
+            }
             Updater.promptIfUpdateAvailable();
         } catch (IOException e) {
             Console.exitError("Failed to initialise the CLI");
         }
+        if (!isVersionRequest()) {
+            performTelemetryUpload();
+        }
+
+        try {
+            return commandLine.execute(args);
+        } finally {
+            config.commit();
+        }
+    }
 
-        return commandLine.execute(args);
+    @VisibleForTesting
+    CommandLine getCommandLine() {
+        return commandLine;
+    }
+
+    private void registerSubcommands() {
+        final String invoked =
+                Stream.of(args).filter(arg -> !arg.startsWith("-")).findFirst().orElse(null);
+        if (invoked != null && !invoked.equals("help") && SUBCOMMANDS.containsKey(invoked)) {
+            commandLine.addSubcommand(invoked, SUBCOMMANDS.get(invoked).get());
+        } else if (invoked != null || args.length == 0 || containsAny(args, HELP_OPTIONS)) {
+            // usage help, suggestions for mistyped commands and the help command list them all
+            SUBCOMMANDS.forEach((name, command) -> commandLine.addSubcommand(name, command.get()));
+        }
+    }
+
+    private boolean isVersionRequest() {
+        return args.length == 1 && containsAny(args, VERSION_OPTIONS);
+    }
+
+    private static boolean containsAny(final String[] args, final String[] options) {
+        return !Collections.disjoint(Arrays.asList(args), Arrays.asList(options));
     }
 
     private int handleParseException(final CommandLine.ParameterException ex, final String[] args) {
@@ -130,9 +176,23 @@ public class EpirusCommand implements Runnable {
         return ex.getCommandLine().getCommandSpec().exitCodeOnInvalidInput();
     }
 
+    private int handleExecutionException(
+            final Exception ex,
+            final CommandLine commandLine,
+            final CommandLine.ParseResult parseResult)
+            throws Exception {
+        if (ex instanceof ExitTrappedException) {
+            // System.exit was called by a command running inside the daemon
+            return ((ExitTrappedException) ex).getStatus();
+        }
+        throw ex;
+    }
+
     @Override
     public void run() {
-        performTelemetryUpload();
+        if (args.length == 0) {
+            commandLine.usage(commandLine.getOut());
+        }
     }
 
     private void maybeCreateDefaultWallet() {
@@ -151,19 +211,9 @@ public class EpirusCommand implements Runnable {
     }
 
     private void performTelemetryUpload() {
-        if (args.length == 0) {
-            commandLine.usage(commandLine.getOut());
-        }
-        if (telemetry) {
-            Telemetry.uploadTelemetry(args);
-            Updater.onlineUpdateCheck();
-            exitSuccess();
-        } else if (!config.isTelemetryDisabled()) {
-            try {
-                Telemetry.invokeTelemetryUpload(args);
-            } catch (URISyntaxException | IOException e) {
-                Console.exitError("Failed to invoke telemetry upload");
-            }
+        if (!config.isTelemetryDisabled()) {
+            Telemetry.recordCommand(args);
+            Updater.scheduleUpdateCheck();
         }
     }
 }
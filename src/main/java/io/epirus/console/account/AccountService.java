@@ -15,12 +15,16 @@ package io.epirus.console.account;
 import java.io.Closeable;
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import com.diogonunes.jcdp.color.api.Ansi;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import io.epirus.web3j.Epirus;
+import io.epirus.console.utils.Backoff;
+import io.epirus.console.utils.CliEnvironment;
+import io.epirus.console.web.services.HttpClientProvider;
 import okhttp3.FormBody;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -28,7 +32,6 @@ import okhttp3.Response;
 import okhttp3.ResponseBody;
 
 import org.web3j.crypto.Credentials;
-import org.web3j.protocol.Network;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.DefaultBlockParameterName;
 import org.web3j.protocol.core.methods.response.EthGetBalance;
@@ -40,19 +43,29 @@ import static org.web3j.codegen.Console.exitError;
 
 public class AccountService implements Closeable {
 
-    public static final String DEFAULT_APP_URL =
-            System.getenv().getOrDefault("EPIRUS_APP_URL", "https://portal.epirus.io");
+    private static final long FUNDING_TIMEOUT_MINUTES = 5;
 
     private final String cloudURL;
-    private final OkHttpClient client = new OkHttpClient();
+    private final OkHttpClient client;
 
     @VisibleForTesting
-    public AccountService(String cloudURL) {
+    public AccountService(String cloudURL, OkHttpClient client) {
         this.cloudURL = cloudURL;
+        this.client = client;
+    }
+
+    @VisibleForTesting
+    public AccountService(String cloudURL) {
+        this(cloudURL, HttpClientProvider.getClient());
     }
 
     public AccountService() {
-        this(DEFAULT_APP_URL);
+        this(getDefaultAppUrl());
+    }
+
+    /** The portal of the current invocation, which may be changed with {@code EPIRUS_APP_URL}. */
+    public static String getDefaultAppUrl() {
+        return CliEnvironment.getOrDefault("EPIRUS_APP_URL", "https://portal.epirus.io");
     }
 
     public boolean createAccount(String email) {
@@ -91,8 +104,7 @@ public class AccountService implements Closeable {
         Request accountRequest =
                 new Request.Builder().url(String.format("%s%s", cloudURL, url)).post(body).build();
 
-        try {
-            Response sendRawResponse = client.newCall(accountRequest).execute();
+        try (Response sendRawResponse = client.newCall(accountRequest).execute()) {
             ResponseBody responseBody;
             if (sendRawResponse.code() == 200 && (responseBody = sendRawResponse.body()) != null) {
                 return responseBody.string();
@@ -117,6 +129,7 @@ public class AccountService implements Closeable {
                                         "%s/api/users/status/%s", cloudURL, config.getLoginToken()))
                         .get()
                         .build();
+        Backoff backoff = new Backoff(1000, 10000);
         while (tries-- > 0) {
             if (userConfirmedAccount(request)) {
                 return true;
@@ -124,30 +137,34 @@ public class AccountService implements Closeable {
                 printInformationPairWithStatus(
                         "Account status", 20, "PENDING ", Ansi.FColor.YELLOW);
             }
-            Thread.sleep(10000);
+            if (tries > 0) {
+                backoff.await();
+            }
         }
         return false;
     }
 
     private boolean userConfirmedAccount(Request request) throws IOException {
-        Response response = client.newCall(request).execute();
-        ResponseBody responseBody = response.body();
+        try (Response response = client.newCall(request).execute()) {
+            ResponseBody responseBody = response.body();
 
-        if (response.code() == 401) {
-            exitError("Your current login token is invalid. Please log out & log in again.");
-        }
+            if (response.code() == 401) {
+                exitError("Your current login token is invalid. Please log out & log in again.");
+            }
 
-        if (response.code() != 200 || responseBody == null) {
-            return false;
+            if (response.code() != 200 || responseBody == null) {
+                return false;
+            }
+            JsonObject responseJsonObj =
+                    JsonParser.parseString(responseBody.string()).getAsJsonObject();
+            return responseJsonObj.get("active").getAsBoolean();
         }
-        JsonObject responseJsonObj =
-                JsonParser.parseString(responseBody.string()).getAsJsonObject();
-        return responseJsonObj.get("active").getAsBoolean();
     }
 
     public BigInteger getAccountBalance(Credentials credentials, Web3j web3j) {
         int count = 0;
         int maxTries = 10;
+        Backoff backoff = new Backoff(500, 5000);
         while (true) {
             try {
                 EthGetBalance accountBalance =
@@ -157,43 +174,36 @@ public class AccountService implements Closeable {
                 if (accountBalance.getError() == null) {
                     return accountBalance.getBalance();
                 }
-
+                if (++count == maxTries) {
+                    printErrorAndExit(accountBalance.getError().getMessage());
+                }
             } catch (Exception e) {
                 if (++count == maxTries) {
                     printErrorAndExit(e.getMessage());
                 }
-                try {
-                    Thread.sleep(2000);
-                } catch (InterruptedException ex) {
-                    Thread.currentThread().interrupt();
-                }
             }
-        }
-    }
-
-    public BigInteger pollForAccountBalance(
-            Credentials credentials, Network network, Web3j web3j, int numberOfBlocksToCheck)
-            throws IOException {
-        BigInteger accountBalance = null;
-        BigInteger startBlock = web3j.ethBlockNumber().send().getBlockNumber();
-        BigInteger stopBlock = startBlock.add(BigInteger.valueOf(numberOfBlocksToCheck));
-        while (web3j.ethBlockNumber().send().getBlockNumber().compareTo(stopBlock) < 0) {
             try {
-                accountBalance =
-                        Epirus.buildWeb3j(Network.valueOf(network.getNetworkName().toUpperCase()))
-                                .ethGetBalance(
-                                        credentials.getAddress(), DefaultBlockParameterName.LATEST)
-                                .send()
-                                .getBalance();
-                if (accountBalance.compareTo(BigInteger.ZERO) > 0) {
-                    return accountBalance;
-                }
-                Thread.sleep(5000);
-            } catch (Exception e) {
-                printErrorAndExit("Could not check the account balance." + e.getMessage());
+                backoff.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while reading the balance", ex);
             }
         }
-        return accountBalance;
+    }
+
+    /**
+     * Waits until the funding transaction is mined, using the given client for the whole wait.
+     *
+     * @return the balance of the funded account
+     */
+    public BigInteger waitForFunding(Credentials credentials, Web3j web3j, String transactionHash)
+            throws IOException, InterruptedException, TimeoutException {
+        return new BalanceWatcher(web3j)
+                .awaitFunding(
+                        credentials.getAddress(),
+                        transactionHash,
+                        FUNDING_TIMEOUT_MINUTES,
+                        TimeUnit.MINUTES);
     }
 
     public String getLoginToken() {
@@ -202,7 +212,6 @@ public class AccountService implements Closeable {
 
     @Override
     public void close() {
-        this.client.dispatcher().executorService().shutdown();
-        this.client.connectionPool().evictAll();
+        // the client and its connection pool are shared by the whole process, nothing to release
     }
 }
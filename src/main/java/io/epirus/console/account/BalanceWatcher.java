@@ -0,0 +1,219 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.account;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.reactivex.disposables.Disposable;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+
+/**
+ * Waits for a funding transaction to be mined and returns the new balance of the funded account.
+ *
+ * <p>New blocks are taken from a new heads subscription when the provider supports one (i.e. over a
+ * websocket), otherwise from a block filter, so that the transaction receipt is only requested once
+ * per block. Providers without filters are polled for the receipt directly. Polling starts at a
+ * short interval which grows, with some jitter, up to about a block time.
+ */
+public class BalanceWatcher {
+    static final long DEFAULT_MIN_POLL_MILLIS = 1000;
+    static final long DEFAULT_MAX_POLL_MILLIS = 15000;
+    private static final double POLL_BACKOFF = 1.5;
+    private static final double POLL_JITTER = 0.2;
+
+    private final Web3j web3j;
+    private final long minPollMillis;
+    private final long maxPollMillis;
+    private final Random random = new Random();
+
+    public BalanceWatcher(final Web3j web3j) {
+        this(web3j, DEFAULT_MIN_POLL_MILLIS, DEFAULT_MAX_POLL_MILLIS);
+    }
+
+    BalanceWatcher(final Web3j web3j, final long minPollMillis, final long maxPollMillis) {
+        this.web3j = web3j;
+        this.minPollMillis = minPollMillis;
+        this.maxPollMillis = maxPollMillis;
+    }
+
+    /**
+     * Blocks until the transaction is mined, or without a transaction hash until the balance of the
+     * address is positive.
+     *
+     * @return the balance of the address once funded
+     * @throws TimeoutException if that did not happen within the given time
+     */
+    public BigInteger awaitFunding(
+            final String address,
+            final String transactionHash,
+            final long timeout,
+            final TimeUnit unit)
+            throws IOException, InterruptedException, TimeoutException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (isFunded(address, transactionHash)) {
+            return getBalance(address);
+        }
+
+        final Semaphore heads = new Semaphore(0);
+        final AtomicBoolean subscriptionFailed = new AtomicBoolean();
+        final Disposable subscription = subscribeToNewHeads(heads, subscriptionFailed);
+        try {
+            if (subscription != null) {
+                while (heads.tryAcquire(remainingNanos(deadline), TimeUnit.NANOSECONDS)) {
+                    if (subscriptionFailed.get()) {
+                        return pollForFunding(address, transactionHash, deadline);
+                    }
+                    // several heads may have arrived meanwhile, one check covers them all
+                    heads.drainPermits();
+                    if (isFunded(address, transactionHash)) {
+                        return getBalance(address);
+                    }
+                }
+                throw new TimeoutException("The funding transaction was not mined in time");
+            }
+            return pollForFunding(address, transactionHash, deadline);
+        } finally {
+            if (subscription != null) {
+                subscription.dispose();
+            }
+        }
+    }
+
+    private BigInteger pollForFunding(
+            final String address, final String transactionHash, final long deadline)
+            throws IOException, InterruptedException, TimeoutException {
+        BigInteger filterId = newBlockFilter();
+        final long watchStart = System.nanoTime();
+        long blocksSeen = 0;
+        long blockMillis = 0;
+        try {
+            long interval = minPollMillis;
+            while (true) {
+                sleep(jitter(interval), deadline);
+
+                if (filterId != null) {
+                    final EthLog changes = web3j.ethGetFilterChanges(filterId).send();
+                    if (changes.hasError()) {
+                        // the node forgot the filter, poll for the receipt from now on
+                        filterId = null;
+                    } else if (changes.getLogs().isEmpty()) {
+                        // once the block time is known the next block is due shortly
+                        interval =
+                                blockMillis > 0
+                                        ? Math.max(minPollMillis, blockMillis / 4)
+                                        : backoff(interval);
+                        continue;
+                    } else {
+                        // poll about once per block from now on
+                        blocksSeen += changes.getLogs().size();
+                        blockMillis =
+                                Math.max(
+                                        minPollMillis,
+                                        Math.min(
+                                                maxPollMillis,
+                                                TimeUnit.NANOSECONDS.toMillis(
+                                                                System.nanoTime() - watchStart)
+                                                        / blocksSeen));
+                        interval = blockMillis;
+                    }
+                }
+                if (filterId == null) {
+                    interval = backoff(interval);
+                }
+                if (isFunded(address, transactionHash)) {
+                    return getBalance(address);
+                }
+            }
+        } finally {
+            if (filterId != null) {
+                try {
+                    web3j.ethUninstallFilter(filterId).send();
+                } catch (IOException ignored) {
+                    // the node drops unused filters eventually
+                }
+            }
+        }
+    }
+
+    private Disposable subscribeToNewHeads(
+            final Semaphore heads, final AtomicBoolean subscriptionFailed) {
+        try {
+            return web3j.newHeadsNotifications()
+                    .subscribe(
+                            notification -> heads.release(),
+                            error -> {
+                                subscriptionFailed.set(true);
+                                heads.release();
+                            });
+        } catch (UnsupportedOperationException e) {
+            // the provider is not connected over a websocket
+            return null;
+        }
+    }
+
+    private BigInteger newBlockFilter() {
+        try {
+            final EthFilter filter = web3j.ethNewBlockFilter().send();
+            return filter.hasError() ? null : filter.getFilterId();
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private boolean isFunded(final String address, final String transactionHash)
+            throws IOException {
+        if (transactionHash == null) {
+            return getBalance(address).signum() > 0;
+        }
+        return web3j.ethGetTransactionReceipt(transactionHash)
+                .send()
+                .getTransactionReceipt()
+                .isPresent();
+    }
+
+    private BigInteger getBalance(final String address) throws IOException {
+        return web3j.ethGetBalance(address, DefaultBlockParameterName.LATEST).send().getBalance();
+    }
+
+    private long backoff(final long interval) {
+        return Math.min(maxPollMillis, (long) (interval * POLL_BACKOFF));
+    }
+
+    /** Delays polls by up to a fifth, so that they rather come after than before a block. */
+    private long jitter(final long interval) {
+        return (long) (interval * (1 + POLL_JITTER * random.nextDouble()));
+    }
+
+    private static void sleep(final long millis, final long deadline)
+            throws InterruptedException, TimeoutException {
+        final long remaining = TimeUnit.NANOSECONDS.toMillis(remainingNanos(deadline));
+        if (remaining <= 0) {
+            throw new TimeoutException("The funding transaction was not mined in time");
+        }
+        Thread.sleep(Math.min(millis, remaining));
+    }
+
+    private static long remainingNanos(final long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+}
@@ -13,13 +13,54 @@
 package io.epirus.console.config;
 
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 import com.google.gson.Gson;
 import com.google.gson.annotations.Expose;
+import io.epirus.console.utils.CliEnvironment;
 
+/**
+ * The CLI configuration stored in {@code ~/.epirus/.config}.
+ *
+ * <p>Setters only mark the changed fields as dirty. They are written in one go by {@link
+ * #commit()}, which merges them into the latest file contents under a file lock and replaces the
+ * file atomically, so parallel CLI invocations never lose each other's changes.
+ */
 public class CliConfig {
+    private static final int DEFAULT_UPDATE_CHECK_INTERVAL_HOURS = 24;
+
+    static final Gson GSON = new Gson();
+
+    /** Serialises commits within this JVM, as file locks are held on behalf of the process. */
+    private static final Object COMMIT_LOCK = new Object();
+
+    private enum Field {
+        LATEST_VERSION((from, to) -> to.latestVersion = from.latestVersion),
+        UPDATE_PROMPT((from, to) -> to.updatePrompt = from.updatePrompt),
+        LOGIN_TOKEN((from, to) -> to.loginToken = from.loginToken),
+        DEFAULT_WALLET_PATH((from, to) -> to.defaultWalletPath = from.defaultWalletPath),
+        DEFAULT_WALLET_PASSWORD(
+                (from, to) -> to.defaultWalletPassword = from.defaultWalletPassword),
+        LAST_UPDATE_CHECK((from, to) -> to.lastUpdateCheck = from.lastUpdateCheck);
+
+        private final BiConsumer<CliConfig, CliConfig> copy;
+
+        Field(BiConsumer<CliConfig, CliConfig> copy) {
+            this.copy = copy;
+        }
+    }
+
     private String clientId;
     private String latestVersion;
     private String updatePrompt;
@@ -27,10 +68,18 @@ public class CliConfig {
     private String defaultWalletPath;
     private String defaultWalletPassword;
     private boolean telemetryDisabled;
+    private long lastUpdateCheck;
+    private int updateCheckIntervalHours;
 
     @Expose(serialize = false, deserialize = false)
     private transient boolean isPersistent = false;
 
+    @Expose(serialize = false, deserialize = false)
+    private transient Path configPath;
+
+    @Expose(serialize = false, deserialize = false)
+    private transient EnumSet<Field> dirtyFields;
+
     protected CliConfig(
             String clientId,
             String latestVersion,
@@ -61,7 +110,7 @@ public class CliConfig {
     }
 
     public String getLoginToken() {
-        return System.getenv().getOrDefault("EPIRUS_LOGIN_TOKEN", loginToken);
+        return CliEnvironment.getOrDefault("EPIRUS_LOGIN_TOKEN", loginToken);
     }
 
     public String getDefaultWalletPath() {
@@ -72,49 +121,139 @@ public class CliConfig {
         return telemetryDisabled;
     }
 
-    public void setLatestVersion(String latestVersion) {
+    public long getLastUpdateCheck() {
+        return lastUpdateCheck;
+    }
+
+    public long getUpdateCheckInterval() {
+        return TimeUnit.HOURS.toMillis(
+                updateCheckIntervalHours > 0
+                        ? updateCheckIntervalHours
+                        : DEFAULT_UPDATE_CHECK_INTERVAL_HOURS);
+    }
+
+    public synchronized void setLatestVersion(String latestVersion) {
         this.latestVersion = latestVersion;
-        save();
+        markDirty(Field.LATEST_VERSION);
     }
 
-    public void setUpdatePrompt(String updatePrompt) {
+    public synchronized void setUpdatePrompt(String updatePrompt) {
         this.updatePrompt = updatePrompt;
-        save();
+        markDirty(Field.UPDATE_PROMPT);
+    }
+
+    public synchronized void setLastUpdateCheck(long lastUpdateCheck) {
+        this.lastUpdateCheck = lastUpdateCheck;
+        markDirty(Field.LAST_UPDATE_CHECK);
     }
 
-    public void setLoginToken(String loginToken) {
+    public synchronized void setLoginToken(String loginToken) {
         this.loginToken = loginToken;
-        save();
+        markDirty(Field.LOGIN_TOKEN);
     }
 
-    public void setDefaultWalletPath(final String defaultWalletPath) {
+    public synchronized void setDefaultWalletPath(final String defaultWalletPath) {
         this.defaultWalletPath = defaultWalletPath;
-        save();
+        markDirty(Field.DEFAULT_WALLET_PATH);
     }
 
-    public void setDefaultWalletPassword(final String defaultWalletPassword) {
+    public synchronized void setDefaultWalletPassword(final String defaultWalletPassword) {
         this.defaultWalletPassword = defaultWalletPassword;
-        save();
+        markDirty(Field.DEFAULT_WALLET_PASSWORD);
     }
 
-    public void save() {
-        if (!isPersistent) return;
+    /**
+     * Writes the pending changes to disk. Fields changed by another process since this config was
+     * loaded are kept, unless they were also changed here.
+     */
+    public synchronized void commit() {
+        if (!isPersistent) {
+            getDirtyFields().clear();
+            return;
+        }
 
-        String jsonToWrite = new Gson().toJson(this);
-        try {
-            Files.write(
-                    ConfigManager.DEFAULT_EPIRUS_CONFIG_PATH,
-                    jsonToWrite.getBytes(Charset.defaultCharset()));
-        } catch (IOException e) {
-            throw new ConfigException(e);
+        synchronized (COMMIT_LOCK) {
+            try {
+                Files.createDirectories(configPath.getParent());
+                try (FileChannel lockChannel =
+                                FileChannel.open(
+                                        lockPath(),
+                                        StandardOpenOption.CREATE,
+                                        StandardOpenOption.WRITE);
+                        FileLock ignored = lockChannel.lock()) {
+                    final CliConfig saved = read(configPath);
+                    if (saved != null) {
+                        for (Field field : EnumSet.complementOf(getDirtyFields())) {
+                            field.copy.accept(saved, this);
+                        }
+                        clientId = saved.clientId;
+                        telemetryDisabled = saved.telemetryDisabled;
+                        updateCheckIntervalHours = saved.updateCheckIntervalHours;
+                    }
+                    if (saved == null || !getDirtyFields().isEmpty()) {
+                        write(configPath, GSON.toJson(this));
+                    }
+                    getDirtyFields().clear();
+                }
+            } catch (IOException e) {
+                throw new ConfigException(e);
+            }
         }
     }
 
     public void setPersistent(boolean persistent) {
-        isPersistent = persistent;
+        setPersistent(persistent, ConfigManager.DEFAULT_EPIRUS_CONFIG_PATH);
+    }
+
+    synchronized void setPersistent(boolean persistent, Path configPath) {
+        this.isPersistent = persistent;
+        this.configPath = configPath;
     }
 
     public String getDefaultWalletPassword() {
         return defaultWalletPassword;
     }
+
+    static CliConfig read(Path configPath) throws IOException {
+        if (!Files.exists(configPath)) {
+            return null;
+        }
+        return GSON.fromJson(
+                new String(Files.readAllBytes(configPath), StandardCharsets.UTF_8),
+                CliConfig.class);
+    }
+
+    private Path lockPath() {
+        return Paths.get(configPath.toString() + ".lock");
+    }
+
+    private static void write(Path configPath, String contents) throws IOException {
+        final Path tempFile = Files.createTempFile(configPath.getParent(), ".config", ".tmp");
+        try {
+            Files.write(tempFile, contents.getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(
+                        tempFile,
+                        configPath,
+                        StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, configPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void markDirty(Field field) {
+        getDirtyFields().add(field);
+    }
+
+    private EnumSet<Field> getDirtyFields() {
+        // Gson does not run field initialisers when deserialising
+        if (dirtyFields == null) {
+            dirtyFields = EnumSet.noneOf(Field.class);
+        }
+        return dirtyFields;
+    }
 }
@@ -20,7 +20,6 @@ import java.nio.file.Paths;
 import java.util.UUID;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.gson.Gson;
 
 public class ConfigManager {
     protected static final Path DEFAULT_EPIRUS_CONFIG_PATH =
@@ -28,13 +27,11 @@ public class ConfigManager {
 
     public static CliConfig config;
 
+    private static boolean commitOnExit;
+
     public static void setProduction() throws IOException {
-        CliConfig productionConfig = getDefaultConfig(DEFAULT_EPIRUS_CONFIG_PATH.toFile());
-        productionConfig.setPersistent(true);
-        config = productionConfig;
-        if (!DEFAULT_EPIRUS_CONFIG_PATH.toFile().exists()) {
-            config.save();
-        }
+        config = loadPersistentConfig(DEFAULT_EPIRUS_CONFIG_PATH);
+        registerCommitOnExit();
     }
 
     @VisibleForTesting
@@ -62,6 +59,30 @@ public class ConfigManager {
                         telemetryDisabled);
     }
 
+    static CliConfig loadPersistentConfig(Path configPath) throws IOException {
+        CliConfig persistentConfig = getDefaultConfig(configPath.toFile());
+        persistentConfig.setPersistent(true, configPath);
+        if (!configPath.toFile().exists()) {
+            persistentConfig.commit();
+        }
+        return persistentConfig;
+    }
+
+    private static synchronized void registerCommitOnExit() {
+        if (!commitOnExit) {
+            // changes made after the command finished, e.g. by the update check, are kept too
+            Runtime.getRuntime().addShutdownHook(new Thread(ConfigManager::commitQuietly));
+            commitOnExit = true;
+        }
+    }
+
+    private static void commitQuietly() {
+        try {
+            config.commit();
+        } catch (ConfigException ignored) {
+        }
+    }
+
     private static CliConfig initializeDefaultConfig(File configFile) throws IOException {
         File epirusHome = new File(configFile.getParent());
         if (!epirusHome.exists() && !epirusHome.mkdirs()) {
@@ -72,7 +93,7 @@ public class ConfigManager {
 
     private static CliConfig getSavedConfig(File configFile) throws IOException {
         String configContents = new String(Files.readAllBytes(configFile.toPath()));
-        return new Gson().fromJson(configContents, CliConfig.class);
+        return CliConfig.GSON.fromJson(configContents, CliConfig.class);
     }
 
     private static CliConfig getDefaultConfig(File configFile) throws IOException {
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Properties;
+
+import static io.epirus.console.daemon.DaemonProtocol.writeFrame;
+import static io.epirus.console.daemon.DaemonProtocol.writeString;
+
+/**
+ * Thin client forwarding a CLI invocation to a running {@link DaemonServer}. It deliberately only
+ * depends on JDK classes so that forwarding does not pay for loading the rest of the CLI.
+ */
+public class DaemonClient {
+    public static final String DISABLE_DAEMON_VARIABLE = "EPIRUS_NO_DAEMON";
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 250;
+
+    private DaemonClient() {}
+
+    /**
+     * Runs the command in the daemon if one is serving the current working directory.
+     *
+     * @return the exit code of the command, or empty if it has to be run in this JVM
+     */
+    public static OptionalInt forward(final String[] args, final Map<String, String> environment) {
+        if (environment.containsKey(DISABLE_DAEMON_VARIABLE)
+                || (args.length > 0 && args[0].equals("daemon"))) {
+            return OptionalInt.empty();
+        }
+        return forward(
+                DaemonProtocol.STATE_FILE,
+                System.getProperty("user.dir"),
+                args,
+                environment,
+                System.in,
+                System.out,
+                System.err);
+    }
+
+    static OptionalInt forward(
+            final File stateFile,
+            final String workingDirectory,
+            final String[] args,
+            final Map<String, String> environment,
+            final InputStream stdin,
+            final PrintStream stdout,
+            final PrintStream stderr) {
+        final Properties state = readState(stateFile);
+        if (state == null
+                || !workingDirectory.equals(state.getProperty(DaemonProtocol.DIRECTORY))) {
+            return OptionalInt.empty();
+        }
+
+        boolean outputReceived = false;
+        try (Socket socket = connect(state)) {
+            final DataOutputStream out =
+                    new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            final DataInputStream in =
+                    new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+            out.writeByte(DaemonProtocol.REQUEST_RUN);
+            writeString(out, state.getProperty(DaemonProtocol.TOKEN));
+            writeString(out, workingDirectory);
+            out.writeInt(args.length);
+            for (final String arg : args) {
+                writeString(out, arg);
+            }
+            out.writeInt(environment.size());
+            for (final Map.Entry<String, String> entry : environment.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+            out.flush();
+            startStdinPump(stdin, out);
+
+            while (true) {
+                final byte frame = in.readByte();
+                if (frame == DaemonProtocol.EXIT) {
+                    return OptionalInt.of(in.readInt());
+                } else if (frame == DaemonProtocol.FALLBACK) {
+                    return OptionalInt.empty();
+                }
+                final byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                outputReceived = true;
+                (frame == DaemonProtocol.STDERR ? stderr : stdout).write(bytes);
+            }
+        } catch (IOException e) {
+            if (!outputReceived) {
+                // stale state file or the daemon went away, run the command locally
+                return OptionalInt.empty();
+            }
+            stderr.println("Lost connection to the Epirus daemon: " + e.getMessage());
+            return OptionalInt.of(1);
+        } finally {
+            stdout.flush();
+            stderr.flush();
+        }
+    }
+
+    static boolean stop(final File stateFile) {
+        final Properties state = readState(stateFile);
+        if (state == null) {
+            return false;
+        }
+        try (Socket socket = connect(state)) {
+            final DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeByte(DaemonProtocol.REQUEST_STOP);
+            writeString(out, state.getProperty(DaemonProtocol.TOKEN));
+            out.flush();
+            return new DataInputStream(socket.getInputStream()).readByte() == DaemonProtocol.EXIT;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Socket connect(final Properties state) throws IOException {
+        final Socket socket = new Socket();
+        try {
+            socket.connect(
+                    new InetSocketAddress(
+                            InetAddress.getLoopbackAddress(),
+                            Integer.parseInt(state.getProperty(DaemonProtocol.PORT))),
+                    CONNECT_TIMEOUT_MILLIS);
+            return socket;
+        } catch (IOException | NumberFormatException e) {
+            socket.close();
+            throw e instanceof IOException ? (IOException) e : new IOException(e);
+        }
+    }
+
+    private static Properties readState(final File stateFile) {
+        if (!stateFile.isFile()) {
+            return null;
+        }
+        final Properties state = new Properties();
+        try (InputStream in = new FileInputStream(stateFile)) {
+            state.load(in);
+        } catch (IOException e) {
+            return null;
+        }
+        return state.getProperty(DaemonProtocol.PORT) != null
+                        && state.getProperty(DaemonProtocol.TOKEN) != null
+                ? state
+                : null;
+    }
+
+    private static void startStdinPump(final InputStream stdin, final DataOutputStream out) {
+        final Thread pump =
+                new Thread(
+                        () -> {
+                            final byte[] buffer = new byte[8192];
+                            try {
+                                int read;
+                                while ((read = stdin.read(buffer)) != -1) {
+                                    writeFrame(out, DaemonProtocol.STDIN, buffer, 0, read);
+                                }
+                                writeFrame(out, DaemonProtocol.STDIN, buffer, 0, 0);
+                            } catch (IOException ignored) {
+                                // the command finished and the connection was closed
+                            }
+                        },
+                        "epirus-daemon-stdin");
+        pump.setDaemon(true);
+        pump.start();
+    }
+}
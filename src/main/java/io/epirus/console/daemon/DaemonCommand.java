@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.daemon;
+
+import java.io.IOException;
+
+import io.epirus.console.EpirusCommand;
+import io.epirus.console.EpirusVersionProvider;
+import picocli.CommandLine;
+
+import static org.web3j.codegen.Console.exitError;
+
+@CommandLine.Command(
+        name = "daemon",
+        description = "Keep a warm Epirus JVM serving the commands run from the current directory",
+        showDefaultValues = true,
+        abbreviateSynopsis = true,
+        mixinStandardHelpOptions = true,
+        versionProvider = EpirusVersionProvider.class,
+        synopsisHeading = "%n",
+        descriptionHeading = "%nDescription:%n%n",
+        optionListHeading = "%nOptions:%n",
+        footerHeading = "%n",
+        footer = "Epirus CLI is licensed under the Apache License 2.0")
+public class DaemonCommand implements Runnable {
+
+    @CommandLine.Option(
+            names = {"--stop"},
+            description = "Stop the running daemon.")
+    boolean stop;
+
+    @Override
+    public void run() {
+        if (stop) {
+            if (DaemonClient.stop(DaemonProtocol.STATE_FILE)) {
+                System.out.println("Epirus daemon stopped.");
+            } else {
+                exitError("No running Epirus daemon was found.");
+            }
+            return;
+        }
+
+        final DaemonServer server =
+                new DaemonServer(
+                        System.getProperty("user.dir"),
+                        (args, environment) -> new EpirusCommand(environment, args).parse());
+        try {
+            server.trapExits();
+        } catch (SecurityException | UnsupportedOperationException e) {
+            exitError(
+                    "The daemon needs to intercept System.exit calls. "
+                            + "On Java 18 or later, start it with JAVA_OPTS=-Djava.security.manager=allow");
+        }
+        // load the command tree once so that forwarded commands start warm
+        new EpirusCommand(System.getenv(), new String[0]);
+
+        try {
+            final int port = server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> closeQuietly(server)));
+            System.out.printf(
+                    "Epirus daemon listening on port %d for commands run in %s%n",
+                    port, System.getProperty("user.dir"));
+            server.serve();
+        } catch (IOException e) {
+            exitError("Could not start the Epirus daemon: " + e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(final DaemonServer server) {
+        try {
+            server.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+/**
+ * Wire format shared by {@link DaemonServer} and {@link DaemonClient}.
+ *
+ * <p>A request starts with a request type, the daemon token, the working directory, the arguments
+ * and the environment. While a command runs, the client sends {@link #STDIN} frames and the daemon
+ * answers with {@link #STDOUT} and {@link #STDERR} frames, terminated by a single {@link #EXIT}
+ * frame, or a {@link #FALLBACK} frame if the client should run the command itself.
+ */
+final class DaemonProtocol {
+
+    static final File STATE_FILE =
+            Paths.get(System.getProperty("user.home"), ".epirus", "daemon.properties").toFile();
+
+    static final String PORT = "port";
+    static final String TOKEN = "token";
+    static final String DIRECTORY = "directory";
+
+    static final byte REQUEST_RUN = 1;
+    static final byte REQUEST_STOP = 2;
+
+    static final byte STDIN = 0;
+    static final byte STDOUT = 1;
+    static final byte STDERR = 2;
+    static final byte EXIT = 3;
+    static final byte FALLBACK = 4;
+
+    /** Longest string, argument count and stdin frame the daemon accepts from a client. */
+    static final int MAX_STRING_LENGTH = 1024 * 1024;
+
+    static final int MAX_COUNT = 16 * 1024;
+    static final int MAX_FRAME_LENGTH = 1024 * 1024;
+
+    private DaemonProtocol() {}
+
+    static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[readLength(in, MAX_STRING_LENGTH)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Reads a length or count, rejecting it before anything is allocated if it is too large. */
+    static int readLength(final DataInputStream in, final int max) throws IOException {
+        final int length = in.readInt();
+        if (length < 0 || length > max) {
+            throw new IOException("Invalid length " + length + " in daemon request");
+        }
+        return length;
+    }
+
+    static void writeFrame(
+            final DataOutputStream out, final byte channel, final byte[] b, int off, int len)
+            throws IOException {
+        synchronized (out) {
+            out.writeByte(channel);
+            out.writeInt(len);
+            out.write(b, off, len);
+            out.flush();
+        }
+    }
+}
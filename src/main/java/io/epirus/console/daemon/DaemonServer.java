@@ -0,0 +1,331 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import io.epirus.console.utils.CliEnvironment;
+import org.apache.commons.lang3.RandomStringUtils;
+
+import static io.epirus.console.daemon.DaemonProtocol.readLength;
+import static io.epirus.console.daemon.DaemonProtocol.readString;
+import static io.epirus.console.daemon.DaemonProtocol.writeFrame;
+
+/**
+ * Serves CLI invocations forwarded by {@link DaemonClient} from a single warm JVM. Requests are
+ * executed one at a time, since commands write to the process wide standard streams and read the
+ * client's environment through {@link CliEnvironment}.
+ */
+public class DaemonServer implements Closeable {
+
+    /** How long a client may take to send its request before the connection is dropped. */
+    static final int REQUEST_TIMEOUT_MILLIS = 2000;
+
+    /** Largest request, arguments and environment included, read before the command runs. */
+    static final int MAX_REQUEST_BYTES = 8 * 1024 * 1024;
+
+    /** Executes a single CLI invocation and returns its exit code. */
+    public interface CommandExecutor {
+        int execute(String[] args, Map<String, String> environment) throws Exception;
+    }
+
+    private final String directory;
+    private final File stateFile;
+    private final CommandExecutor executor;
+    private final String token =
+            RandomStringUtils.random(32, 0, 0, true, true, null, new SecureRandom());
+    private final PrintStream systemOut = System.out;
+    private final PrintStream systemErr = System.err;
+    private final InputStream systemIn = System.in;
+
+    private ServerSocket serverSocket;
+    private ExitTrap exitTrap;
+    private volatile boolean running;
+
+    public DaemonServer(final String directory, final CommandExecutor executor) {
+        this(directory, DaemonProtocol.STATE_FILE, executor);
+    }
+
+    DaemonServer(final String directory, final File stateFile, final CommandExecutor executor) {
+        this.directory = directory;
+        this.stateFile = stateFile;
+        this.executor = executor;
+    }
+
+    public int start() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        running = true;
+        writeStateFile();
+        return serverSocket.getLocalPort();
+    }
+
+    public void trapExits() {
+        exitTrap = ExitTrap.install();
+    }
+
+    public void serve() {
+        while (running) {
+            try (Socket socket = serverSocket.accept()) {
+                handle(socket);
+            } catch (SocketException e) {
+                if (running) {
+                    systemErr.println("Daemon connection failed: " + e.getMessage());
+                }
+            } catch (IOException e) {
+                systemErr.println("Daemon connection failed: " + e.getMessage());
+            } catch (Throwable t) {
+                // a single bad request must not stop the daemon
+                systemErr.println("Daemon request failed: " + t);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (stateFile.exists() && !stateFile.delete()) {
+            systemErr.println("Could not delete daemon state file " + stateFile);
+        }
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+    }
+
+    private void handle(final Socket socket) throws IOException {
+        final RequestLimit limit =
+                new RequestLimit(
+                        new BufferedInputStream(socket.getInputStream()), MAX_REQUEST_BYTES);
+        final DataInputStream in = new DataInputStream(limit);
+        final DataOutputStream out =
+                new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+        // a client that connects but never sends its request must not wedge the daemon
+        socket.setSoTimeout(REQUEST_TIMEOUT_MILLIS);
+        final byte requestType = in.readByte();
+        if (!MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8),
+                readString(in).getBytes(StandardCharsets.UTF_8))) {
+            return;
+        }
+        if (requestType == DaemonProtocol.REQUEST_STOP) {
+            running = false;
+            sendExit(out, 0);
+            close();
+            return;
+        }
+
+        final String workingDirectory = readString(in);
+        final String[] args = new String[readLength(in, DaemonProtocol.MAX_COUNT)];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = readString(in);
+        }
+        final Map<String, String> environment = new HashMap<>();
+        for (int i = readLength(in, DaemonProtocol.MAX_COUNT); i > 0; i--) {
+            environment.put(readString(in), readString(in));
+        }
+
+        // relative paths are resolved against the daemon's own working directory
+        if (!directory.equals(workingDirectory)) {
+            synchronized (out) {
+                out.writeByte(DaemonProtocol.FALLBACK);
+                out.flush();
+            }
+            return;
+        }
+
+        // standard input is forwarded for as long as the command runs
+        socket.setSoTimeout(0);
+        limit.release();
+        sendExit(out, execute(in, out, args, environment));
+    }
+
+    private int execute(
+            final DataInputStream in,
+            final DataOutputStream out,
+            final String[] args,
+            final Map<String, String> environment)
+            throws IOException {
+        final PipedInputStream stdin = new PipedInputStream();
+        final Thread stdinPump = startStdinPump(in, new PipedOutputStream(stdin));
+        final PrintStream stdout =
+                new PrintStream(new FrameOutputStream(out, DaemonProtocol.STDOUT), true);
+        final PrintStream stderr =
+                new PrintStream(new FrameOutputStream(out, DaemonProtocol.STDERR), true);
+
+        System.setIn(stdin);
+        System.setOut(stdout);
+        System.setErr(stderr);
+        CliEnvironment.set(environment);
+        if (exitTrap != null) {
+            exitTrap.arm();
+        }
+        try {
+            return executor.execute(args, environment);
+        } catch (ExitTrappedException e) {
+            return e.getStatus();
+        } catch (Throwable t) {
+            t.printStackTrace();
+            return 1;
+        } finally {
+            if (exitTrap != null) {
+                exitTrap.disarm();
+            }
+            stdout.flush();
+            stderr.flush();
+            System.setIn(systemIn);
+            System.setOut(systemOut);
+            System.setErr(systemErr);
+            CliEnvironment.reset();
+            stdinPump.interrupt();
+        }
+    }
+
+    private static Thread startStdinPump(final DataInputStream in, final PipedOutputStream stdin) {
+        final Thread pump =
+                new Thread(
+                        () -> {
+                            try (PipedOutputStream target = stdin) {
+                                while (!Thread.currentThread().isInterrupted()
+                                        && in.readByte() == DaemonProtocol.STDIN) {
+                                    final int length =
+                                            readLength(in, DaemonProtocol.MAX_FRAME_LENGTH);
+                                    final byte[] bytes = new byte[length];
+                                    if (bytes.length == 0) {
+                                        return;
+                                    }
+                                    in.readFully(bytes);
+                                    target.write(bytes);
+                                    target.flush();
+                                }
+                            } catch (IOException ignored) {
+                                // client closed its input or the command has finished
+                            }
+                        },
+                        "epirus-daemon-stdin");
+        pump.setDaemon(true);
+        pump.start();
+        return pump;
+    }
+
+    private static void sendExit(final DataOutputStream out, final int exitCode)
+            throws IOException {
+        synchronized (out) {
+            out.writeByte(DaemonProtocol.EXIT);
+            out.writeInt(exitCode);
+            out.flush();
+        }
+    }
+
+    private void writeStateFile() throws IOException {
+        final File parent = stateFile.getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Failed to create directory " + parent);
+        }
+        final Properties properties = new Properties();
+        properties.setProperty(DaemonProtocol.PORT, String.valueOf(serverSocket.getLocalPort()));
+        properties.setProperty(DaemonProtocol.TOKEN, token);
+        properties.setProperty(DaemonProtocol.DIRECTORY, directory);
+        try (OutputStream out = new FileOutputStream(stateFile)) {
+            stateFile.setReadable(false, false);
+            stateFile.setReadable(true, true);
+            stateFile.setWritable(false, false);
+            stateFile.setWritable(true, true);
+            properties.store(out, "Epirus daemon");
+        }
+    }
+
+    /** Fails the request once the client sent more than the limit, until it is released. */
+    private static class RequestLimit extends FilterInputStream {
+        private long remaining;
+
+        RequestLimit(final InputStream in, final long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        void release() {
+            remaining = Long.MAX_VALUE;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkRemaining();
+            final int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            checkRemaining();
+            final int read = super.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        private void checkRemaining() throws IOException {
+            if (remaining <= 0) {
+                throw new IOException("Daemon request too large");
+            }
+        }
+    }
+
+    private static class FrameOutputStream extends OutputStream {
+        private final DataOutputStream out;
+        private final byte channel;
+
+        FrameOutputStream(final DataOutputStream out, final byte channel) {
+            this.out = out;
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (len > 0) {
+                writeFrame(out, channel, b, off, len);
+            }
+        }
+    }
+}
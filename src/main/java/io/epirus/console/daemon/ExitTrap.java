@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.daemon;
+
+import java.security.Permission;
+
+/**
+ * Security manager turning {@link System#exit} calls made by commands into {@link
+ * ExitTrappedException}s while a daemon request is running. Every other permission is granted.
+ */
+class ExitTrap extends SecurityManager {
+    private volatile boolean armed;
+
+    static ExitTrap install() {
+        final ExitTrap trap = new ExitTrap();
+        System.setSecurityManager(trap);
+        return trap;
+    }
+
+    void arm() {
+        armed = true;
+    }
+
+    void disarm() {
+        armed = false;
+    }
+
+    @Override
+    public void checkPermission(final Permission perm) {}
+
+    @Override
+    public void checkPermission(final Permission perm, final Object context) {}
+
+    @Override
+    public void checkExit(final int status) {
+        if (armed) {
+            throw new ExitTrappedException(status);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.daemon;
+
+/** Thrown instead of terminating the daemon JVM when a command calls {@link System#exit}. */
+public class ExitTrappedException extends SecurityException {
+    private final int status;
+
+    public ExitTrappedException(final int status) {
+        super("System.exit(" + status + ") trapped by the Epirus daemon");
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -15,12 +15,15 @@ package io.epirus.console.docker;
 import java.io.IOException;
 import java.nio.file.Path;
 
+import io.epirus.console.utils.CliEnvironment;
+
 import static io.epirus.console.utils.PrinterUtilities.printErrorAndExit;
 
 public interface DockerOperations {
     default void executeDocker(String[] command, Path directory)
             throws IOException, InterruptedException {
         ProcessBuilder processBuilder = new ProcessBuilder(command);
+        CliEnvironment.apply(processBuilder);
         int exitCode =
                 processBuilder
                         .directory(directory.toFile())
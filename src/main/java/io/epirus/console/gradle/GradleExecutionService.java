@@ -0,0 +1,229 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.gradle;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.epirus.console.utils.CliEnvironment;
+import org.gradle.tooling.BuildException;
+import org.gradle.tooling.BuildLauncher;
+import org.gradle.tooling.CancellationTokenSource;
+import org.gradle.tooling.GradleConnectionException;
+import org.gradle.tooling.GradleConnector;
+import org.gradle.tooling.ProjectConnection;
+import org.gradle.tooling.events.OperationType;
+import org.gradle.tooling.events.ProgressListener;
+
+/**
+ * Runs Gradle builds of generated projects through the Gradle Tooling API.
+ *
+ * <p>Connections are opened with the project's wrapper distribution and kept per project directory,
+ * so that consecutive builds of the same project in one CLI process (or in the CLI daemon) reuse
+ * the connection and its Gradle daemon instead of starting a {@code gradlew} process each time.
+ * Running builds are cancelled and the connections closed when the JVM exits.
+ */
+public class GradleExecutionService implements Closeable {
+
+    private static GradleExecutionService instance;
+
+    private final Function<File, ProjectConnection> connector;
+    private final Map<File, ProjectConnection> connections = new ConcurrentHashMap<>();
+    private final Set<CancellationTokenSource> running = ConcurrentHashMap.newKeySet();
+    private volatile int maxConcurrentBuilds = Integer.MAX_VALUE;
+    private volatile Semaphore builds = new Semaphore(maxConcurrentBuilds);
+
+    public static synchronized GradleExecutionService getInstance() {
+        if (instance == null) {
+            final GradleExecutionService service = new GradleExecutionService();
+            Runtime.getRuntime()
+                    .addShutdownHook(new Thread(service::close, "epirus-gradle-shutdown"));
+            instance = service;
+        }
+        return instance;
+    }
+
+    public GradleExecutionService() {
+        this(GradleExecutionService::connect);
+    }
+
+    @VisibleForTesting
+    GradleExecutionService(final Function<File, ProjectConnection> connector) {
+        this.connector = connector;
+    }
+
+    private static ProjectConnection connect(final File projectDir) {
+        return GradleConnector.newConnector()
+                .useBuildDistribution()
+                .forProjectDirectory(projectDir)
+                .connect();
+    }
+
+    /** Creates a build of the given tasks, configure it and then {@link Build#run() run} it. */
+    public Build newBuild(final File projectDir, final String... tasks) {
+        return new Build(canonical(projectDir), tasks);
+    }
+
+    /**
+     * Limits the number of builds running at the same time. A Gradle daemon runs one build at a
+     * time, so concurrent builds start more daemons.
+     */
+    public void setMaxConcurrentBuilds(final int maxConcurrentBuilds) {
+        this.maxConcurrentBuilds = maxConcurrentBuilds;
+        builds = new Semaphore(maxConcurrentBuilds);
+    }
+
+    public int getMaxConcurrentBuilds() {
+        return maxConcurrentBuilds;
+    }
+
+    /** Cancels all running builds, which then fail with a {@code BuildCancelledException}. */
+    public void cancelAll() {
+        running.forEach(CancellationTokenSource::cancel);
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+        for (File projectDir : connections.keySet()) {
+            disconnect(projectDir);
+        }
+    }
+
+    private ProjectConnection connection(final File projectDir) {
+        return connections.computeIfAbsent(projectDir, connector);
+    }
+
+    private void disconnect(final File projectDir) {
+        final ProjectConnection connection = connections.remove(projectDir);
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    private static File canonical(final File projectDir) {
+        try {
+            return projectDir.getCanonicalFile();
+        } catch (IOException e) {
+            return projectDir.getAbsoluteFile();
+        }
+    }
+
+    public class Build {
+        private final File projectDir;
+        private final String[] tasks;
+        private final List<String> arguments = new ArrayList<>();
+        private final Map<String, String> environment = new HashMap<>();
+        private final List<ProgressListener> listeners = new ArrayList<>();
+        private final List<OperationType[]> listenerTypes = new ArrayList<>();
+        private final CancellationTokenSource cancellation =
+                GradleConnector.newCancellationTokenSource();
+        private OutputStream standardOutput;
+        private OutputStream standardError;
+
+        private Build(final File projectDir, final String[] tasks) {
+            this.projectDir = projectDir;
+            this.tasks = tasks;
+        }
+
+        public Build withArguments(final String... arguments) {
+            this.arguments.addAll(Arrays.asList(arguments));
+            return this;
+        }
+
+        /** Adds variables to the environment of the build, on top of the invocation's own. */
+        public Build withEnvironment(final Map<String, String> environment) {
+            this.environment.putAll(environment);
+            return this;
+        }
+
+        /** Streams the build output, which is discarded when no stream is given. */
+        public Build withOutput(
+                final OutputStream standardOutput, final OutputStream standardError) {
+            this.standardOutput = standardOutput;
+            this.standardError = standardError;
+            return this;
+        }
+
+        /** Receives the progress events of the given types, or of all types if none is given. */
+        public Build withProgressListener(
+                final ProgressListener listener, final OperationType... types) {
+            listeners.add(listener);
+            listenerTypes.add(types);
+            return this;
+        }
+
+        /** Cancels this build, from any thread. */
+        public void cancel() {
+            cancellation.cancel();
+        }
+
+        /**
+         * Runs the build and waits for it to finish.
+         *
+         * @throws BuildException if the build failed
+         * @throws GradleConnectionException if Gradle could not run the build or it was cancelled
+         */
+        public void run() {
+            final BuildLauncher launcher =
+                    connection(projectDir)
+                            .newBuild()
+                            .forTasks(tasks)
+                            .withArguments(arguments)
+                            .withCancellationToken(cancellation.token())
+                            .setStandardOutput(standardOutput)
+                            .setStandardError(standardError);
+            // builds run for the daemon get the environment of the client, not the daemon's
+            if (!environment.isEmpty() || CliEnvironment.isForwarded()) {
+                final Map<String, String> buildEnvironment = new HashMap<>(CliEnvironment.get());
+                buildEnvironment.putAll(environment);
+                launcher.setEnvironmentVariables(buildEnvironment);
+            }
+            for (int i = 0; i < listeners.size(); i++) {
+                if (listenerTypes.get(i).length == 0) {
+                    launcher.addProgressListener(listeners.get(i));
+                } else {
+                    launcher.addProgressListener(listeners.get(i), listenerTypes.get(i));
+                }
+            }
+
+            final Semaphore builds = GradleExecutionService.this.builds;
+            builds.acquireUninterruptibly();
+            running.add(cancellation);
+            try {
+                launcher.run();
+            } catch (BuildException e) {
+                throw e;
+            } catch (GradleConnectionException e) {
+                // the connection may be unusable, the next build of the project reconnects
+                disconnect(projectDir);
+                throw e;
+            } finally {
+                running.remove(cancellation);
+                builds.release();
+            }
+        }
+    }
+}
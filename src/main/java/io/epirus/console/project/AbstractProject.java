@@ -13,13 +13,18 @@
 package io.epirus.console.project;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
+import io.epirus.console.gradle.GradleExecutionService;
 import io.epirus.console.project.templates.TemplateProvider;
 import io.epirus.console.project.utils.ProgressCounter;
 import io.epirus.console.project.wallet.ProjectWallet;
-
-import org.web3j.codegen.Console;
+import io.epirus.console.utils.CliVersion;
+import org.gradle.tooling.GradleConnectionException;
 
 public abstract class AbstractProject<T extends AbstractProject<T>> {
     private T project;
@@ -29,9 +34,12 @@ public abstract class AbstractProject<T extends AbstractProject<T>> {
     protected final boolean withSampleCode;
     protected final String command;
     protected final String solidityImportPath;
+    protected final BuildScope buildScope;
     protected final ProjectStructure projectStructure;
     protected ProjectWallet projectWallet;
     protected ProgressCounter progressCounter = new ProgressCounter(true);
+    protected boolean showProgress = true;
+    private boolean upToDate;
 
     protected abstract T getProjectInstance();
 
@@ -41,12 +49,14 @@ public abstract class AbstractProject<T extends AbstractProject<T>> {
             boolean withSampleCode,
             String command,
             String solidityImportPath,
+            BuildScope buildScope,
             ProjectStructure projectStructure) {
         this.withTests = withTests;
         this.withFatJar = withFatJar;
         this.withSampleCode = withSampleCode;
         this.command = command;
         this.solidityImportPath = solidityImportPath;
+        this.buildScope = buildScope;
         this.projectStructure = projectStructure;
         this.project = getProjectInstance();
     }
@@ -59,17 +69,23 @@ public abstract class AbstractProject<T extends AbstractProject<T>> {
         return project.projectWallet;
     }
 
-    protected void buildGradleProject(final String pathToDirectory)
+    /** Creates the project without printing its progress, e.g. next to other projects. */
+    public T withoutProgress() {
+        project.showProgress = false;
+        return project;
+    }
+
+    /** Whether the last {@link #createProject()} found the project up to date. */
+    public boolean isUpToDate() {
+        return upToDate;
+    }
+
+    protected void buildGradleProject(final String pathToDirectory, final String... tasks)
             throws IOException, InterruptedException {
-        if (!isWindows()) {
-            setExecutable(pathToDirectory, "gradlew");
-            executeBuild(
-                    new File(pathToDirectory), new String[] {"bash", "-c", "./gradlew build -q"});
-        } else {
-            setExecutable(pathToDirectory, "gradlew.bat");
-            executeBuild(
-                    new File(pathToDirectory),
-                    new String[] {"cmd.exe", "/c", "gradlew.bat build -q"});
+        // the wrapper is still run by hand afterwards, see ProjectRunner
+        setExecutable(pathToDirectory, isWindows() ? "gradlew.bat" : "gradlew");
+        if (tasks.length > 0) {
+            executeBuild(new File(pathToDirectory), tasks);
         }
     }
 
@@ -82,35 +98,20 @@ public abstract class AbstractProject<T extends AbstractProject<T>> {
         final boolean isExecutable = f.setExecutable(true);
     }
 
-    private void executeBuild(final File workingDir, final String[] command)
-            throws InterruptedException, IOException {
-        executeProcess(workingDir, command);
-    }
-
-    private void executeProcess(File workingDir, String[] command)
-            throws InterruptedException, IOException {
-        int exitCode =
-                new ProcessBuilder(command)
-                        .directory(workingDir)
-                        .redirectErrorStream(true)
-                        .redirectOutput(File.createTempFile("w3j", "cli"))
-                        .start()
-                        .waitFor();
-        if (exitCode != 0) {
-            Console.exitError("Could not build project.");
+    private void executeBuild(final File workingDir, final String... tasks) throws IOException {
+        try (OutputStream output = new FileOutputStream(File.createTempFile("w3j", "cli"))) {
+            GradleExecutionService.getInstance()
+                    .newBuild(workingDir, tasks)
+                    .withArguments("-q")
+                    .withOutput(output, output)
+                    .run();
+        } catch (GradleConnectionException e) {
+            throw new IOException("Could not build project.", e);
         }
     }
 
     protected void createFatJar(String pathToDirectory) throws IOException, InterruptedException {
-        if (!isWindows()) {
-            executeProcess(
-                    new File(pathToDirectory),
-                    new String[] {"bash", "./gradlew", "shadowJar", "-q"});
-        } else {
-            executeProcess(
-                    new File(pathToDirectory),
-                    new String[] {"cmd.exe", "/c", "./gradlew.bat shadowJar", "-q"});
-        }
+        executeBuild(new File(pathToDirectory), "shadowJar");
     }
 
     protected void generateTopLevelDirectories(ProjectStructure projectStructure) {
@@ -121,18 +122,64 @@ public abstract class AbstractProject<T extends AbstractProject<T>> {
     }
 
     public void createProject() throws IOException, InterruptedException {
+        final Path projectRoot = Paths.get(projectStructure.getProjectRoot());
+        final String inputs = hashInputs();
+        final ProjectManifest manifest = ProjectManifest.load(projectRoot);
+        if (manifest != null) {
+            upToDate = manifest.isUpToDate(projectRoot, inputs);
+            if (upToDate) {
+                if (showProgress) {
+                    System.out.println(projectStructure.projectName + " is already up to date.");
+                }
+                return;
+            } else if (!manifest.isUnmodified(projectRoot)) {
+                throw new IOException(
+                        projectStructure.projectName
+                                + " was modified since it was generated, remove it to generate it again.");
+            }
+            manifest.deleteFiles(projectRoot);
+        }
+
         generateTopLevelDirectories(projectStructure);
         getTemplateProvider().generateFiles(projectStructure);
-        progressCounter.processing("Creating " + projectStructure.projectName);
-        buildGradleProject(projectStructure.getProjectRoot());
-
-        if (withTests) {
-            generateTests(projectStructure);
+        if (showProgress) {
+            progressCounter.processing("Creating " + projectStructure.projectName);
         }
-        if (withFatJar) {
-            createFatJar(projectStructure.getProjectRoot());
+        try {
+            // the tests are generated from the contract wrappers
+            final BuildScope scope =
+                    withTests && buildScope == BuildScope.NONE ? BuildScope.WRAPPERS : buildScope;
+            buildGradleProject(projectStructure.getProjectRoot(), scope.getTasks());
+
+            if (withTests) {
+                generateTests(projectStructure);
+            }
+            if (withFatJar && scope == BuildScope.FULL) {
+                createFatJar(projectStructure.getProjectRoot());
+            }
+            ProjectManifest.create(projectRoot, inputs).save(projectRoot);
+        } finally {
+            progressCounter.setLoading(false);
+        }
+    }
+
+    private String hashInputs() throws IOException {
+        final ProjectManifest.Inputs inputs =
+                new ProjectManifest.Inputs()
+                        .add(CliVersion.getVersion())
+                        .add(System.getProperty("java.specification.version"))
+                        .add(getClass().getName())
+                        .add(command)
+                        .add(projectStructure.projectName)
+                        .add(projectStructure.packageName)
+                        .add(withTests)
+                        .add(withFatJar)
+                        .add(withSampleCode)
+                        .add(buildScope);
+        if (solidityImportPath != null) {
+            inputs.addContent(Paths.get(solidityImportPath));
         }
-        progressCounter.setLoading(false);
+        return inputs.hash();
     }
 
     protected abstract TemplateProvider getTemplateProvider();
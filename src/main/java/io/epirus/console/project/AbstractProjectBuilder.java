@@ -22,6 +22,7 @@ public abstract class AbstractProjectBuilder<T extends AbstractProjectBuilder<T>
     protected String rootDirectory;
     protected boolean withSampleCode;
     protected boolean withFatJar;
+    protected BuildScope buildScope = BuildScope.FULL;
 
     protected abstract T getBuilderInstance();
 
@@ -49,6 +50,11 @@ public abstract class AbstractProjectBuilder<T extends AbstractProjectBuilder<T>
         return this.builder;
     }
 
+    public T withBuildScope(BuildScope buildScope) {
+        builder.buildScope = buildScope;
+        return this.builder;
+    }
+
     public T withProjectName(String projectName) {
         builder.projectName = projectName;
         return this.builder;
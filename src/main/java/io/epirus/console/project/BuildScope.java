@@ -0,0 +1,33 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.project;
+
+/** How much of a new project is built with Gradle once its files are generated. */
+public enum BuildScope {
+    /** Builds and tests the project, and creates its fat jar. */
+    FULL("build"),
+    /** Only generates the contract wrappers, which is enough to generate their tests. */
+    WRAPPERS("generateContractWrappers"),
+    /** Defers the whole build to the first {@code gradlew} run or {@code epirus run}. */
+    NONE();
+
+    private final String[] tasks;
+
+    BuildScope(final String... tasks) {
+        this.tasks = tasks;
+    }
+
+    public String[] getTasks() {
+        return tasks;
+    }
+}
@@ -15,6 +15,7 @@ package io.epirus.console.project;
 import java.io.File;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.nio.file.Paths;
 import java.util.List;
 
 import io.epirus.console.EpirusVersionProvider;
@@ -72,6 +73,13 @@ public class ImportProjectCommand implements Runnable {
             showDefaultValue = ALWAYS)
     boolean generateTests = false;
 
+    @CommandLine.Option(
+            names = {"--build"},
+            description =
+                    "Gradle build once the project is generated: FULL, WRAPPERS (only the contract wrappers) or NONE.",
+            showDefaultValue = ALWAYS)
+    BuildScope buildScope = BuildScope.FULL;
+
     @CommandLine.Option(
             names = {"--address-length"},
             description = {"specify the address length."},
@@ -118,7 +126,9 @@ public class ImportProjectCommand implements Runnable {
             buildInteractively();
         }
         if (inputIsValid(projectName, packageName)) {
-            if (new File(projectName).exists()) {
+            // a generated project is regenerated in place, or left as is if up to date
+            if (new File(projectName).exists()
+                    && !ProjectManifest.exists(Paths.get(outputDir, projectName))) {
                 if (interactiveOptions.overrideExistingProject()) {
                     ProjectUtils.deleteFolder(new File(projectName).toPath());
                 } else {
@@ -127,7 +137,12 @@ public class ImportProjectCommand implements Runnable {
             }
             final ProjectImporterConfig projectImporterConfig =
                     new ProjectImporterConfig(
-                            projectName, packageName, outputDir, solidityImportPath, generateTests);
+                            projectName,
+                            packageName,
+                            outputDir,
+                            solidityImportPath,
+                            generateTests,
+                            buildScope);
 
             if (projectType.isOpenApi) {
                 new OpenApiGeneratorService(
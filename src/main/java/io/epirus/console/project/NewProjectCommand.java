@@ -71,6 +71,13 @@ public class NewProjectCommand implements Runnable {
             showDefaultValue = ALWAYS)
     public String outputDir = ".";
 
+    @CommandLine.Option(
+            names = {"--build"},
+            description =
+                    "Gradle build once the project is generated: FULL, WRAPPERS (only the contract wrappers) or NONE.",
+            showDefaultValue = ALWAYS)
+    BuildScope buildScope = BuildScope.FULL;
+
     @CommandLine.Option(
             names = {"--address-length"},
             description = {"specify the address length."},
@@ -94,6 +101,20 @@ public class NewProjectCommand implements Runnable {
             arity = "1..*")
     public List<File> bins = new ArrayList<>();
 
+    @CommandLine.Option(
+            names = {"--batch"},
+            description = {
+                "JSON file with the projects to generate, as an array of "
+                        + "{name, package, type, solidityPath, tests, outputDir, abis, bins}."
+            })
+    public File batchFile;
+
+    @CommandLine.Option(
+            names = {"--batch-workers"},
+            description = {"number of projects of a batch generated concurrently."},
+            showDefaultValue = ALWAYS)
+    public int batchWorkers = Math.min(4, Runtime.getRuntime().availableProcessors());
+
     private final InteractiveOptions interactiveOptions;
     private final InputVerifier inputVerifier;
 
@@ -108,11 +129,17 @@ public class NewProjectCommand implements Runnable {
 
     @Override
     public void run() {
+        if (batchFile != null) {
+            runBatch();
+            return;
+        }
         if (projectName == null && packageName == null) {
             buildInteractively();
         }
         if (inputIsValid(projectName, packageName)) {
-            if (new File(projectName).exists()) {
+            // a generated project is regenerated in place, or left as is if up to date
+            if (new File(projectName).exists()
+                    && !ProjectManifest.exists(Paths.get(outputDir, projectName))) {
                 if (interactiveOptions.overrideExistingProject()) {
                     ProjectUtils.deleteFolder(new File(projectName).toPath());
                 } else {
@@ -120,7 +147,7 @@ public class NewProjectCommand implements Runnable {
                 }
             }
             final ProjectCreatorConfig projectCreatorConfig =
-                    new ProjectCreatorConfig(projectName, packageName, outputDir);
+                    new ProjectCreatorConfig(projectName, packageName, outputDir, buildScope);
 
             if (projectType.isOpenApi) {
                 switch (templateType) {
@@ -189,6 +216,30 @@ public class NewProjectCommand implements Runnable {
         }
     }
 
+    private void runBatch() {
+        if (batchWorkers < 1) {
+            exitError("At least one batch worker is required.");
+        }
+        final ProjectBatch batch;
+        try {
+            batch = ProjectBatch.load(batchFile.toPath());
+        } catch (IOException e) {
+            exitError("Could not read the batch " + batchFile + ": " + e.getMessage());
+            return;
+        }
+        try {
+            final ProjectBatchRunner.Report report =
+                    new ProjectBatchRunner(batch, outputDir, buildScope, batchWorkers).run();
+            System.out.println(report.format());
+            if (report.hasFailures()) {
+                exitError("Some projects of the batch could not be generated.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exitError("Project generation was interrupted.");
+        }
+    }
+
     @NotNull
     private String prepareERC777Template() {
         final String buildPath = outputDir + File.separator + "build";
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.project;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.annotations.SerializedName;
+import io.epirus.console.project.utils.InputVerifier;
+
+/**
+ * The projects of an {@code epirus new --batch} run, read from a JSON array such as:
+ *
+ * <pre>
+ * [
+ *   {"name": "Token", "package": "io.epirus.token", "type": "java", "solidityPath": "contracts"},
+ *   {"name": "Greeter", "package": "io.epirus.greeter", "type": "kotlin", "tests": true},
+ *   {"name": "Api", "package": "io.epirus.api", "type": "openapi", "abis": ["Api.abi"],
+ *    "bins": ["Api.bin"]}
+ * ]
+ * </pre>
+ *
+ * Projects with a Solidity path are imported, the others are created from the sample project.
+ */
+public class ProjectBatch {
+    private static final Gson GSON = new Gson();
+
+    public enum Type {
+        @SerializedName("java")
+        JAVA,
+        @SerializedName("kotlin")
+        KOTLIN,
+        @SerializedName("openapi")
+        OPENAPI
+    }
+
+    public static class Entry {
+        private String name;
+
+        @SerializedName("package")
+        private String packageName;
+
+        private Type type;
+        private String solidityPath;
+        private Boolean tests;
+        private String outputDir;
+        private List<String> abis;
+        private List<String> bins;
+
+        public String getName() {
+            return name;
+        }
+
+        public String getPackageName() {
+            return packageName;
+        }
+
+        public Type getType() {
+            return type == null ? Type.JAVA : type;
+        }
+
+        public String getSolidityPath() {
+            return solidityPath;
+        }
+
+        /** Imported projects have no tests unless asked for, new projects always have them. */
+        public boolean withTests() {
+            return tests == null ? solidityPath == null : tests;
+        }
+
+        public String getOutputDir(final String defaultOutputDir) {
+            return outputDir == null ? defaultOutputDir : outputDir;
+        }
+
+        public List<File> getAbis() {
+            return toFiles(abis);
+        }
+
+        public List<File> getBins() {
+            return toFiles(bins);
+        }
+
+        private static List<File> toFiles(final List<String> paths) {
+            final List<File> files = new ArrayList<>();
+            if (paths != null) {
+                paths.forEach(path -> files.add(new File(path)));
+            }
+            return files;
+        }
+    }
+
+    private final List<Entry> entries;
+
+    private ProjectBatch(final List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    public static ProjectBatch load(final Path path) throws IOException {
+        final Entry[] entries;
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            entries = GSON.fromJson(reader, Entry[].class);
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid project batch " + path + ": " + e.getMessage(), e);
+        }
+        final ProjectBatch batch =
+                new ProjectBatch(
+                        entries == null ? Collections.emptyList() : Arrays.asList(entries));
+        batch.validate();
+        return batch;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    private void validate() throws IOException {
+        final InputVerifier inputVerifier = new InputVerifier();
+        final Set<String> projects = new HashSet<>();
+        for (int i = 0; i < entries.size(); i++) {
+            final Entry entry = entries.get(i);
+            if (entry == null
+                    || entry.name == null
+                    || entry.packageName == null
+                    || !inputVerifier.requiredArgsAreNotEmpty(entry.name, entry.packageName)
+                    || !inputVerifier.classNameIsValid(entry.name)
+                    || !inputVerifier.packageNameIsValid(entry.packageName)) {
+                throw new IOException(
+                        "Project " + (i + 1) + " of the batch needs a valid name and package.");
+            }
+            if (!projects.add(entry.getOutputDir("") + File.separator + entry.name)) {
+                throw new IOException("Project " + entry.name + " appears twice in the batch.");
+            }
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.project;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.epirus.console.gradle.GradleExecutionService;
+import io.epirus.console.openapi.OpenApiGeneratorService;
+import io.epirus.console.project.java.JavaBuilder;
+import io.epirus.console.project.kotlin.KotlinBuilder;
+
+/**
+ * Generates the projects of a {@link ProjectBatch} with a bounded number of workers in one JVM, so
+ * that the template caches and the Gradle connection are shared. File generation runs concurrently,
+ * while the Gradle builds queue for a single Gradle daemon.
+ */
+public class ProjectBatchRunner {
+
+    public enum Status {
+        CREATED,
+        UP_TO_DATE,
+        FAILED
+    }
+
+    // OpenAPI projects compile their sample contract in a shared build folder
+    private static final Object OPENAPI_LOCK = new Object();
+
+    private final ProjectBatch batch;
+    private final String outputDir;
+    private final BuildScope buildScope;
+    private final int workers;
+
+    public ProjectBatchRunner(
+            final ProjectBatch batch,
+            final String outputDir,
+            final BuildScope buildScope,
+            final int workers) {
+        this.batch = batch;
+        this.outputDir = outputDir;
+        this.buildScope = buildScope;
+        this.workers = workers;
+    }
+
+    public Report run() throws InterruptedException {
+        final GradleExecutionService gradle = GradleExecutionService.getInstance();
+        final int maxConcurrentBuilds = gradle.getMaxConcurrentBuilds();
+        final AtomicInteger threads = new AtomicInteger();
+        final ExecutorService executor =
+                Executors.newFixedThreadPool(
+                        workers,
+                        runnable -> {
+                            final Thread thread =
+                                    new Thread(
+                                            runnable, "epirus-batch-" + threads.getAndIncrement());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        final long start = System.nanoTime();
+        // restored afterwards, since the daemon runs later commands in the same JVM
+        gradle.setMaxConcurrentBuilds(1);
+        try {
+            final List<Future<Result>> futures = new ArrayList<>();
+            for (ProjectBatch.Entry entry : batch.getEntries()) {
+                futures.add(executor.submit(() -> generate(entry)));
+            }
+            final List<Result> results = new ArrayList<>();
+            for (Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    // generate() reports its own failures
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            return new Report(results, System.nanoTime() - start);
+        } finally {
+            executor.shutdownNow();
+            gradle.setMaxConcurrentBuilds(maxConcurrentBuilds);
+        }
+    }
+
+    private Result generate(final ProjectBatch.Entry entry) {
+        final long start = System.nanoTime();
+        try {
+            final Status status = generateProject(entry);
+            return new Result(entry, status, System.nanoTime() - start, null);
+        } catch (Exception e) {
+            return new Result(entry, Status.FAILED, System.nanoTime() - start, e);
+        }
+    }
+
+    private Status generateProject(final ProjectBatch.Entry entry) throws Exception {
+        final String projectOutputDir = entry.getOutputDir(outputDir);
+        if (entry.getType() == ProjectBatch.Type.OPENAPI) {
+            synchronized (OPENAPI_LOCK) {
+                new OpenApiGeneratorService(
+                                entry.getName(),
+                                entry.getPackageName(),
+                                projectOutputDir,
+                                entry.getAbis(),
+                                entry.getBins(),
+                                20,
+                                entry.getName(),
+                                true)
+                        .withoutProgress()
+                        .generate();
+            }
+            return Status.CREATED;
+        }
+
+        final File projectRoot = Paths.get(projectOutputDir, entry.getName()).toFile();
+        if (projectRoot.exists() && !ProjectManifest.exists(projectRoot.toPath())) {
+            throw new IllegalStateException(projectRoot + " already exists.");
+        }
+        final boolean imported = entry.getSolidityPath() != null;
+        final AbstractProject<?> project;
+        if (entry.getType() == ProjectBatch.Type.KOTLIN) {
+            final KotlinBuilder builder =
+                    new KotlinBuilder()
+                            .withCommand(imported ? "import" : "new")
+                            .withProjectName(entry.getName())
+                            .withRootDirectory(projectOutputDir)
+                            .withPackageName(entry.getPackageName())
+                            .withTests(entry.withTests())
+                            .withSampleCode(!imported)
+                            .withFatJar(!imported)
+                            .withBuildScope(buildScope);
+            if (imported) {
+                builder.withSolidityFile(new File(entry.getSolidityPath()).getAbsolutePath());
+            }
+            project = builder.build().withoutProgress();
+        } else {
+            final JavaBuilder builder =
+                    new JavaBuilder()
+                            .withCommand(imported ? "import" : "new")
+                            .withProjectName(entry.getName())
+                            .withRootDirectory(projectOutputDir)
+                            .withPackageName(entry.getPackageName())
+                            .withTests(entry.withTests())
+                            .withSampleCode(!imported)
+                            .withFatJar(!imported)
+                            .withBuildScope(buildScope);
+            if (imported) {
+                builder.withSolidityFile(new File(entry.getSolidityPath()).getAbsolutePath());
+            }
+            project = builder.build().withoutProgress();
+        }
+        project.createProject();
+        return project.isUpToDate() ? Status.UP_TO_DATE : Status.CREATED;
+    }
+
+    public static class Result {
+        private final ProjectBatch.Entry entry;
+        private final Status status;
+        private final long durationNanos;
+        private final Exception failure;
+
+        Result(
+                final ProjectBatch.Entry entry,
+                final Status status,
+                final long durationNanos,
+                final Exception failure) {
+            this.entry = entry;
+            this.status = status;
+            this.durationNanos = durationNanos;
+            this.failure = failure;
+        }
+
+        public String getName() {
+            return entry.getName();
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public long getDurationMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        }
+
+        public Exception getFailure() {
+            return failure;
+        }
+    }
+
+    public static class Report {
+        private final List<Result> results;
+        private final long durationNanos;
+
+        Report(final List<Result> results, final long durationNanos) {
+            this.results = results;
+            this.durationNanos = durationNanos;
+        }
+
+        public List<Result> getResults() {
+            return results;
+        }
+
+        public long getDurationMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        }
+
+        public boolean hasFailures() {
+            return results.stream().anyMatch(result -> result.getStatus() == Status.FAILED);
+        }
+
+        /** Projects generated per minute, up to date projects included. */
+        public double getThroughput() {
+            return durationNanos == 0 ? 0 : results.size() * 60e9 / durationNanos;
+        }
+
+        public String format() {
+            final StringBuilder builder = new StringBuilder();
+            for (Result result : results) {
+                builder.append(
+                        String.format(
+                                "%-30s %-10s %8d ms",
+                                result.getName(), result.getStatus(), result.getDurationMillis()));
+                if (result.getFailure() != null) {
+                    builder.append("  ").append(result.getFailure().getMessage());
+                }
+                builder.append(System.lineSeparator());
+            }
+            builder.append(
+                    String.format(
+                            "%d projects in %d ms (%.1f projects/min)",
+                            results.size(), getDurationMillis(), getThroughput()));
+            return builder.toString();
+        }
+    }
+}
@@ -16,13 +16,23 @@ public class ProjectCreatorConfig {
     private final String projectName;
     private final String packageName;
     private final String outputDir;
+    private final BuildScope buildScope;
 
     public ProjectCreatorConfig(
             final String projectName, final String packageName, final String outputDir) {
+        this(projectName, packageName, outputDir, BuildScope.FULL);
+    }
+
+    public ProjectCreatorConfig(
+            final String projectName,
+            final String packageName,
+            final String outputDir,
+            final BuildScope buildScope) {
 
         this.projectName = projectName;
         this.packageName = packageName;
         this.outputDir = outputDir;
+        this.buildScope = buildScope;
     }
 
     public String getProjectName() {
@@ -36,4 +46,8 @@ public class ProjectCreatorConfig {
     public String getOutputDir() {
         return outputDir;
     }
+
+    public BuildScope getBuildScope() {
+        return buildScope;
+    }
 }
@@ -22,7 +22,23 @@ public class ProjectImporterConfig extends ProjectCreatorConfig {
             final String outputDir,
             final String solidityImportPath,
             final boolean generateTests) {
-        super(projectName, packageName, outputDir);
+        this(
+                projectName,
+                packageName,
+                outputDir,
+                solidityImportPath,
+                generateTests,
+                BuildScope.FULL);
+    }
+
+    public ProjectImporterConfig(
+            final String projectName,
+            final String packageName,
+            final String outputDir,
+            final String solidityImportPath,
+            final boolean generateTests,
+            final BuildScope buildScope) {
+        super(projectName, packageName, outputDir, buildScope);
 
         this.solidityImportPath = solidityImportPath;
         this.generateTests = generateTests;
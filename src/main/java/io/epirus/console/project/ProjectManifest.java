@@ -0,0 +1,203 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.project;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+import org.web3j.utils.Numeric;
+
+/**
+ * Records a hash of the inputs a project was generated from and of every file generated for it, so
+ * that generating the same project again from the same inputs can be skipped.
+ *
+ * <p>Build outputs ({@code build} and {@code .gradle}) are not recorded, Gradle keeps track of
+ * those itself.
+ */
+public class ProjectManifest {
+    public static final String FILE_NAME = ".epirus-manifest.json";
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String inputs;
+    private final Map<String, String> files;
+
+    private ProjectManifest(final String inputs, final Map<String, String> files) {
+        this.inputs = inputs;
+        this.files = files;
+    }
+
+    public static boolean exists(final Path projectRoot) {
+        return Files.isRegularFile(projectRoot.resolve(FILE_NAME));
+    }
+
+    /** The manifest of the project, or null if it has none or it cannot be read. */
+    public static ProjectManifest load(final Path projectRoot) {
+        try {
+            final ProjectManifest manifest =
+                    GSON.fromJson(
+                            new String(
+                                    Files.readAllBytes(projectRoot.resolve(FILE_NAME)),
+                                    StandardCharsets.UTF_8),
+                            ProjectManifest.class);
+            return manifest == null || manifest.inputs == null || manifest.files == null
+                    ? null
+                    : manifest;
+        } catch (IOException | JsonParseException e) {
+            return null;
+        }
+    }
+
+    /** Hashes the files currently in the project. */
+    public static ProjectManifest create(final Path projectRoot, final String inputs)
+            throws IOException {
+        return new ProjectManifest(inputs, hashFiles(projectRoot));
+    }
+
+    /** The project is up to date if it was generated from the same inputs and is unmodified. */
+    public boolean isUpToDate(final Path projectRoot, final String inputs) throws IOException {
+        return this.inputs.equals(inputs) && isUnmodified(projectRoot);
+    }
+
+    /** None of the generated files were changed, removed or added to since generation. */
+    public boolean isUnmodified(final Path projectRoot) throws IOException {
+        return files.equals(hashFiles(projectRoot));
+    }
+
+    /** Deletes the generated files, before generating the project again from other inputs. */
+    public void deleteFiles(final Path projectRoot) throws IOException {
+        for (String file : files.keySet()) {
+            Files.deleteIfExists(projectRoot.resolve(file));
+        }
+        Files.deleteIfExists(projectRoot.resolve(FILE_NAME));
+    }
+
+    public void save(final Path projectRoot) throws IOException {
+        final Path temp = Files.createTempFile(projectRoot, "manifest", ".tmp");
+        Files.write(temp, GSON.toJson(this).getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, projectRoot.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Map<String, String> hashFiles(final Path projectRoot) throws IOException {
+        final Map<String, String> hashes = new TreeMap<>();
+        final MessageDigest digest = newSha256();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        Files.walkFileTree(
+                projectRoot,
+                new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(
+                            final Path dir, final BasicFileAttributes attrs) {
+                        final String relative = projectRoot.relativize(dir).toString();
+                        return relative.equals("build") || relative.equals(".gradle")
+                                ? FileVisitResult.SKIP_SUBTREE
+                                : FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(
+                            final Path file, final BasicFileAttributes attrs) throws IOException {
+                        final String relative =
+                                projectRoot.relativize(file).toString().replace('\\', '/');
+                        if (!relative.equals(FILE_NAME)) {
+                            hashes.put(relative, hash(file, digest, buffer));
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+        return hashes;
+    }
+
+    private static String hash(final Path file, final MessageDigest digest, final byte[] buffer)
+            throws IOException {
+        digest.reset();
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return Numeric.toHexStringNoPrefix(digest.digest());
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Hashes the inputs of a project: its options and the content of its source files. */
+    public static class Inputs {
+        private final MessageDigest digest = newSha256();
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        public Inputs add(final Object value) {
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return this;
+        }
+
+        /** Adds a file, or all files below a directory with their names relative to it. */
+        public Inputs addContent(final Path path) throws IOException {
+            final Map<String, Path> files = new TreeMap<>();
+            if (Files.isDirectory(path)) {
+                Files.walkFileTree(
+                        path,
+                        new SimpleFileVisitor<Path>() {
+                            @Override
+                            public FileVisitResult visitFile(
+                                    final Path file, final BasicFileAttributes attrs) {
+                                files.put(
+                                        path.relativize(file).toString().replace('\\', '/'), file);
+                                return FileVisitResult.CONTINUE;
+                            }
+                        });
+            } else if (Files.isRegularFile(path)) {
+                files.put(String.valueOf(path.getFileName()), path);
+            }
+            for (Map.Entry<String, Path> file : files.entrySet()) {
+                add(file.getKey());
+                try (InputStream in = Files.newInputStream(file.getValue())) {
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        digest.update(buffer, 0, read);
+                    }
+                }
+                digest.update((byte) 0);
+            }
+            return this;
+        }
+
+        public String hash() {
+            return Numeric.toHexStringNoPrefix(digest.digest());
+        }
+    }
+}
@@ -20,11 +20,13 @@ public abstract class ProjectRunner implements Runnable {
     public String projectName;
     public String packageName;
     public String outputDir;
+    public BuildScope buildScope;
 
     public ProjectRunner(final ProjectCreatorConfig projectCreatorConfig) {
         this.projectName = projectCreatorConfig.getProjectName();
         this.packageName = projectCreatorConfig.getPackageName();
         this.outputDir = projectCreatorConfig.getOutputDir();
+        this.buildScope = projectCreatorConfig.getBuildScope();
     }
 
     @Override
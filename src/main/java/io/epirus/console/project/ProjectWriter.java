@@ -12,13 +12,18 @@
  */
 package io.epirus.console.project;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Map;
 import java.util.Objects;
 
+import io.epirus.console.project.templates.Template;
+
 public class ProjectWriter {
 
     public static void writeResourceFile(
@@ -27,6 +32,21 @@ public class ProjectWriter {
         Files.write(Paths.get(writeLocation + File.separator + fileName), getBytes(file));
     }
 
+    /** Renders the template straight into the file. */
+    public static void writeTemplate(
+            final Template template,
+            final Map<String, String> values,
+            final String fileName,
+            final String writeLocation)
+            throws IOException {
+        try (OutputStream out =
+                new BufferedOutputStream(
+                        Files.newOutputStream(
+                                Paths.get(writeLocation + File.separator + fileName)))) {
+            template.render(values, out);
+        }
+    }
+
     private static byte[] getBytes(final String file) {
         return file.getBytes();
     }
@@ -44,16 +64,8 @@ public class ProjectWriter {
     public static void importSolidityProject(
             final File solidityImportPath, final String destination) throws IOException {
         if (solidityImportPath != null && solidityImportPath.exists()) {
-            if (solidityImportPath.isFile() && solidityImportPath.getName().endsWith(".sol")) {
-                Files.copy(
-                        solidityImportPath.toPath(),
-                        Paths.get(destination + File.separator + solidityImportPath.getName()),
-                        StandardCopyOption.REPLACE_EXISTING);
-            } else {
-                Files.walkFileTree(
-                        solidityImportPath.toPath(),
-                        new ProjectVisitor(solidityImportPath.getAbsolutePath(), destination));
-            }
+            new SolidityImporter()
+                    .importSolidity(solidityImportPath.toPath(), Paths.get(destination));
         }
     }
 }
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.project;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports the Solidity sources of a folder into a project, keeping their relative layout.
+ *
+ * <p>Only {@code .sol} files are imported and hidden folders such as {@code .git} are skipped, so
+ * vendored dependencies come along without the rest of the repository. The files are copied by a
+ * pool of workers with {@link FileChannel#transferTo}, which lets the kernel move the bytes, and
+ * each copy gets the modification time of its source. A file whose destination already has the same
+ * size and modification time is left alone, so importing the same tree again only copies what
+ * changed.
+ */
+public class SolidityImporter {
+    private static final String SOLIDITY_EXTENSION = ".sol";
+    private static final int FILES_PER_TASK = 64;
+
+    private final int workers;
+
+    public SolidityImporter() {
+        this(Math.min(8, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public SolidityImporter(final int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one import worker is required");
+        }
+        this.workers = workers;
+    }
+
+    /** Imports a single Solidity file or the Solidity files of a folder into the destination. */
+    public Result importSolidity(final Path source, final Path destination) throws IOException {
+        final List<Path> files = new ArrayList<>();
+        final Path root;
+        if (Files.isRegularFile(source)) {
+            if (!isSolidity(source)) {
+                return new Result(0, 0, 0);
+            }
+            root = source.toAbsolutePath().getParent();
+            files.add(source.toAbsolutePath());
+        } else {
+            root = source.toAbsolutePath();
+            Files.walkFileTree(root, new SolidityVisitor(root, files));
+        }
+
+        final Set<Path> folders = new LinkedHashSet<>();
+        folders.add(destination);
+        for (Path file : files) {
+            folders.add(destination.resolve(root.relativize(file)).getParent());
+        }
+        for (Path folder : folders) {
+            Files.createDirectories(folder);
+        }
+
+        final Counters counters = new Counters();
+        if (files.size() <= FILES_PER_TASK || workers == 1) {
+            copy(files, root, destination, counters);
+        } else {
+            copyConcurrently(files, root, destination, counters);
+        }
+        return new Result(counters.copied.get(), counters.skipped.get(), counters.bytes.get());
+    }
+
+    private void copyConcurrently(
+            final List<Path> files,
+            final Path root,
+            final Path destination,
+            final Counters counters)
+            throws IOException {
+        final AtomicInteger threads = new AtomicInteger();
+        final ExecutorService executor =
+                Executors.newFixedThreadPool(
+                        workers,
+                        runnable -> {
+                            final Thread thread =
+                                    new Thread(
+                                            runnable, "epirus-import-" + threads.getAndIncrement());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        try {
+            final List<Future<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < files.size(); i += FILES_PER_TASK) {
+                final List<Path> slice =
+                        files.subList(i, Math.min(i + FILES_PER_TASK, files.size()));
+                tasks.add(
+                        executor.submit(
+                                () -> {
+                                    copy(slice, root, destination, counters);
+                                    return null;
+                                }));
+            }
+            for (Future<Void> task : tasks) {
+                task.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Could not import the Solidity files", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while importing the Solidity files", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void copy(
+            final List<Path> files,
+            final Path root,
+            final Path destination,
+            final Counters counters)
+            throws IOException {
+        for (Path file : files) {
+            final Path target = destination.resolve(root.relativize(file));
+            final BasicFileAttributes attributes =
+                    Files.readAttributes(file, BasicFileAttributes.class);
+            if (isUnchanged(target, attributes)) {
+                counters.skipped.incrementAndGet();
+                continue;
+            }
+            transfer(file, target, attributes.size());
+            Files.setLastModifiedTime(target, attributes.lastModifiedTime());
+            counters.copied.incrementAndGet();
+            counters.bytes.addAndGet(attributes.size());
+        }
+    }
+
+    private static boolean isUnchanged(final Path target, final BasicFileAttributes source)
+            throws IOException {
+        if (!Files.isRegularFile(target, LinkOption.NOFOLLOW_LINKS)) {
+            return false;
+        }
+        final BasicFileAttributes attributes =
+                Files.readAttributes(target, BasicFileAttributes.class);
+        final FileTime modified = attributes.lastModifiedTime();
+        return attributes.size() == source.size()
+                && modified.toMillis() == source.lastModifiedTime().toMillis();
+    }
+
+    private static void transfer(final Path source, final Path target, final long size)
+            throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                FileChannel out =
+                        FileChannel.open(
+                                target,
+                                StandardOpenOption.WRITE,
+                                StandardOpenOption.CREATE,
+                                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            while (position < size) {
+                final long transferred = in.transferTo(position, size - position, out);
+                if (transferred <= 0) {
+                    // the source shrank while it was copied
+                    break;
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    private static boolean isSolidity(final Path file) {
+        return file.getFileName().toString().endsWith(SOLIDITY_EXTENSION);
+    }
+
+    private static class SolidityVisitor extends SimpleFileVisitor<Path> {
+        private final Path root;
+        private final List<Path> files;
+        private Path realRoot;
+
+        SolidityVisitor(final Path root, final List<Path> files) {
+            this.root = root;
+            this.files = files;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(
+                final Path dir, final BasicFileAttributes attributes) {
+            final Path name = dir.getFileName();
+            return !dir.equals(root) && name != null && name.toString().startsWith(".")
+                    ? FileVisitResult.SKIP_SUBTREE
+                    : FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes)
+                throws IOException {
+            if (!isSolidity(file)) {
+                return FileVisitResult.CONTINUE;
+            }
+            if (attributes.isSymbolicLink()) {
+                // linked files are copied, as long as they stay in the imported folder
+                if (realRoot == null) {
+                    realRoot = root.toRealPath();
+                }
+                if (!file.toRealPath().startsWith(realRoot)) {
+                    throw new IOException("Unsupported source location: " + file.toRealPath());
+                }
+            }
+            files.add(file);
+            return FileVisitResult.CONTINUE;
+        }
+    }
+
+    private static class Counters {
+        private final AtomicInteger copied = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicLong bytes = new AtomicLong();
+    }
+
+    public static class Result {
+        private final int copied;
+        private final int skipped;
+        private final long bytes;
+
+        Result(final int copied, final int skipped, final long bytes) {
+            this.copied = copied;
+            this.skipped = skipped;
+            this.bytes = bytes;
+        }
+
+        public int getCopied() {
+            return copied;
+        }
+
+        /** Files left alone because the destination already had the same size and time. */
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+    }
+}
@@ -38,6 +38,7 @@ public class JavaBuilder extends AbstractProjectBuilder<JavaBuilder> implements
                 withSampleCode,
                 command,
                 solidityImportPath,
+                buildScope,
                 projectStructure);
     }
 
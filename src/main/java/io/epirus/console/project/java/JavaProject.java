@@ -15,6 +15,7 @@ package io.epirus.console.project.java;
 import java.io.IOException;
 
 import io.epirus.console.project.AbstractProject;
+import io.epirus.console.project.BuildScope;
 import io.epirus.console.project.Project;
 import io.epirus.console.project.ProjectStructure;
 import io.epirus.console.project.templates.java.JavaTemplateBuilder;
@@ -30,8 +31,16 @@ public class JavaProject extends AbstractProject<JavaProject> implements Project
             boolean withSampleCode,
             String command,
             String solidityImportPath,
+            BuildScope buildScope,
             ProjectStructure projectStructure) {
-        super(withTests, withFatJar, withSampleCode, command, solidityImportPath, projectStructure);
+        super(
+                withTests,
+                withFatJar,
+                withSampleCode,
+                command,
+                solidityImportPath,
+                buildScope,
+                projectStructure);
     }
 
     protected void generateTests(ProjectStructure projectStructure) throws IOException {
@@ -44,7 +44,8 @@ public abstract class JavaProjectRunner extends ProjectRunner {
                             .withTests(withTests)
                             .withCommand(command)
                             .withSampleCode(withSampleCode)
-                            .withFatJar(withFatJar);
+                            .withFatJar(withFatJar)
+                            .withBuildScope(buildScope);
             solidityFile.map(File::getAbsolutePath).ifPresent(javaBuilder::withSolidityFile);
             Project javaProject = javaBuilder.build();
             javaProject.createProject();
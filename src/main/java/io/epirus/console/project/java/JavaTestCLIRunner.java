@@ -87,23 +87,25 @@ public class JavaTestCLIRunner implements Runnable {
     @VisibleForTesting
     public void generateJava() throws IOException {
         List<Class> compiledClasses = new ClassProvider(new File(javaWrapperDir)).getClasses();
-        compiledClasses.forEach(
-                compiledClass -> {
-                    try {
-                        new JavaClassGenerator(
-                                        compiledClass,
-                                        compiledClass
-                                                .getCanonicalName()
-                                                .substring(
-                                                        0,
-                                                        compiledClass
-                                                                .getCanonicalName()
-                                                                .lastIndexOf(".")),
-                                        unitTestOutputDir)
-                                .writeClass();
-                    } catch (Exception e) {
-                        Console.exitError(e);
-                    }
-                });
+        for (Class compiledClass : compiledClasses) {
+            try {
+                new JavaClassGenerator(
+                                compiledClass,
+                                compiledClass
+                                        .getCanonicalName()
+                                        .substring(
+                                                0,
+                                                compiledClass.getCanonicalName().lastIndexOf(".")),
+                                unitTestOutputDir)
+                        .writeClass();
+            } catch (Exception e) {
+                // reported by the command, or recorded by a batch without stopping it
+                if (e instanceof IOException) {
+                    throw (IOException) e;
+                }
+                throw new IOException(
+                        "Could not generate tests for " + compiledClass.getCanonicalName(), e);
+            }
+        }
     }
 }
@@ -33,6 +33,7 @@ public class KotlinBuilder extends AbstractProjectBuilder<KotlinBuilder> impleme
                 withSampleCode,
                 command,
                 solidityImportPath,
+                buildScope,
                 projectStructure);
     }
 
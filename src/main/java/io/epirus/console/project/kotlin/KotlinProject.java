@@ -15,6 +15,7 @@ package io.epirus.console.project.kotlin;
 import java.io.IOException;
 
 import io.epirus.console.project.AbstractProject;
+import io.epirus.console.project.BuildScope;
 import io.epirus.console.project.Project;
 import io.epirus.console.project.ProjectStructure;
 import io.epirus.console.project.templates.kotlin.KotlinTemplateBuilder;
@@ -30,8 +31,16 @@ public class KotlinProject extends AbstractProject<KotlinProject> implements Pro
             boolean withSampleCode,
             String command,
             String solidityImportPath,
+            BuildScope buildScope,
             ProjectStructure projectStructure) {
-        super(withTests, withFatJar, withSampleCode, command, solidityImportPath, projectStructure);
+        super(
+                withTests,
+                withFatJar,
+                withSampleCode,
+                command,
+                solidityImportPath,
+                buildScope,
+                projectStructure);
     }
 
     protected void generateTests(ProjectStructure projectStructure) throws IOException {
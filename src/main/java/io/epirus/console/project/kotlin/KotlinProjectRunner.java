@@ -44,7 +44,8 @@ public abstract class KotlinProjectRunner extends ProjectRunner {
                             .withTests(withTests)
                             .withCommand(command)
                             .withSampleCode(withSampleCode)
-                            .withFatJar(withFatJar);
+                            .withFatJar(withFatJar)
+                            .withBuildScope(buildScope);
             solidityFile.map(File::getAbsolutePath).ifPresent(kotlinBuilder::withSolidityFile);
             Project kotlinProject = kotlinBuilder.build();
             kotlinProject.createProject();
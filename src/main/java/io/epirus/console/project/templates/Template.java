@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.project.templates;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A project template compiled into literal text and named placeholders such as {@code
+ * <package_name>}, so that it can be rendered any number of times without searching the text.
+ *
+ * <p>Placeholders without a value are rendered as they appear in the template.
+ */
+public class Template {
+    public static final String PACKAGE_NAME = "package_name";
+    public static final String PROJECT_NAME = "project_name";
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("<([a-z_]+)>");
+
+    // a segment is either literal text or, if its name is set, a placeholder
+    private final String[] texts;
+    private final byte[][] bytes;
+    private final String[] names;
+    private final int length;
+
+    private Template(final List<String> texts, final List<String> names) {
+        this.texts = texts.toArray(new String[0]);
+        this.names = names.toArray(new String[0]);
+        this.bytes = new byte[this.texts.length][];
+        int length = 0;
+        for (int i = 0; i < this.texts.length; i++) {
+            bytes[i] = this.texts[i].getBytes(StandardCharsets.UTF_8);
+            length += this.texts[i].length();
+        }
+        this.length = length;
+    }
+
+    public static Template compile(final String text) {
+        final List<String> texts = new ArrayList<>();
+        final List<String> names = new ArrayList<>();
+        final Matcher matcher = PLACEHOLDER.matcher(text);
+        int start = 0;
+        while (matcher.find()) {
+            if (matcher.start() > start) {
+                texts.add(text.substring(start, matcher.start()));
+                names.add(null);
+            }
+            texts.add(matcher.group());
+            names.add(matcher.group(1));
+            start = matcher.end();
+        }
+        if (start < text.length()) {
+            texts.add(text.substring(start));
+            names.add(null);
+        }
+        return new Template(texts, names);
+    }
+
+    public String render(final Map<String, String> values) {
+        final StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < texts.length; i++) {
+            final String value = names[i] == null ? null : values.get(names[i]);
+            builder.append(value == null ? texts[i] : value);
+        }
+        return builder.toString();
+    }
+
+    /** Writes the rendered template to the stream as UTF-8. */
+    public void render(final Map<String, String> values, final OutputStream out)
+            throws IOException {
+        for (int i = 0; i < texts.length; i++) {
+            final String value = names[i] == null ? null : values.get(names[i]);
+            out.write(value == null ? bytes[i] : value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -16,18 +16,40 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TemplateReader {
+    // resources do not change while the CLI runs, so each is read and compiled once
+    private static final Map<String, String> FILES = new ConcurrentHashMap<>();
+    private static final Map<String, Template> TEMPLATES = new ConcurrentHashMap<>();
+
     public static String readFile(final String name) throws IOException {
-        try (final InputStream stream =
-                TemplateReader.class.getClassLoader().getResourceAsStream(name)) {
-            return readStream(stream);
+        String file = FILES.get(name);
+        if (file == null) {
+            try (final InputStream stream =
+                    TemplateReader.class.getClassLoader().getResourceAsStream(name)) {
+                file = readStream(stream);
+            }
+            FILES.putIfAbsent(name, file);
+        }
+        return file;
+    }
+
+    public static Template readTemplate(final String name) throws IOException {
+        Template template = TEMPLATES.get(name);
+        if (template == null) {
+            template = Template.compile(readFile(name));
+            TEMPLATES.putIfAbsent(name, template);
         }
+        return template;
     }
 
     private static String readStream(final InputStream stream) throws IOException {
 
-        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(stream))) {
+        try (final BufferedReader reader =
+                new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
             String temp;
             final StringBuilder stringBuilder = new StringBuilder();
             while ((temp = reader.readLine()) != null) {
@@ -14,10 +14,14 @@ package io.epirus.console.project.templates.java;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import io.epirus.console.project.ProjectStructure;
 import io.epirus.console.project.ProjectWriter;
+import io.epirus.console.project.templates.Template;
 import io.epirus.console.project.templates.TemplateProvider;
 import io.epirus.console.project.templates.TemplateReader;
 import io.epirus.console.project.utils.ProjectUtils;
@@ -93,17 +97,11 @@ public class JavaTemplateProvider implements TemplateProvider {
     }
 
     public String loadMainJavaClass() throws IOException {
-        return TemplateReader.readFile(mainJavaClass)
-                .replaceAll(
-                        "<project_name>",
-                        ProjectUtils.capitalizeFirstLetter(projectNameReplacement.orElse("")))
-                .replaceAll("<package_name>", packageNameReplacement.orElse(""));
+        return TemplateReader.readTemplate(mainJavaClass).render(mainClassValues());
     }
 
     public String loadGradleBuild() throws IOException {
-        return TemplateReader.readFile(gradleBuild)
-                .replaceAll("<package_name>", packageNameReplacement.orElse(""))
-                .replaceAll("<project_name>", projectNameReplacement.orElse(""));
+        return TemplateReader.readTemplate(gradleBuild).render(gradleBuildValues());
     }
 
     public String loadSolidityContract() throws IOException {
@@ -111,8 +109,7 @@ public class JavaTemplateProvider implements TemplateProvider {
     }
 
     public String loadGradleSettings() throws IOException {
-        return TemplateReader.readFile(gradleSettings)
-                .replaceAll("<project_name>", projectNameReplacement.orElse(""));
+        return TemplateReader.readTemplate(gradleSettings).render(gradleSettingsValues());
     }
 
     public String loadGradlewWrapperSettings() throws IOException {
@@ -130,34 +127,72 @@ public class JavaTemplateProvider implements TemplateProvider {
         return TemplateReader.readFile(gradlewScript);
     }
 
+    private Map<String, String> mainClassValues() {
+        final Map<String, String> values = new HashMap<>();
+        values.put(
+                Template.PROJECT_NAME,
+                ProjectUtils.capitalizeFirstLetter(projectNameReplacement.orElse("")));
+        values.put(Template.PACKAGE_NAME, packageNameReplacement.orElse(""));
+        return values;
+    }
+
+    private Map<String, String> gradleBuildValues() {
+        final Map<String, String> values = new HashMap<>();
+        values.put(Template.PROJECT_NAME, projectNameReplacement.orElse(""));
+        values.put(Template.PACKAGE_NAME, packageNameReplacement.orElse(""));
+        return values;
+    }
+
+    private Map<String, String> gradleSettingsValues() {
+        return Collections.singletonMap(Template.PROJECT_NAME, projectNameReplacement.orElse(""));
+    }
+
     public void generateFiles(ProjectStructure projectStructure) throws IOException {
-        ProjectWriter.writeResourceFile(
-                loadMainJavaClass(),
+        ProjectWriter.writeTemplate(
+                TemplateReader.readTemplate(mainJavaClass),
+                mainClassValues(),
                 ProjectUtils.capitalizeFirstLetter(projectStructure.getProjectName() + ".java"),
                 projectStructure.getMainPath());
-        ProjectWriter.writeResourceFile(
-                loadGradleBuild(), "build.gradle", projectStructure.getProjectRoot());
-        ProjectWriter.writeResourceFile(
-                loadGradleSettings(), "settings.gradle", projectStructure.getProjectRoot());
+        ProjectWriter.writeTemplate(
+                TemplateReader.readTemplate(gradleBuild),
+                gradleBuildValues(),
+                "build.gradle",
+                projectStructure.getProjectRoot());
+        ProjectWriter.writeTemplate(
+                TemplateReader.readTemplate(gradleSettings),
+                gradleSettingsValues(),
+                "settings.gradle",
+                projectStructure.getProjectRoot());
         if (solidityContract != null)
-            ProjectWriter.writeResourceFile(
-                    loadSolidityContract(), "HelloWorld.sol", projectStructure.getSolidityPath());
+            ProjectWriter.writeTemplate(
+                    TemplateReader.readTemplate(solidityContract),
+                    Collections.emptyMap(),
+                    "HelloWorld.sol",
+                    projectStructure.getSolidityPath());
         if (pathToSolidityFolder != null) {
             ProjectWriter.importSolidityProject(
                     new File(pathToSolidityFolder), projectStructure.getSolidityPath());
         }
-        ProjectWriter.writeResourceFile(
-                TemplateReader.readFile("project/Dockerfile.template"),
+        ProjectWriter.writeTemplate(
+                TemplateReader.readTemplate("project/Dockerfile.template"),
+                Collections.emptyMap(),
                 "Dockerfile",
                 projectStructure.getProjectRoot());
-        ProjectWriter.writeResourceFile(
-                loadGradlewWrapperSettings(),
+        ProjectWriter.writeTemplate(
+                TemplateReader.readTemplate(gradlewWrapperSettings),
+                Collections.emptyMap(),
                 "gradle-wrapper.properties",
                 projectStructure.getWrapperPath());
-        ProjectWriter.writeResourceFile(
-                loadGradlewScript(), "gradlew", projectStructure.getProjectRoot());
-        ProjectWriter.writeResourceFile(
-                loadGradlewBatScript(), "gradlew.bat", projectStructure.getProjectRoot());
+        ProjectWriter.writeTemplate(
+                TemplateReader.readTemplate(gradlewScript),
+                Collections.emptyMap(),
+                "gradlew",
+                projectStructure.getProjectRoot());
+        ProjectWriter.writeTemplate(
+                TemplateReader.readTemplate(gradlewBatScript),
+                Collections.emptyMap(),
+                "gradlew.bat",
+                projectStructure.getProjectRoot());
         ProjectWriter.copyResourceFile(
                 getGradlewJar(),
                 projectStructure.getWrapperPath() + File.separator + "gradle-wrapper.jar");
@@ -13,9 +13,19 @@
 package io.epirus.console.project.testing;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.epirus.console.EpirusVersionProvider;
-import io.epirus.console.utils.OSUtils;
+import io.epirus.console.gradle.GradleExecutionService;
+import org.gradle.tooling.BuildException;
+import org.gradle.tooling.events.OperationType;
+import org.gradle.tooling.events.ProgressListener;
+import org.gradle.tooling.events.test.JvmTestOperationDescriptor;
+import org.gradle.tooling.events.test.TestFailureResult;
+import org.gradle.tooling.events.test.TestFinishEvent;
 import picocli.CommandLine;
 
 import org.web3j.codegen.Console;
@@ -33,38 +43,47 @@ import org.web3j.codegen.Console;
         footerHeading = "%n",
         footer = "Epirus CLI is licensed under the Apache License 2.0")
 public class ProjectTestCommand implements Runnable {
-    private static boolean setExecutable(final String pathToDirectory, final String gradlew) {
-        final File f = new File(pathToDirectory + File.separator + gradlew);
-        return f.setExecutable(true);
-    }
 
     public void run() {
-        String currentDirPath = System.getProperty("user.dir");
-
-        if (OSUtils.determineOS() == OSUtils.OS.WINDOWS) {
-            setExecutable(currentDirPath, "gradlew.bat");
-            runTests(new File(currentDirPath), new String[] {"cmd.exe", "/c", "gradlew.bat test"});
-        } else if (OSUtils.determineOS() == OSUtils.OS.LINUX) {
-            setExecutable(currentDirPath, "gradlew");
-            runTests(new File(currentDirPath), new String[] {"bash", "-c", "./gradlew test"});
-        }
+        runTests(new File(System.getProperty("user.dir")));
     }
 
-    private static void runTests(File workingDir, String[] command) {
-        int exitCode = 0;
+    private static void runTests(File workingDir) {
+        final List<String> failedTests = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger testCount = new AtomicInteger();
+        final ProgressListener testListener =
+                event -> {
+                    if (!(event instanceof TestFinishEvent)
+                            || !(event.getDescriptor() instanceof JvmTestOperationDescriptor)) {
+                        return;
+                    }
+                    final JvmTestOperationDescriptor test =
+                            (JvmTestOperationDescriptor) event.getDescriptor();
+                    if (test.getMethodName() == null) {
+                        return;
+                    }
+                    testCount.incrementAndGet();
+                    if (((TestFinishEvent) event).getResult() instanceof TestFailureResult) {
+                        failedTests.add(test.getClassName() + "." + test.getMethodName());
+                    }
+                };
         try {
-            exitCode =
-                    new ProcessBuilder(command)
-                            .directory(workingDir)
-                            .redirectOutput(ProcessBuilder.Redirect.INHERIT)
-                            .start()
-                            .waitFor();
+            GradleExecutionService.getInstance()
+                    .newBuild(workingDir, "test")
+                    .withOutput(System.out, System.err)
+                    .withProgressListener(testListener, OperationType.TEST)
+                    .run();
+        } catch (BuildException e) {
+            failedTests.forEach(test -> System.err.println("Failed: " + test));
+            Console.exitError("Tests failed. For more details, see the test output.");
         } catch (Exception e) {
             Console.exitError(e);
         }
-        if (exitCode != 0) {
-            Console.exitError("Tests failed. For more details, see the test output.");
+        if (testCount.get() > 0) {
+            System.out.printf(
+                    "Epirus successfully tested your application (%d tests).%n", testCount.get());
         } else {
+            // the test task was up to date
             System.out.println("Epirus successfully tested your application.");
         }
     }
@@ -23,6 +23,8 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import com.diogonunes.jcdp.color.api.Ansi;
+import com.google.common.annotations.VisibleForTesting;
+import io.epirus.console.web.services.HttpClientProvider;
 import okhttp3.Call;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
@@ -160,8 +162,15 @@ public class ProjectUtils {
     }
 
     private static void uploadFile(File file, Network network) throws IOException {
-        String uploadURL = "https://" + network.getNetworkName() + ".api.epirus.io/metadata";
-        OkHttpClient okHttpClient = new OkHttpClient();
+        uploadFile(
+                file,
+                "https://" + network.getNetworkName() + ".api.epirus.io/metadata",
+                HttpClientProvider.getClient());
+    }
+
+    @VisibleForTesting
+    public static void uploadFile(File file, String uploadURL, OkHttpClient okHttpClient)
+            throws IOException {
         RequestBody requestBody =
                 new MultipartBody.Builder()
                         .setType(MultipartBody.FORM)
@@ -172,6 +181,6 @@ public class ProjectUtils {
                         .build();
         Request request = new Request.Builder().url(uploadURL).post(requestBody).build();
         Call call = okHttpClient.newCall(request);
-        call.execute();
+        call.execute().close();
     }
 }
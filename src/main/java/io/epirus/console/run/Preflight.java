@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.run;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the independent checks before a deployment concurrently, so that the pre-flight takes as
+ * long as its slowest check rather than the sum of them, all within a global deadline. Records how
+ * long each check took.
+ */
+class Preflight implements AutoCloseable {
+    private final long start = System.nanoTime();
+    private final long deadline;
+    private final ExecutorService executor;
+    private final List<Timing> timings = Collections.synchronizedList(new ArrayList<>());
+    private final List<Future<?>> checks = new ArrayList<>();
+
+    Preflight(final long timeout, final TimeUnit unit) {
+        this.deadline = start + unit.toNanos(timeout);
+        final AtomicInteger threads = new AtomicInteger();
+        this.executor =
+                Executors.newCachedThreadPool(
+                        runnable -> {
+                            final Thread thread =
+                                    new Thread(
+                                            runnable,
+                                            "epirus-preflight-" + threads.getAndIncrement());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+    }
+
+    /** Starts a check in the background. */
+    <T> Future<T> submit(final String name, final Callable<T> check) {
+        final Future<T> future = executor.submit(() -> time(name, check));
+        checks.add(future);
+        return future;
+    }
+
+    /**
+     * Runs a step that depends on earlier checks and waits for it, within the same global deadline
+     * and recording its timing alongside the checks.
+     *
+     * @throws TimeoutException if the deadline passed, the step and all checks are cancelled then
+     */
+    <T> T run(final String name, final Callable<T> step) throws Exception {
+        return await(submit(name, step));
+    }
+
+    private <T> T time(final String name, final Callable<T> step) throws Exception {
+        final long stepStart = System.nanoTime();
+        try {
+            return step.call();
+        } finally {
+            timings.add(new Timing(name, stepStart - start, System.nanoTime() - stepStart));
+        }
+    }
+
+    /**
+     * Waits for a check until the global deadline.
+     *
+     * @throws TimeoutException if the deadline passed, all checks are cancelled then
+     */
+    <T> T await(final Future<T> check) throws Exception {
+        try {
+            return check.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            checks.forEach(future -> future.cancel(true));
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    List<Timing> getTimings() {
+        synchronized (timings) {
+            return new ArrayList<>(timings);
+        }
+    }
+
+    String formatTimings() {
+        final StringBuilder report = new StringBuilder("Pre-flight timings:");
+        for (Timing timing : getTimings()) {
+            report.append(
+                    String.format(
+                            "%n  %-20s started at %6d ms, took %6d ms",
+                            timing.getName(), timing.getStartMillis(), timing.getDurationMillis()));
+        }
+        report.append(
+                String.format(
+                        "%n  %-20s %27d ms",
+                        "total", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        return report.toString();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    static class Timing {
+        private final String name;
+        private final long startNanos;
+        private final long durationNanos;
+
+        Timing(final String name, final long startNanos, final long durationNanos) {
+            this.name = name;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        long getStartMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(startNanos);
+        }
+
+        long getDurationMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        }
+    }
+}
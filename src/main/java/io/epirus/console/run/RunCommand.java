@@ -13,10 +13,17 @@
 package io.epirus.console.run;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigInteger;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import com.diogonunes.jcdp.color.api.Ansi;
 import com.google.common.annotations.VisibleForTesting;
@@ -24,11 +31,14 @@ import io.epirus.console.EpirusVersionProvider;
 import io.epirus.console.account.AccountService;
 import io.epirus.console.account.AccountUtils;
 import io.epirus.console.account.subcommands.LoginCommand;
+import io.epirus.console.gradle.GradleExecutionService;
 import io.epirus.console.project.utils.ProjectUtils;
+import io.epirus.console.utils.CliEnvironment;
 import io.epirus.console.wallet.Faucet;
 import io.epirus.console.wallet.subcommands.WalletFundCommand;
 import io.epirus.console.wrapper.CredentialsOptions;
 import io.epirus.web3j.Epirus;
+import org.gradle.tooling.GradleConnectionException;
 import picocli.CommandLine;
 
 import org.web3j.codegen.Console;
@@ -58,6 +68,8 @@ import static org.web3j.utils.Convert.Unit.ETHER;
         footerHeading = "%n",
         footer = "Epirus CLI is licensed under the Apache License 2.0")
 public class RunCommand implements Runnable {
+    private static final long PREFLIGHT_TIMEOUT_MINUTES = 10;
+
     private Path workingDirectory;
     private Network network;
     private AccountService accountService;
@@ -73,6 +85,11 @@ public class RunCommand implements Runnable {
             arity = "1")
     String deployNetwork;
 
+    @CommandLine.Option(
+            names = {"--timings"},
+            description = "Print how long each pre-flight check took.")
+    boolean timings;
+
     @VisibleForTesting
     public RunCommand(
             Network network,
@@ -93,13 +110,15 @@ public class RunCommand implements Runnable {
             AccountService accountService,
             Credentials credentials,
             Web3j web3j,
-            CredentialsOptions credentialsOptions) {
+            CredentialsOptions credentialsOptions,
+            boolean timings) {
         this.workingDirectory = Paths.get(System.getProperty("user.dir"));
         this.network = network;
         this.credentials = credentials;
         this.accountService = accountService;
         this.web3j = web3j;
         this.credentialsOptions = credentialsOptions;
+        this.timings = timings;
     }
 
     public RunCommand() {}
@@ -130,7 +149,8 @@ public class RunCommand implements Runnable {
                             new AccountService(),
                             credentials,
                             web3j,
-                            credentialsOptions)
+                            credentialsOptions,
+                            timings)
                     .deploy();
         } catch (Exception e) {
             printErrorAndExit(
@@ -163,14 +183,37 @@ public class RunCommand implements Runnable {
         coloredPrinter.println("Preparing to run your Web3App");
         System.out.print(System.lineSeparator());
         AccountUtils.accountInit(accountService);
-        if (accountService.checkIfAccountIsConfirmed(20)) {
-            printInformationPairWithStatus("Account status", 20, "ACTIVE ", Ansi.FColor.GREEN);
-            System.out.print(System.lineSeparator());
-        } else {
+        try (Preflight preflight = new Preflight(PREFLIGHT_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+            Future<Boolean> accountConfirmed =
+                    preflight.submit(
+                            "Account status", () -> accountService.checkIfAccountIsConfirmed(20));
+            Future<BigInteger> accountBalance =
+                    preflight.submit(
+                            "Wallet balance",
+                            () -> accountService.getAccountBalance(credentials, web3j));
+            Future<Boolean> gradleWarmUp =
+                    preflight.submit("Gradle warm up", () -> warmUpGradle(workingDirectory));
+
+            if (preflight.await(accountConfirmed)) {
+                printInformationPairWithStatus("Account status", 20, "ACTIVE ", Ansi.FColor.GREEN);
+                System.out.print(System.lineSeparator());
+            } else {
+                printErrorAndExit(
+                        "Please check your email and activate your account in order to take advantage our features. Once your account is activated you can re-run the command.");
+            }
+            BigInteger balance = preflight.await(accountBalance);
+            preflight.run("Wallet funding", () -> fundWallet(balance));
+            preflight.await(gradleWarmUp);
+
+            if (timings) {
+                System.out.println(preflight.formatTimings());
+            }
+        } catch (TimeoutException e) {
             printErrorAndExit(
-                    "Please check your email and activate your account in order to take advantage our features. Once your account is activated you can re-run the command.");
+                    String.format(
+                            "The checks before running your Web3App did not complete within %d minutes.",
+                            PREFLIGHT_TIMEOUT_MINUTES));
         }
-        fundWallet();
         // uploadSolidityMetadata(network, workingDirectory);
         System.out.print(System.lineSeparator());
         coloredPrinter.println("Running your Web3App");
@@ -178,8 +221,7 @@ public class RunCommand implements Runnable {
         runGradle(workingDirectory);
     }
 
-    private void fundWallet() {
-        BigInteger accountBalance = accountService.getAccountBalance(credentials, web3j);
+    private BigInteger fundWallet(BigInteger accountBalance) {
         printInformationPair(
                 "Wallet balance",
                 20,
@@ -199,6 +241,28 @@ public class RunCommand implements Runnable {
         } catch (Exception e) {
             printErrorAndExit("Could not fund wallet: " + e.getMessage());
         }
+        return accountBalance;
+    }
+
+    /**
+     * Compiles the project while the account checks run, which also starts the Gradle daemon used
+     * to run it. A failure is reported by the run itself.
+     */
+    private boolean warmUpGradle(Path runLocation) throws Exception {
+        File projectDir = new File(File.separator, runLocation.toString());
+        File buildDir = new File(projectDir, "build");
+        buildDir.mkdirs();
+        try (OutputStream log = new FileOutputStream(new File(buildDir, "epirus-warm-up.log"))) {
+            GradleExecutionService.getInstance()
+                    .newBuild(projectDir, "classes")
+                    .withArguments("-q")
+                    .withEnvironment(buildEnvironment())
+                    .withOutput(log, log)
+                    .run();
+            return true;
+        } catch (GradleConnectionException e) {
+            return false;
+        }
     }
 
     private void waitForBalanceUpdate(String txHash) {
@@ -210,91 +274,65 @@ public class RunCommand implements Runnable {
         try {
             System.out.printf("Waiting for transaction %s to be mined...\n", txHash);
 
-            BigInteger accountBalance =
-                    accountService.pollForAccountBalance(credentials, network, web3j, 5);
-
+            BigInteger accountBalance = accountService.waitForFunding(credentials, web3j, txHash);
+            printInformationPair(
+                    "Wallet balance",
+                    20,
+                    Convert.fromWei(String.valueOf(accountBalance), ETHER) + " ETH",
+                    Ansi.FColor.GREEN);
         } catch (Exception e) {
             printErrorAndExit(e.getMessage());
         }
     }
 
     private void runGradle(Path runLocation) throws Exception {
-        if (System.getProperty("os.name").toLowerCase().contains("windows")) {
-            executeProcess(
-                    new File(File.separator, runLocation.toString()),
-                    new String[] {"cmd.exe", "/c", "./gradlew.bat run", "-q"});
-        } else {
-            executeProcess(
-                    new File(File.separator, runLocation.toString()),
-                    new String[] {"bash", "-c", "./gradlew run -q"});
-        }
-        Console.exitSuccess();
-    }
-
-    private void executeProcess(File workingDir, String[] command) throws Exception {
-        ProcessBuilder processBuilder = new ProcessBuilder(command);
-        processBuilder.environment().put("DEPLOY_NETWORK", network.getNetworkName());
-        setEnvironment(processBuilder);
-
-        int exitCode =
-                processBuilder
-                        .directory(workingDir)
-                        .redirectErrorStream(true)
-                        .redirectOutput(ProcessBuilder.Redirect.INHERIT)
-                        .start()
-                        .waitFor();
-        if (exitCode != 0) {
+        try {
+            GradleExecutionService.getInstance()
+                    .newBuild(new File(File.separator, runLocation.toString()), "run")
+                    .withArguments("-q")
+                    .withEnvironment(buildEnvironment())
+                    .withOutput(System.out, System.out)
+                    .run();
+        } catch (GradleConnectionException e) {
             printErrorAndExit("Could not build project.");
-        } else {
-            printInformationPair(
-                    "Wallet address",
-                    20,
-                    String.format(
-                            "https://%s.epirus.io/accounts/%s",
-                            network.getNetworkName(), credentials.getAddress()),
-                    Ansi.FColor.BLUE);
         }
+        printInformationPair(
+                "Wallet address",
+                20,
+                String.format(
+                        "https://%s.epirus.io/accounts/%s",
+                        network.getNetworkName(), credentials.getAddress()),
+                Ansi.FColor.BLUE);
+        Console.exitSuccess();
     }
 
-    private void setEnvironment(final ProcessBuilder processBuilder) {
+    private Map<String, String> buildEnvironment() {
+        final Map<String, String> environment = new HashMap<>(CliEnvironment.get());
+        environment.put("DEPLOY_NETWORK", network.getNetworkName());
         if (credentialsOptions.getWalletPath() != null) {
-            processBuilder
-                    .environment()
-                    .putIfAbsent(
-                            WEB3J_VAR_PREFIX + "WALLET_PATH",
-                            credentialsOptions.getWalletPath().toString());
+            environment.putIfAbsent(
+                    WEB3J_VAR_PREFIX + "WALLET_PATH",
+                    credentialsOptions.getWalletPath().toString());
             if (credentialsOptions.getWalletPassword() != null) {
-                processBuilder
-                        .environment()
-                        .putIfAbsent(
-                                WEB3J_VAR_PREFIX + "WALLET_PASSWORD",
-                                credentialsOptions.getWalletPassword());
+                environment.putIfAbsent(
+                        WEB3J_VAR_PREFIX + "WALLET_PASSWORD",
+                        credentialsOptions.getWalletPassword());
             }
         } else if (!credentialsOptions.getRawKey().isEmpty()) {
-            processBuilder
-                    .environment()
-                    .putIfAbsent(WEB3J_VAR_PREFIX + "PRIVATE_KEY", credentialsOptions.getRawKey());
+            environment.putIfAbsent(
+                    WEB3J_VAR_PREFIX + "PRIVATE_KEY", credentialsOptions.getRawKey());
         } else if (!credentialsOptions.getJson().isEmpty()) {
-            processBuilder
-                    .environment()
-                    .putIfAbsent(WEB3J_VAR_PREFIX + "WALLET_JSON", credentialsOptions.getJson());
+            environment.putIfAbsent(WEB3J_VAR_PREFIX + "WALLET_JSON", credentialsOptions.getJson());
         } else {
-            processBuilder
-                    .environment()
-                    .putIfAbsent(WEB3J_VAR_PREFIX + "WALLET_PATH", config.getDefaultWalletPath());
+            environment.putIfAbsent(
+                    WEB3J_VAR_PREFIX + "WALLET_PATH", config.getDefaultWalletPath());
             if (!config.getDefaultWalletPassword().isEmpty()) {
-                processBuilder
-                        .environment()
-                        .putIfAbsent(
-                                WEB3J_VAR_PREFIX + "WALLET_PASSWORD",
-                                config.getDefaultWalletPassword());
+                environment.putIfAbsent(
+                        WEB3J_VAR_PREFIX + "WALLET_PASSWORD", config.getDefaultWalletPassword());
             }
         }
-        processBuilder
-                .environment()
-                .putIfAbsent(WEB3J_VAR_PREFIX + "NETWORK", network.getNetworkName());
-        processBuilder
-                .environment()
-                .putIfAbsent(WEB3J_OPENAPI_VAR_PREFIX + "PORT", Integer.toString(9090));
+        environment.putIfAbsent(WEB3J_VAR_PREFIX + "NETWORK", network.getNetworkName());
+        environment.putIfAbsent(WEB3J_OPENAPI_VAR_PREFIX + "PORT", Integer.toString(9090));
+        return environment;
     }
 }
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import io.epirus.console.project.ProjectManifest;
+
+/**
+ * Keeps, in the build directory of the audited project, the findings of every contract with a hash
+ * of its content and of the rules it was audited with, so that auditing it again only analyses the
+ * contracts that changed since. Workers look up and record findings concurrently.
+ *
+ * <p>The cache file holds one JSON line per contract. Only the hash and the position of each line
+ * are kept in memory: cached findings are read back from the file when they are reused, and new
+ * ones are appended to a pending file until the cache is saved, so that auditing a large corpus
+ * does not hold all of its findings.
+ */
+public class AuditCache {
+    public static final String FILE_NAME = ".epirus-audit.json";
+
+    private static final String[] PROJECT_FILES = {
+        "build.gradle", "build.gradle.kts", "settings.gradle", "settings.gradle.kts", "pom.xml"
+    };
+
+    private static final Gson GSON = new Gson();
+
+    private final String rules;
+    private final Map<String, Location> files;
+    private Path cacheFile;
+    private Path pendingFile;
+    private volatile boolean modified;
+
+    private AuditCache(
+            final String rules, final Path cacheFile, final Map<String, Location> files) {
+        this.rules = rules;
+        this.cacheFile = cacheFile;
+        this.files = files;
+    }
+
+    /** The first line of the cache file. */
+    private static class Header {
+        private final String rules;
+
+        Header(final String rules) {
+            this.rules = rules;
+        }
+    }
+
+    /** Every other line, one per contract. */
+    private static class Entry {
+        private final String file;
+        private final String hash;
+        private final List<Finding> findings;
+
+        Entry(final String file, final String hash, final List<Finding> findings) {
+            this.file = file;
+            this.hash = hash;
+            this.findings = findings;
+        }
+    }
+
+    /** The part of a line needed to index the file, its findings are skipped when parsing. */
+    private static class Key {
+        private String file;
+        private String hash;
+    }
+
+    /** Where the line of a contract is, in the cache file or in the pending file. */
+    private static class Location {
+        private final String hash;
+        private final boolean pending;
+        private final long offset;
+        private final int length;
+
+        Location(final String hash, final boolean pending, final long offset, final int length) {
+            this.hash = hash;
+            this.pending = pending;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private static class Finding {
+        private final int line;
+        private final int column;
+        private final int severity;
+        private final String rule;
+        private final String pattern;
+        private final String name;
+
+        Finding(final AuditFinding finding) {
+            this.line = finding.getLine();
+            this.column = finding.getColumn();
+            this.severity = finding.getSeverity();
+            this.rule = finding.getRuleId();
+            this.pattern = finding.getPatternId();
+            this.name = finding.getRuleName();
+        }
+
+        AuditFinding toFinding(final Path file) {
+            return new AuditFinding(file, line, column, severity, rule, pattern, name);
+        }
+    }
+
+    /**
+     * The cache of the project the source belongs to: in the build directory of the closest
+     * enclosing Gradle or Maven project, or else in a build directory next to the source.
+     */
+    public static Path location(final Path source) {
+        final Path absolute = source.toAbsolutePath().normalize();
+        final Path start = Files.isDirectory(absolute) ? absolute : absolute.getParent();
+        for (Path folder = start; folder != null; folder = folder.getParent()) {
+            for (String projectFile : PROJECT_FILES) {
+                if (Files.isRegularFile(folder.resolve(projectFile))) {
+                    return folder.resolve("build").resolve(FILE_NAME);
+                }
+            }
+        }
+        return start.resolve("build").resolve(FILE_NAME);
+    }
+
+    /**
+     * The cache in the file, or an empty one if there is none, it cannot be read or it was written
+     * for other rules.
+     */
+    public static AuditCache load(final Path cacheFile, final String rules) {
+        final Path absolute = cacheFile.toAbsolutePath();
+        final Map<String, Location> files = new ConcurrentHashMap<>();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(absolute))) {
+            final ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long offset = readLine(in, line);
+            final Header header = GSON.fromJson(line.toString("UTF-8"), Header.class);
+            if (header != null && rules.equals(header.rules)) {
+                long length;
+                while ((length = readLine(in, line)) > 0) {
+                    final Key key = GSON.fromJson(line.toString("UTF-8"), Key.class);
+                    if (key == null || key.file == null || key.hash == null) {
+                        throw new JsonParseException("Invalid audit cache entry");
+                    }
+                    files.put(key.file, new Location(key.hash, false, offset, (int) length));
+                    offset += length;
+                }
+                return new AuditCache(rules, absolute, files);
+            }
+        } catch (IOException | JsonParseException e) {
+            // audit everything again
+        }
+        final AuditCache cache = new AuditCache(rules, absolute, new ConcurrentHashMap<>());
+        cache.modified = true;
+        return cache;
+    }
+
+    /** Hashes the content of a contract. */
+    public static String hash(final Path file) throws IOException {
+        return new ProjectManifest.Inputs().addContent(file).hash();
+    }
+
+    /** The findings of the contract if it was audited with the same content, or else null. */
+    public List<AuditFinding> findings(final Path file, final String hash) throws IOException {
+        final Location location = files.get(key(file));
+        if (location == null || !location.hash.equals(hash)) {
+            return null;
+        }
+        final Entry entry =
+                GSON.fromJson(
+                        new String(read(location), StandardCharsets.UTF_8).trim(), Entry.class);
+        final List<AuditFinding> findings = new ArrayList<>(entry.findings.size());
+        for (Finding finding : entry.findings) {
+            findings.add(finding.toFinding(file));
+        }
+        return findings;
+    }
+
+    public void put(final Path file, final String hash, final List<AuditFinding> findings)
+            throws IOException {
+        final List<Finding> entries = new ArrayList<>(findings.size());
+        for (AuditFinding finding : findings) {
+            entries.add(new Finding(finding));
+        }
+        final String key = key(file);
+        final byte[] line =
+                (GSON.toJson(new Entry(key, hash, entries)) + "\n")
+                        .getBytes(StandardCharsets.UTF_8);
+        synchronized (this) {
+            if (pendingFile == null) {
+                final Path folder = cacheFile.getParent();
+                Files.createDirectories(folder);
+                pendingFile = Files.createTempFile(folder, "audit", ".pending");
+                pendingFile.toFile().deleteOnExit();
+            }
+            final long offset = Files.size(pendingFile);
+            Files.write(pendingFile, line, StandardOpenOption.APPEND);
+            files.put(key, new Location(hash, true, offset, line.length));
+        }
+        modified = true;
+    }
+
+    /** Forgets the contracts that no longer exist. */
+    public void removeMissingFiles() {
+        if (files.keySet().removeIf(file -> !Files.exists(Paths.get(file)))) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Writes the cache, unless nothing changed so that a run without changes touches no file. The
+     * lines of the contracts are copied from the previous cache file and from the pending file.
+     */
+    public synchronized void save(final Path cacheFile) throws IOException {
+        if (!modified) {
+            return;
+        }
+        final Path folder = cacheFile.toAbsolutePath().getParent();
+        Files.createDirectories(folder);
+        final Path temp = Files.createTempFile(folder, "audit", ".tmp");
+        final Map<String, Location> saved = new TreeMap<>();
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            final byte[] header =
+                    (GSON.toJson(new Header(rules)) + "\n").getBytes(StandardCharsets.UTF_8);
+            out.write(header);
+            long offset = header.length;
+            for (Map.Entry<String, Location> entry : new TreeMap<>(files).entrySet()) {
+                final byte[] line = read(entry.getValue());
+                out.write(line);
+                saved.put(
+                        entry.getKey(),
+                        new Location(entry.getValue().hash, false, offset, line.length));
+                offset += line.length;
+            }
+        }
+        Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+        if (pendingFile != null) {
+            Files.deleteIfExists(pendingFile);
+            pendingFile = null;
+        }
+        // the cache now reads from the saved file only
+        this.cacheFile = cacheFile.toAbsolutePath();
+        files.clear();
+        files.putAll(saved);
+        modified = false;
+    }
+
+    private byte[] read(final Location location) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(location.length);
+        try (FileChannel channel =
+                FileChannel.open(location.pending ? pendingFile : cacheFile)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, location.offset + buffer.position()) < 0) {
+                    throw new IOException("Truncated audit cache " + cacheFile);
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    /** Reads the next line into the buffer and returns its length in bytes, newline included. */
+    private static long readLine(final InputStream in, final ByteArrayOutputStream line)
+            throws IOException {
+        line.reset();
+        long length = 0;
+        int b;
+        while ((b = in.read()) >= 0) {
+            length++;
+            if (b == '\n') {
+                break;
+            }
+            line.write(b);
+        }
+        return length;
+    }
+
+    private static String key(final Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * Audits contracts from a build server, the daemon or any other host: it never exits the JVM, and
+ * reports its findings as they are found before returning a summary with the exit code the audit
+ * command ends with. The findings can be narrowed down by severity and rule, and the audit stopped
+ * after a number of findings or at the first one that fails it.
+ */
+public class AuditEngine {
+
+    private final Callable<? extends FileAuditor> auditors;
+
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private Path cacheFile;
+    private int minSeverity = 1;
+    private int failSeverity = AuditRunner.DEFAULT_FAIL_SEVERITY;
+    private Set<String> includedRules = Collections.emptySet();
+    private Set<String> excludedRules = Collections.emptySet();
+    private long maxFindings;
+    private boolean failFast;
+
+    /** An engine auditing Solidity and Vyper contracts with the SmartCheck rules. */
+    public AuditEngine() {
+        this(SmartCheckAuditor::new);
+    }
+
+    public AuditEngine(final Callable<? extends FileAuditor> auditors) {
+        this.auditors = auditors;
+    }
+
+    public AuditEngine withWorkers(final int workers) {
+        this.workers = workers;
+        return this;
+    }
+
+    /**
+     * Reuses the findings of the contracts that did not change since they were audited with the
+     * cache file, see {@link AuditCache#location(Path)}. No cache is used by default.
+     */
+    public AuditEngine withCache(final Path cacheFile) {
+        this.cacheFile = cacheFile;
+        return this;
+    }
+
+    /** Ignores the findings below the given severity. */
+    public AuditEngine withMinSeverity(final int minSeverity) {
+        this.minSeverity = minSeverity;
+        return this;
+    }
+
+    /** Fails the audit on findings of the given severity or above. */
+    public AuditEngine withFailSeverity(final int failSeverity) {
+        this.failSeverity = failSeverity;
+        return this;
+    }
+
+    /**
+     * Only keeps the findings of the given rules, given by rule id such as {@code
+     * SOLIDITY_TX_ORIGIN} or by rule and pattern id such as {@code SOLIDITY_TX_ORIGIN_12e802}. All
+     * rules are kept if none are given.
+     */
+    public AuditEngine withIncludedRules(final Collection<String> rules) {
+        this.includedRules = new HashSet<>(rules);
+        return this;
+    }
+
+    /** Ignores the findings of the given rules, given as for {@link #withIncludedRules}. */
+    public AuditEngine withExcludedRules(final Collection<String> rules) {
+        this.excludedRules = new HashSet<>(rules);
+        return this;
+    }
+
+    /** Stops the audit once the given number of findings were reported, 0 for no limit. */
+    public AuditEngine withMaxFindings(final long maxFindings) {
+        this.maxFindings = maxFindings;
+        return this;
+    }
+
+    /** Stops the audit at the first finding at or above the fail severity. */
+    public AuditEngine withFailFast(final boolean failFast) {
+        this.failFast = failFast;
+        return this;
+    }
+
+    /** Audits the contracts of the source, handing the findings of each file to the reporter. */
+    public AuditRunner.Result audit(final Path source, final AuditReporter reporter)
+            throws Exception {
+        return new AuditRunner(workers, auditors)
+                .withFilter(this::accepts)
+                .withFailSeverity(failSeverity)
+                .withMaxFindings(maxFindings)
+                .withFailFast(failFast)
+                .run(source, cacheFile, reporter);
+    }
+
+    /**
+     * Audits the contracts of the source, handing every finding to the consumer in file order. The
+     * files that could not be audited are in the result.
+     */
+    public AuditRunner.Result audit(final Path source, final Consumer<AuditFinding> findings)
+            throws Exception {
+        return audit(
+                source,
+                new AuditReporter() {
+                    @Override
+                    public void report(final Path file, final List<AuditFinding> found) {
+                        found.forEach(findings);
+                    }
+
+                    @Override
+                    public void failed(final Path file, final Exception failure) {}
+                });
+    }
+
+    boolean accepts(final AuditFinding finding) {
+        if (finding.getSeverity() < minSeverity) {
+            return false;
+        }
+        final String pattern = finding.getRuleId() + "_" + finding.getPatternId();
+        if (excludedRules.contains(finding.getRuleId()) || excludedRules.contains(pattern)) {
+            return false;
+        }
+        return includedRules.isEmpty()
+                || includedRules.contains(finding.getRuleId())
+                || includedRules.contains(pattern);
+    }
+}
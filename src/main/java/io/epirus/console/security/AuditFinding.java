@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Objects;
+
+/** A rule pattern matched at a position of an audited contract. */
+public class AuditFinding implements Comparable<AuditFinding> {
+
+    private static final Comparator<AuditFinding> ORDER =
+            Comparator.comparing((AuditFinding finding) -> finding.file.toString())
+                    .thenComparingInt(finding -> finding.line)
+                    .thenComparingInt(finding -> finding.column)
+                    .thenComparing(finding -> finding.ruleId)
+                    .thenComparing(finding -> finding.patternId);
+
+    private final Path file;
+    private final int line;
+    private final int column;
+    private final int severity;
+    private final String ruleId;
+    private final String patternId;
+    private final String ruleName;
+
+    public AuditFinding(
+            final Path file,
+            final int line,
+            final int column,
+            final int severity,
+            final String ruleId,
+            final String patternId,
+            final String ruleName) {
+        this.file = file;
+        this.line = line;
+        this.column = column;
+        this.severity = severity;
+        this.ruleId = ruleId;
+        this.patternId = patternId;
+        this.ruleName = ruleName;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public int getSeverity() {
+        return severity;
+    }
+
+    public String getRuleId() {
+        return ruleId;
+    }
+
+    public String getPatternId() {
+        return patternId;
+    }
+
+    public String getRuleName() {
+        return ruleName;
+    }
+
+    /** Orders the findings by file, position and rule, whatever order they were found in. */
+    @Override
+    public int compareTo(final AuditFinding other) {
+        return ORDER.compare(this, other);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final AuditFinding that = (AuditFinding) o;
+        return line == that.line
+                && column == that.column
+                && severity == that.severity
+                && file.equals(that.file)
+                && ruleId.equals(that.ruleId)
+                && patternId.equals(that.patternId)
+                && ruleName.equals(that.ruleName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(file, line, column, severity, ruleId, patternId, ruleName);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s %d:%d severity:%d %s_%s", file, line, column, severity, ruleId, patternId);
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+/** The formats an audit can be reported in. */
+public enum AuditFormat {
+    TEXT,
+    JSONL,
+    SARIF;
+
+    @Override
+    public String toString() {
+        return name().toLowerCase();
+    }
+
+    public AuditReporter reporter(final PrintStream out, final PrintStream err) throws IOException {
+        switch (this) {
+            case JSONL:
+                return new JsonLinesAuditReporter(out);
+            case SARIF:
+                return new SarifAuditReporter(out);
+            default:
+                return new TextAuditReporter(out, err);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes the findings of an audit as they are produced. The runner reports every file once, in file
+ * order and from one thread at a time, so a reporter only needs to hold what it writes at the end.
+ */
+public interface AuditReporter {
+
+    default void start() throws IOException {}
+
+    /** Reports the sorted findings of a file, which may be none. */
+    void report(Path file, List<AuditFinding> findings) throws IOException;
+
+    /** Reports a file that could not be audited. */
+    void failed(Path file, Exception failure) throws IOException;
+
+    /** Completes the report once every file was reported. */
+    default void finish(AuditRunner.Result result) throws IOException {}
+}
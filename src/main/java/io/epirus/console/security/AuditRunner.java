@@ -0,0 +1,467 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Audits the contracts of a file or folder with a bounded number of workers. Each worker creates
+ * its own {@link FileAuditor}, closed when the worker is done, and takes the next file to audit
+ * until none are left, so a slow contract never holds up the others. The findings of each file are
+ * sorted and reported in file order as soon as the files before it are, so the report is the same
+ * whatever the number of workers, and workers never get more than a few files ahead of the report.
+ */
+public class AuditRunner {
+
+    /** The files each worker may audit ahead of the first file not reported yet. */
+    static final int FILES_AHEAD_PER_WORKER = 8;
+
+    /** Findings of this severity or above fail the audit unless told otherwise. */
+    public static final int DEFAULT_FAIL_SEVERITY = 2;
+
+    private final int workers;
+    private final Callable<? extends FileAuditor> auditors;
+
+    private Predicate<AuditFinding> filter = finding -> true;
+    private int failSeverity = DEFAULT_FAIL_SEVERITY;
+    private long maxFindings = Long.MAX_VALUE;
+    private boolean failFast;
+
+    public AuditRunner(final int workers, final Callable<? extends FileAuditor> auditors) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one audit worker is required");
+        }
+        this.workers = workers;
+        this.auditors = auditors;
+    }
+
+    /** Only reports and counts the findings accepted by the filter. */
+    public AuditRunner withFilter(final Predicate<AuditFinding> filter) {
+        this.filter = filter;
+        return this;
+    }
+
+    /** Fails the audit on findings of the given severity or above. */
+    public AuditRunner withFailSeverity(final int failSeverity) {
+        this.failSeverity = failSeverity;
+        return this;
+    }
+
+    /** Stops the audit once the given number of findings were reported. */
+    public AuditRunner withMaxFindings(final long maxFindings) {
+        this.maxFindings = maxFindings > 0 ? maxFindings : Long.MAX_VALUE;
+        return this;
+    }
+
+    /** Stops the audit at the first finding that fails it. */
+    public AuditRunner withFailFast(final boolean failFast) {
+        this.failFast = failFast;
+        return this;
+    }
+
+    public Result run(final Path source) throws Exception {
+        return run(source, null);
+    }
+
+    /**
+     * Audits the contracts of the source, keeping all their findings in the result and reusing the
+     * findings the cache file holds for those that did not change, unless the cache file is null.
+     */
+    public Result run(final Path source, final Path cacheFile) throws Exception {
+        final Map<Path, List<AuditFinding>> findings = new LinkedHashMap<>();
+        return run(
+                source,
+                cacheFile,
+                new AuditReporter() {
+                    @Override
+                    public void report(final Path file, final List<AuditFinding> found) {
+                        findings.put(file, found);
+                    }
+
+                    @Override
+                    public void failed(final Path file, final Exception failure) {}
+                },
+                findings);
+    }
+
+    /**
+     * Audits the contracts of the source, handing their findings to the reporter instead of keeping
+     * them in the result.
+     */
+    public Result run(final Path source, final Path cacheFile, final AuditReporter reporter)
+            throws Exception {
+        return run(source, cacheFile, reporter, Collections.emptyMap());
+    }
+
+    private Result run(
+            final Path source,
+            final Path cacheFile,
+            final AuditReporter reporter,
+            final Map<Path, List<AuditFinding>> findings)
+            throws Exception {
+        final long start = System.nanoTime();
+        final FileAuditor first = auditors.call();
+        final List<Path> files;
+        final AuditCache cache;
+        try {
+            files = files(source, first);
+            cache = cacheFile == null ? null : AuditCache.load(cacheFile, first.rulesVersion());
+            reporter.start();
+        } catch (Exception e) {
+            first.close();
+            throw e;
+        }
+        final AtomicInteger cached = new AtomicInteger();
+
+        final int threadCount = Math.min(workers, Math.max(1, files.size()));
+        final OrderedReport report =
+                new OrderedReport(files, reporter, threadCount * FILES_AHEAD_PER_WORKER);
+        final List<Thread> threads = new ArrayList<>(threadCount);
+        final Throwable[] workerFailure = new Throwable[1];
+        for (int i = 0; i < threadCount; i++) {
+            final boolean reuseFirst = i == 0;
+            final Thread thread =
+                    new Thread(
+                            () -> {
+                                try (FileAuditor auditor = reuseFirst ? first : auditors.call()) {
+                                    int index;
+                                    while ((index = report.next()) >= 0) {
+                                        try {
+                                            report.audited(
+                                                    index,
+                                                    audit(
+                                                            auditor,
+                                                            files.get(index),
+                                                            cache,
+                                                            cached));
+                                        } catch (Exception e) {
+                                            report.failed(index, e);
+                                        }
+                                    }
+                                } catch (Throwable e) {
+                                    synchronized (workerFailure) {
+                                        workerFailure[0] = e;
+                                    }
+                                    report.abort();
+                                }
+                            },
+                            "epirus-audit-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (workerFailure[0] instanceof Error) {
+            throw (Error) workerFailure[0];
+        }
+        if (workerFailure[0] != null) {
+            throw (Exception) workerFailure[0];
+        }
+        if (report.reportFailure != null) {
+            throw report.reportFailure;
+        }
+        if (cache != null) {
+            cache.removeMissingFiles();
+            cache.save(cacheFile);
+        }
+
+        final Result result =
+                new Result(
+                        findings,
+                        report.failures,
+                        report.reportedFiles,
+                        files.size() - report.reportedFiles,
+                        report.findingCount,
+                        report.failingFindingCount,
+                        cached.get(),
+                        System.nanoTime() - start,
+                        threadCount);
+        reporter.finish(result);
+        return result;
+    }
+
+    /** The sorted findings of the file, from the cache if it did not change since. */
+    private static List<AuditFinding> audit(
+            final FileAuditor auditor,
+            final Path file,
+            final AuditCache cache,
+            final AtomicInteger cached)
+            throws Exception {
+        final String hash = cache == null ? null : AuditCache.hash(file);
+        if (cache != null) {
+            final List<AuditFinding> findings = cache.findings(file, hash);
+            if (findings != null) {
+                cached.incrementAndGet();
+                return findings;
+            }
+        }
+        final List<AuditFinding> findings = new ArrayList<>(auditor.audit(file));
+        Collections.sort(findings);
+        if (cache != null) {
+            cache.put(file, hash, findings);
+        }
+        return findings;
+    }
+
+    /** The contracts of the source that the auditors know the language of, in a stable order. */
+    private static List<Path> files(final Path source, final FileAuditor auditor)
+            throws IOException {
+        if (!Files.isDirectory(source)) {
+            return Collections.singletonList(source);
+        }
+        try (Stream<Path> paths = Files.walk(source)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(auditor::accepts)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Hands the audited files to the reporter in file order, holding back the files audited ahead
+     * of the first one not audited yet, and stops handing out files once too many are held back.
+     * The audit stops in file order too, so the files it reports do not depend on the workers.
+     */
+    private class OrderedReport {
+        private final List<Path> files;
+        private final AuditReporter reporter;
+        private final int maxAhead;
+        private final Object[] audited;
+        private final Map<Path, Exception> failures = new LinkedHashMap<>();
+        private int taken;
+        private int reported;
+        private int reportedFiles;
+        private int findingCount;
+        private int failingFindingCount;
+        private IOException reportFailure;
+        private boolean aborted;
+        private boolean stopped;
+
+        OrderedReport(final List<Path> files, final AuditReporter reporter, final int maxAhead) {
+            this.files = files;
+            this.reporter = reporter;
+            this.maxAhead = maxAhead;
+            this.audited = new Object[files.size()];
+        }
+
+        /** The index of the next file to audit, or -1 once there are none left. */
+        synchronized int next() throws InterruptedException {
+            while (!aborted && !stopped && taken < files.size() && taken >= reported + maxAhead) {
+                wait();
+            }
+            return !aborted && !stopped && taken < files.size() ? taken++ : -1;
+        }
+
+        /** Stops handing out files after a worker died, as the files it took are never done. */
+        synchronized void abort() {
+            aborted = true;
+            notifyAll();
+        }
+
+        synchronized void audited(final int index, final List<AuditFinding> findings) {
+            complete(index, findings);
+        }
+
+        synchronized void failed(final int index, final Exception failure) {
+            complete(index, failure);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void complete(final int index, final Object outcome) {
+            audited[index] = outcome;
+            while (reported < files.size() && audited[reported] != null) {
+                final Path file = files.get(reported);
+                final Object result = audited[reported];
+                audited[reported++] = null;
+                if (stopped) {
+                    // audited before the audit stopped, but after the file it stopped at
+                    continue;
+                }
+                reportedFiles++;
+                try {
+                    if (result instanceof Exception) {
+                        failures.put(file, (Exception) result);
+                        if (reportFailure == null) {
+                            reporter.failed(file, (Exception) result);
+                        }
+                    } else {
+                        final List<AuditFinding> findings = count((List<AuditFinding>) result);
+                        if (reportFailure == null) {
+                            reporter.report(file, findings);
+                        }
+                    }
+                } catch (IOException e) {
+                    reportFailure = e;
+                }
+            }
+            notifyAll();
+        }
+
+        /** Counts the findings the filter accepts, up to the one the audit stops at. */
+        private List<AuditFinding> count(final List<AuditFinding> findings) {
+            final List<AuditFinding> counted = new ArrayList<>(findings.size());
+            for (AuditFinding finding : findings) {
+                if (!filter.test(finding)) {
+                    continue;
+                }
+                counted.add(finding);
+                findingCount++;
+                if (finding.getSeverity() >= failSeverity) {
+                    failingFindingCount++;
+                    stopped |= failFast;
+                }
+                stopped |= findingCount >= maxFindings;
+                if (stopped) {
+                    break;
+                }
+            }
+            return counted;
+        }
+    }
+
+    public static class Result {
+        /** The audit found nothing that fails it and audited every file. */
+        public static final int PASSED = 0;
+        /** The audit found findings at or above the fail severity. */
+        public static final int FAILED = 1;
+        /**
+         * Some files could not be audited, but none of the others failed the audit. Distinct from
+         * picocli's invalid input code 2, so that CI can tell it apart from a mistyped option.
+         */
+        public static final int INCOMPLETE = 3;
+
+        private final Map<Path, List<AuditFinding>> findings;
+        private final Map<Path, Exception> failures;
+        private final int fileCount;
+        private final int skippedFileCount;
+        private final int findingCount;
+        private final int failingFindingCount;
+        private final int cached;
+        private final long durationNanos;
+        private final int workers;
+
+        Result(
+                final Map<Path, List<AuditFinding>> findings,
+                final Map<Path, Exception> failures,
+                final int fileCount,
+                final int skippedFileCount,
+                final int findingCount,
+                final int failingFindingCount,
+                final int cached,
+                final long durationNanos,
+                final int workers) {
+            this.findings = findings;
+            this.failures = failures;
+            this.fileCount = fileCount;
+            this.skippedFileCount = skippedFileCount;
+            this.findingCount = findingCount;
+            this.failingFindingCount = failingFindingCount;
+            this.cached = cached;
+            this.durationNanos = durationNanos;
+            this.workers = workers;
+        }
+
+        /**
+         * The sorted findings of each audited file, in file order, unless they were handed to a
+         * reporter instead.
+         */
+        public Map<Path, List<AuditFinding>> getFindings() {
+            return findings;
+        }
+
+        public List<AuditFinding> getAllFindings() {
+            return findings.values().stream().flatMap(List::stream).collect(Collectors.toList());
+        }
+
+        /** The files that could not be audited. */
+        public Map<Path, Exception> getFailures() {
+            return failures;
+        }
+
+        /** The files that were reported, whether they could be audited or not. */
+        public int getFileCount() {
+            return fileCount;
+        }
+
+        /** The files that were not reported because the audit stopped early. */
+        public int getSkippedFileCount() {
+            return skippedFileCount;
+        }
+
+        public boolean isStoppedEarly() {
+            return skippedFileCount > 0;
+        }
+
+        public int getFindingCount() {
+            return findingCount;
+        }
+
+        /** The findings at or above the fail severity. */
+        public int getFailingFindingCount() {
+            return failingFindingCount;
+        }
+
+        /**
+         * {@link #FAILED} if any finding fails the audit, else {@link #INCOMPLETE} if any file
+         * could not be audited, else {@link #PASSED}.
+         */
+        public int getExitCode() {
+            if (failingFindingCount > 0) {
+                return FAILED;
+            }
+            return failures.isEmpty() ? PASSED : INCOMPLETE;
+        }
+
+        /** The files whose findings were taken from the cache instead of being audited. */
+        public int getCachedFileCount() {
+            return cached;
+        }
+
+        public long getDurationMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        }
+
+        public double getFilesPerSecond() {
+            return durationNanos == 0 ? 0 : fileCount * 1e9 / durationNanos;
+        }
+
+        public String summary() {
+            return String.format(
+                    "Audited %d files%s in %d ms with %d workers (%.1f files/s), %d findings%s",
+                    fileCount,
+                    cached > 0 ? String.format(" (%d cached)", cached) : "",
+                    getDurationMillis(),
+                    workers,
+                    getFilesPerSecond(),
+                    findingCount,
+                    isStoppedEarly()
+                            ? String.format(", stopped before %d files", skippedFileCount)
+                            : "");
+        }
+    }
+}
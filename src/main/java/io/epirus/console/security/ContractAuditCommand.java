@@ -12,37 +12,17 @@
  */
 package io.epirus.console.security;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.nio.file.FileSystemAlreadyExistsException;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.function.Function;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.xpath.XPathFactory;
+import java.util.concurrent.Callable;
 
 import io.epirus.console.EpirusVersionProvider;
 import picocli.CommandLine;
-import ru.smartdec.smartcheck.RulesCached;
-import ru.smartdec.smartcheck.RulesXml;
-import ru.smartdec.smartcheck.app.DirectoryAnalysis;
-import ru.smartdec.smartcheck.app.DirectoryAnalysisCombined;
-import ru.smartdec.smartcheck.app.DirectoryAnalysisDefault;
-import ru.smartdec.smartcheck.app.Media;
-import ru.smartdec.smartcheck.app.ReportDefault;
-import ru.smartdec.smartcheck.app.SourceLanguage;
-import ru.smartdec.smartcheck.app.SourceLanguages;
-import ru.smartdec.smartcheck.app.TreeFactoryDefault;
-import ru.smartdec.smartcheck.app.cli.Tool;
+
+import static picocli.CommandLine.Help.Visibility.ALWAYS;
+import static picocli.CommandLine.Help.Visibility.NEVER;
 
 @CommandLine.Command(
         name = "audit",
@@ -54,9 +34,16 @@ import ru.smartdec.smartcheck.app.cli.Tool;
         synopsisHeading = "%n",
         descriptionHeading = "%nDescription:%n%n",
         optionListHeading = "%nOptions:%n",
+        exitCodeListHeading = "%nExit codes:%n",
+        exitCodeList = {
+            "0:No finding fails the audit.",
+            "1:Some findings are at or above the fail severity.",
+            "2:Invalid input.",
+            "3:Some contracts could not be audited."
+        },
         footerHeading = "%n",
         footer = "Epirus CLI is licensed under the Apache License 2.0")
-public class ContractAuditCommand implements Runnable {
+public class ContractAuditCommand implements Callable<Integer> {
 
     @CommandLine.Parameters(
             index = "0",
@@ -64,164 +51,83 @@ public class ContractAuditCommand implements Runnable {
             description = "A file containing solidity code")
     String filePath;
 
+    @CommandLine.Option(
+            names = {"--workers"},
+            description = "Number of contracts audited concurrently.",
+            showDefaultValue = ALWAYS)
+    int workers = Runtime.getRuntime().availableProcessors();
+
+    @CommandLine.Option(
+            names = {"--no-cache"},
+            description = "Audit every contract again instead of reusing unchanged findings.")
+    boolean noCache;
+
+    @CommandLine.Option(
+            names = {"--format"},
+            description = "Format of the report: ${COMPLETION-CANDIDATES}.",
+            showDefaultValue = ALWAYS)
+    AuditFormat format = AuditFormat.TEXT;
+
+    @CommandLine.Option(
+            names = {"--min-severity"},
+            description = "Ignore findings below this severity, from 1 to 3.",
+            showDefaultValue = ALWAYS)
+    int minSeverity = 1;
+
+    @CommandLine.Option(
+            names = {"--fail-severity"},
+            description = "Fail the audit on findings of this severity or above.",
+            showDefaultValue = ALWAYS)
+    int failSeverity = AuditRunner.DEFAULT_FAIL_SEVERITY;
+
+    @CommandLine.Option(
+            names = {"--include-rules"},
+            description = "Only report these rule or rule_pattern ids, separated by commas.",
+            split = ",",
+            showDefaultValue = NEVER)
+    List<String> includedRules = new ArrayList<>();
+
+    @CommandLine.Option(
+            names = {"--exclude-rules"},
+            description = "Ignore these rule or rule_pattern ids, separated by commas.",
+            split = ",",
+            showDefaultValue = NEVER)
+    List<String> excludedRules = new ArrayList<>();
+
+    @CommandLine.Option(
+            names = {"--max-findings"},
+            description = "Stop the audit after this many findings, 0 for no limit.",
+            showDefaultValue = ALWAYS)
+    long maxFindings;
+
+    @CommandLine.Option(
+            names = {"--fail-fast"},
+            description = "Stop the audit at the first finding that fails it.")
+    boolean failFast;
+
     @Override
-    public void run() {
+    public Integer call() {
         try {
-            Path source = Paths.get(filePath);
-            Function<SourceLanguage, RulesXml.Source> defaultRules =
-                    sourceLanguage ->
-                            () -> {
-                                String rulesFileName = sourceLanguage.rulesFileName();
-                                URI uri = RulesXml.class.getResource(rulesFileName).toURI();
-                                try {
-                                    HashMap<String, String> env = new HashMap<>();
-                                    env.put("create", "true");
-                                    FileSystems.newFileSystem(uri, env);
-                                } catch (FileSystemAlreadyExistsException ignored) {
-                                }
-                                return Paths.get(uri);
-                            };
-
-            final Integer[] totals = {0, 0};
-            DefaultMedia media = new DefaultMedia(totals);
-            new ReportDefault(
-                            new DirectoryAnalysisCombined(
-                                    makeDirectoryAnalysis(
-                                            new SourceLanguages.Solidity(), source, defaultRules),
-                                    makeDirectoryAnalysis(
-                                            new SourceLanguages.Vyper(), source, defaultRules)),
-                            media)
-                    .print();
-
-            if (media.getTotals()[1] > 0) {
-                System.exit(-1);
+            final Path source = Paths.get(filePath);
+            final AuditRunner.Result result =
+                    new AuditEngine()
+                            .withWorkers(workers)
+                            .withCache(noCache ? null : AuditCache.location(source))
+                            .withMinSeverity(minSeverity)
+                            .withFailSeverity(failSeverity)
+                            .withIncludedRules(includedRules)
+                            .withExcludedRules(excludedRules)
+                            .withMaxFindings(maxFindings)
+                            .withFailFast(failFast)
+                            .audit(source, format.reporter(System.out, System.err));
+            if (format != AuditFormat.TEXT) {
+                System.err.println(result.summary());
             }
+            return result.getExitCode();
         } catch (Exception e) {
             System.err.println("The audit operation failed with the following exception:");
             e.printStackTrace();
+            return AuditRunner.Result.INCOMPLETE;
         }
     }
-
-    private static DirectoryAnalysis makeDirectoryAnalysis(
-            final SourceLanguage sourceLanguage,
-            final Path source,
-            final Function<SourceLanguage, RulesXml.Source> rules)
-            throws Exception {
-        return new DirectoryAnalysisDefault(
-                source,
-                p -> p.toString().endsWith(sourceLanguage.fileExtension()),
-                new TreeFactoryDefault(
-                        DocumentBuilderFactory.newInstance().newDocumentBuilder(), sourceLanguage),
-                new RulesCached(
-                        new RulesXml(
-                                rules.apply(sourceLanguage),
-                                XPathFactory.newInstance().newXPath(),
-                                Throwable::printStackTrace)));
-    }
-}
-
-class DefaultMedia implements Media {
-
-    Integer[] getTotals() {
-        return totals;
-    }
-
-    private final Integer[] totals;
-
-    DefaultMedia(final Integer[] totals) {
-        this.totals = totals;
-    }
-
-    @Override
-    public void accept(final DirectoryAnalysis.Info info) {
-        LinkedList<List<String>> report_fields = new LinkedList<>();
-        Map<String, Integer> result = new HashMap<>();
-        info.treeReport()
-                .streamUnchecked()
-                .forEach(
-                        tree ->
-                                tree.contexts()
-                                        .forEach(
-                                                context -> {
-                                                    LinkedList<String> fields = new LinkedList<>();
-                                                    String rule_name;
-                                                    try {
-                                                        URL rule_name_resource =
-                                                                Tool.class
-                                                                        .getClassLoader()
-                                                                        .getResource(
-                                                                                String.format(
-                                                                                        "rule_descriptions/%s/name_en.txt",
-                                                                                        tree.rule()
-                                                                                                .id()));
-                                                        if (rule_name_resource != null) {
-                                                            rule_name =
-                                                                    new String(
-                                                                            Files.readAllBytes(
-                                                                                    Paths.get(
-                                                                                            rule_name_resource
-                                                                                                    .toURI())));
-                                                        } else {
-                                                            rule_name = "";
-                                                        }
-                                                    } catch (IOException | URISyntaxException e) {
-                                                        rule_name = "";
-                                                    }
-                                                    fields.addLast("");
-                                                    fields.addLast(
-                                                            String.format(
-                                                                    "%d:%d",
-                                                                    context.getStart().getLine(),
-                                                                    context.getStart()
-                                                                            .getCharPositionInLine()));
-                                                    fields.addLast(
-                                                            String.format(
-                                                                    "severity:%d",
-                                                                    tree.pattern().severity()));
-                                                    if (tree.pattern().severity() > 1) {
-                                                        totals[1]++;
-                                                    }
-                                                    fields.addLast(rule_name);
-                                                    fields.addLast(
-                                                            String.format(
-                                                                    "%s_%s",
-                                                                    tree.rule().id(),
-                                                                    tree.pattern().id()));
-                                                    result.compute(
-                                                            tree.rule().id(),
-                                                            (k, v) ->
-                                                                    Optional.ofNullable(v)
-                                                                            .map(i -> i + 1)
-                                                                            .orElse(1));
-                                                    report_fields.addLast(fields);
-                                                }));
-        if (!report_fields.isEmpty()) {
-            System.out.println(info.file());
-            System.out.print(formatAsTable(report_fields));
-            totals[0] += report_fields.size();
-        }
-    }
-
-    private static String formatAsTable(List<List<String>> rows) {
-        if (rows.isEmpty()) return "";
-        int[] maxLengths = new int[rows.get(0).size()];
-        for (List<String> row : rows) {
-            for (int i = 0; i < row.size(); i++) {
-                maxLengths[i] = Math.max(maxLengths[i], row.get(i).length());
-            }
-        }
-
-        StringBuilder formatBuilder = new StringBuilder();
-        for (int maxLength : maxLengths) {
-            formatBuilder.append("%-").append(maxLength + 3).append("s");
-        }
-        String format = formatBuilder.toString();
-
-        StringBuilder result = new StringBuilder();
-        for (List<String> row : rows) {
-            String[] res = row.toArray(new String[0]);
-            result.append(String.format(format, (Object[]) res)).append("\n");
-        }
-        return result.toString();
-    }
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Audits one contract file at a time. An auditor is only ever used by one thread, so it can keep
+ * parsers and other state that is not thread-safe, and is closed once its thread is done with it.
+ */
+public interface FileAuditor extends AutoCloseable {
+
+    /** Whether the auditor knows the language of the file. */
+    boolean accepts(Path file);
+
+    List<AuditFinding> audit(Path file) throws Exception;
+
+    /** Identifies the rules the auditor applies, so that findings of other rules are not reused. */
+    String rulesVersion() throws Exception;
+
+    @Override
+    default void close() throws Exception {}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes one JSON object per line for every finding, and one with an {@code error} for every file
+ * that could not be audited, flushing them file by file.
+ */
+public class JsonLinesAuditReporter implements AuditReporter {
+
+    private final JsonGenerator generator;
+
+    public JsonLinesAuditReporter(final OutputStream out) throws IOException {
+        this.generator =
+                new JsonFactory()
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .createGenerator(out, JsonEncoding.UTF8);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void report(final Path file, final List<AuditFinding> findings) throws IOException {
+        for (AuditFinding finding : findings) {
+            generator.writeStartObject();
+            generator.writeStringField("file", file.toString());
+            generator.writeNumberField("line", finding.getLine());
+            generator.writeNumberField("column", finding.getColumn());
+            generator.writeNumberField("severity", finding.getSeverity());
+            generator.writeStringField("ruleId", finding.getRuleId());
+            generator.writeStringField("patternId", finding.getPatternId());
+            generator.writeStringField("ruleName", finding.getRuleName());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    @Override
+    public void failed(final Path file, final Exception failure) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("file", file.toString());
+        generator.writeStringField("error", String.valueOf(failure));
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+
+    @Override
+    public void finish(final AuditRunner.Result result) throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opens the jar file system the audit rules are read from once for all the auditors using it, and
+ * closes it when the last of them releases it. A jar file system opened by someone else is used but
+ * left open, and rules that are not in a jar need no file system at all.
+ */
+final class RulesFileSystem {
+
+    private static final Map<String, RulesFileSystem> OPEN = new HashMap<>();
+
+    private final FileSystem fileSystem;
+    private final boolean owned;
+    private int users;
+
+    private RulesFileSystem(final FileSystem fileSystem, final boolean owned) {
+        this.fileSystem = fileSystem;
+        this.owned = owned;
+    }
+
+    /** The path of a rules resource, opening the file system of its jar if it is the first user. */
+    static synchronized Path acquire(final URI resource) throws IOException {
+        final String jar = jar(resource);
+        if (jar == null) {
+            return Paths.get(resource);
+        }
+        RulesFileSystem rules = OPEN.get(jar);
+        if (rules == null) {
+            try {
+                rules =
+                        new RulesFileSystem(
+                                FileSystems.newFileSystem(
+                                        URI.create(jar), Collections.<String, Object>emptyMap()),
+                                true);
+            } catch (FileSystemAlreadyExistsException e) {
+                rules = new RulesFileSystem(FileSystems.getFileSystem(URI.create(jar)), false);
+            }
+            OPEN.put(jar, rules);
+        }
+        rules.users++;
+        return Paths.get(resource);
+    }
+
+    /**
+     * Releases a resource acquired before, closing the file system of its jar if it was the last.
+     */
+    static synchronized void release(final URI resource) throws IOException {
+        final String jar = jar(resource);
+        final RulesFileSystem rules = jar == null ? null : OPEN.get(jar);
+        if (rules == null || --rules.users > 0) {
+            return;
+        }
+        OPEN.remove(jar);
+        if (rules.owned) {
+            rules.fileSystem.close();
+        }
+    }
+
+    /** Whether the file system of the jar of the resource is open. */
+    static synchronized boolean isOpen(final URI resource) {
+        final String jar = jar(resource);
+        return jar != null && OPEN.containsKey(jar);
+    }
+
+    private static String jar(final URI resource) {
+        if (!"jar".equals(resource.getScheme())) {
+            return null;
+        }
+        final String uri = resource.toString();
+        final int separator = uri.indexOf("!/");
+        return separator < 0 ? null : uri.substring(0, separator);
+    }
+}
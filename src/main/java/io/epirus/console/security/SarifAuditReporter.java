@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.epirus.console.utils.CliVersion;
+
+/**
+ * Writes the audit as a SARIF 2.1.0 log with a single run. The results are written as the files are
+ * reported, and only the rules they matched and the files that could not be audited are kept until
+ * the tool and invocation are written at the end of the run.
+ */
+public class SarifAuditReporter implements AuditReporter {
+
+    static final String SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+
+    private final JsonGenerator generator;
+    private final Map<String, String> rules = new TreeMap<>();
+    private final Map<Path, Exception> failures = new LinkedHashMap<>();
+
+    public SarifAuditReporter(final OutputStream out) throws IOException {
+        this.generator =
+                new JsonFactory()
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .createGenerator(out, JsonEncoding.UTF8);
+    }
+
+    @Override
+    public void start() throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("$schema", SCHEMA);
+        generator.writeStringField("version", "2.1.0");
+        generator.writeArrayFieldStart("runs");
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("results");
+    }
+
+    @Override
+    public void report(final Path file, final List<AuditFinding> findings) throws IOException {
+        for (AuditFinding finding : findings) {
+            rules.put(finding.getRuleId(), finding.getRuleName());
+            generator.writeStartObject();
+            generator.writeStringField("ruleId", finding.getRuleId());
+            generator.writeStringField("level", level(finding.getSeverity()));
+            writeMessage(
+                    finding.getRuleName().isEmpty() ? finding.getRuleId() : finding.getRuleName());
+            writeLocation(file, finding.getLine(), finding.getColumn());
+            generator.writeObjectFieldStart("properties");
+            generator.writeNumberField("severity", finding.getSeverity());
+            generator.writeStringField("patternId", finding.getPatternId());
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        generator.flush();
+    }
+
+    @Override
+    public void failed(final Path file, final Exception failure) {
+        failures.put(file, failure);
+    }
+
+    @Override
+    public void finish(final AuditRunner.Result result) throws IOException {
+        generator.writeEndArray();
+
+        generator.writeObjectFieldStart("tool");
+        generator.writeObjectFieldStart("driver");
+        generator.writeStringField("name", "epirus audit");
+        generator.writeStringField("version", CliVersion.getVersion());
+        generator.writeArrayFieldStart("rules");
+        for (Map.Entry<String, String> rule : rules.entrySet()) {
+            generator.writeStartObject();
+            generator.writeStringField("id", rule.getKey());
+            if (!rule.getValue().isEmpty()) {
+                generator.writeObjectFieldStart("shortDescription");
+                generator.writeStringField("text", rule.getValue());
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndObject();
+
+        generator.writeArrayFieldStart("invocations");
+        generator.writeStartObject();
+        generator.writeBooleanField("executionSuccessful", failures.isEmpty());
+        generator.writeArrayFieldStart("toolExecutionNotifications");
+        for (Map.Entry<Path, Exception> failure : failures.entrySet()) {
+            generator.writeStartObject();
+            generator.writeStringField("level", "error");
+            writeMessage(String.valueOf(failure.getValue()));
+            generator.writeArrayFieldStart("locations");
+            generator.writeStartObject();
+            writePhysicalLocation(failure.getKey());
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        generator.close();
+    }
+
+    /** SmartCheck severities go from 1, informational, to 3, critical. */
+    static String level(final int severity) {
+        if (severity > 2) {
+            return "error";
+        }
+        return severity > 1 ? "warning" : "note";
+    }
+
+    private void writeMessage(final String text) throws IOException {
+        generator.writeObjectFieldStart("message");
+        generator.writeStringField("text", text);
+        generator.writeEndObject();
+    }
+
+    private void writeLocation(final Path file, final int line, final int column)
+            throws IOException {
+        generator.writeArrayFieldStart("locations");
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("physicalLocation");
+        writeArtifactLocation(file);
+        generator.writeObjectFieldStart("region");
+        generator.writeNumberField("startLine", line);
+        // SARIF columns start at 1, SmartCheck ones at 0
+        generator.writeNumberField("startColumn", column + 1);
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeEndArray();
+    }
+
+    private void writePhysicalLocation(final Path file) throws IOException {
+        generator.writeObjectFieldStart("physicalLocation");
+        writeArtifactLocation(file);
+        generator.writeEndObject();
+    }
+
+    private void writeArtifactLocation(final Path file) throws IOException {
+        generator.writeObjectFieldStart("artifactLocation");
+        generator.writeStringField("uri", file.toAbsolutePath().normalize().toUri().toString());
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathFactory;
+
+import io.epirus.console.project.ProjectManifest;
+import io.epirus.console.utils.CliVersion;
+import ru.smartdec.smartcheck.Rules;
+import ru.smartdec.smartcheck.RulesCached;
+import ru.smartdec.smartcheck.RulesXml;
+import ru.smartdec.smartcheck.app.DirectoryAnalysis;
+import ru.smartdec.smartcheck.app.DirectoryAnalysisDefault;
+import ru.smartdec.smartcheck.app.SourceLanguage;
+import ru.smartdec.smartcheck.app.SourceLanguages;
+import ru.smartdec.smartcheck.app.TreeFactory;
+import ru.smartdec.smartcheck.app.TreeFactoryDefault;
+import ru.smartdec.smartcheck.app.cli.Tool;
+
+/**
+ * Audits Solidity and Vyper files with the SmartCheck rules. Each auditor owns the {@code
+ * DocumentBuilder} its files are parsed into and the {@code XPath} its rules are compiled with,
+ * neither of which is thread-safe, so every audit worker needs its own auditor. The rules are
+ * loaded and compiled once per auditor and then evaluated against every file it audits, while the
+ * jar they are read from is opened once for all auditors.
+ */
+public class SmartCheckAuditor implements FileAuditor {
+
+    private static final Map<String, String> RULE_NAMES = new ConcurrentHashMap<>();
+
+    private static volatile String rulesVersion;
+
+    private final List<Language> languages = new ArrayList<>();
+
+    public SmartCheckAuditor() throws Exception {
+        try {
+            languages.add(new Language(new SourceLanguages.Solidity()));
+            languages.add(new Language(new SourceLanguages.Vyper()));
+        } catch (Exception e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean accepts(final Path file) {
+        return language(file) != null;
+    }
+
+    @Override
+    public List<AuditFinding> audit(final Path file) throws Exception {
+        final Language language = language(file);
+        final List<AuditFinding> findings = new ArrayList<>();
+        if (language == null) {
+            return findings;
+        }
+        try (Stream<DirectoryAnalysis.Info> analysis =
+                new DirectoryAnalysisDefault(
+                                file, path -> true, language.treeFactory, language.rules)
+                        .analysis()) {
+            analysis.forEach(
+                    info ->
+                            info.treeReport()
+                                    .streamUnchecked()
+                                    .forEach(
+                                            tree -> {
+                                                final String ruleId = tree.rule().id();
+                                                final String patternId = tree.pattern().id();
+                                                final int severity = tree.pattern().severity();
+                                                final String ruleName = ruleName(ruleId);
+                                                tree.contexts()
+                                                        .forEach(
+                                                                context ->
+                                                                        findings.add(
+                                                                                new AuditFinding(
+                                                                                        info.file(),
+                                                                                        context.getStart()
+                                                                                                .getLine(),
+                                                                                        context.getStart()
+                                                                                                .getCharPositionInLine(),
+                                                                                        severity,
+                                                                                        ruleId,
+                                                                                        patternId,
+                                                                                        ruleName)));
+                                            }));
+        }
+        return findings;
+    }
+
+    /**
+     * Hashes the rule files of every language, which only change with the SmartCheck version, so
+     * they are hashed once.
+     */
+    @Override
+    public String rulesVersion() throws Exception {
+        if (rulesVersion == null) {
+            final ProjectManifest.Inputs inputs =
+                    new ProjectManifest.Inputs().add(CliVersion.getVersion());
+            for (Language language : languages) {
+                inputs.addContent(language.rulesFile);
+            }
+            rulesVersion = inputs.hash();
+        }
+        return rulesVersion;
+    }
+
+    /** Releases the rules, closing their jar once no other auditor uses it. */
+    @Override
+    public void close() throws IOException {
+        for (Language language : languages) {
+            RulesFileSystem.release(language.rulesUri);
+        }
+        languages.clear();
+    }
+
+    private Language language(final Path file) {
+        final String name = file.toString();
+        for (Language language : languages) {
+            if (name.endsWith(language.sourceLanguage.fileExtension())) {
+                return language;
+            }
+        }
+        return null;
+    }
+
+    /** The English name of a rule, read once from the SmartCheck descriptions. */
+    static String ruleName(final String ruleId) {
+        return RULE_NAMES.computeIfAbsent(
+                ruleId,
+                id -> {
+                    final URL resource =
+                            Tool.class
+                                    .getClassLoader()
+                                    .getResource(
+                                            String.format("rule_descriptions/%s/name_en.txt", id));
+                    if (resource == null) {
+                        return "";
+                    }
+                    try (InputStream in = resource.openStream()) {
+                        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        final byte[] buffer = new byte[1024];
+                        int read;
+                        while ((read = in.read(buffer)) != -1) {
+                            out.write(buffer, 0, read);
+                        }
+                        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+                    } catch (IOException e) {
+                        return "";
+                    }
+                });
+    }
+
+    private static class Language {
+        private final SourceLanguage sourceLanguage;
+        private final URI rulesUri;
+        private final Path rulesFile;
+        private final TreeFactory treeFactory;
+        private final Rules rules;
+
+        Language(final SourceLanguage sourceLanguage) throws Exception {
+            this.sourceLanguage = sourceLanguage;
+            final DocumentBuilder documentBuilder =
+                    DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            final XPath xpath = XPathFactory.newInstance().newXPath();
+            this.rulesUri = RulesXml.class.getResource(sourceLanguage.rulesFileName()).toURI();
+            this.rulesFile = RulesFileSystem.acquire(rulesUri);
+            this.treeFactory = new TreeFactoryDefault(documentBuilder, sourceLanguage);
+            this.rules =
+                    new RulesCached(
+                            new RulesXml(() -> rulesFile, xpath, Throwable::printStackTrace));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** Prints a table of the findings of each file, its failures and a summary of the audit. */
+public class TextAuditReporter implements AuditReporter {
+
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public TextAuditReporter(final PrintStream out, final PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    @Override
+    public void report(final Path file, final List<AuditFinding> findings) {
+        if (findings.isEmpty()) {
+            return;
+        }
+        final List<List<String>> rows = new ArrayList<>(findings.size());
+        for (AuditFinding finding : findings) {
+            rows.add(
+                    Arrays.asList(
+                            "",
+                            String.format("%d:%d", finding.getLine(), finding.getColumn()),
+                            String.format("severity:%d", finding.getSeverity()),
+                            finding.getRuleName(),
+                            String.format("%s_%s", finding.getRuleId(), finding.getPatternId())));
+        }
+        out.println(file);
+        out.print(formatAsTable(rows));
+    }
+
+    @Override
+    public void failed(final Path file, final Exception failure) {
+        err.println("Could not audit " + file + ": " + failure);
+    }
+
+    @Override
+    public void finish(final AuditRunner.Result result) {
+        out.println(result.summary());
+    }
+
+    private static String formatAsTable(List<List<String>> rows) {
+        if (rows.isEmpty()) return "";
+        int[] maxLengths = new int[rows.get(0).size()];
+        for (List<String> row : rows) {
+            for (int i = 0; i < row.size(); i++) {
+                maxLengths[i] = Math.max(maxLengths[i], row.get(i).length());
+            }
+        }
+
+        StringBuilder formatBuilder = new StringBuilder();
+        for (int maxLength : maxLengths) {
+            formatBuilder.append("%-").append(maxLength + 3).append("s");
+        }
+        String format = formatBuilder.toString();
+
+        StringBuilder result = new StringBuilder();
+        for (List<String> row : rows) {
+            String[] res = row.toArray(new String[0]);
+            result.append(String.format(format, (Object[]) res)).append("\n");
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.utils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Exponentially growing, jittered delays between retries, optionally bounded by a deadline. */
+public class Backoff {
+    private static final double JITTER = 0.2;
+
+    private final long maxDelayMillis;
+    private final long deadline;
+    private final Random random = new Random();
+    private long delayMillis;
+
+    public Backoff(final long initialDelayMillis, final long maxDelayMillis) {
+        this(initialDelayMillis, maxDelayMillis, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /** A timeout of 0 waits without a deadline. */
+    public Backoff(
+            final long initialDelayMillis,
+            final long maxDelayMillis,
+            final long timeout,
+            final TimeUnit unit) {
+        this.delayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.deadline = timeout > 0 ? System.nanoTime() + unit.toNanos(timeout) : 0;
+    }
+
+    /**
+     * Sleeps for the next delay, doubling it for the following one.
+     *
+     * @return false without sleeping if the deadline has passed
+     */
+    public boolean await() throws InterruptedException {
+        long sleepMillis = (long) (delayMillis * (1 - JITTER + 2 * JITTER * random.nextDouble()));
+        if (deadline != 0) {
+            final long remainingMillis =
+                    TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                return false;
+            }
+            sleepMillis = Math.min(sleepMillis, remainingMillis);
+        }
+        Thread.sleep(sleepMillis);
+        delayMillis = Math.min(maxDelayMillis, delayMillis * 2);
+        return true;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.utils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The environment of the CLI invocation being run. It is the process environment, except for
+ * commands run by the daemon which see the environment of the client that forwarded them, so that
+ * readers of e.g. {@code EPIRUS_LOGIN_TOKEN} must go through here instead of {@link
+ * System#getenv()}.
+ */
+public class CliEnvironment {
+
+    private static volatile Map<String, String> environment = System.getenv();
+
+    /** The variables of the current invocation. */
+    public static Map<String, String> get() {
+        return environment;
+    }
+
+    /** The value of the variable in the current invocation, or null if it is not set. */
+    public static String get(final String name) {
+        return environment.get(name);
+    }
+
+    public static String getOrDefault(final String name, final String defaultValue) {
+        return environment.getOrDefault(name, defaultValue);
+    }
+
+    /** Whether the current invocation does not run with the process environment. */
+    public static boolean isForwarded() {
+        return environment != System.getenv();
+    }
+
+    /** Runs the following commands with the given environment, see {@link #reset()}. */
+    public static void set(final Map<String, String> environment) {
+        CliEnvironment.environment = Collections.unmodifiableMap(new HashMap<>(environment));
+    }
+
+    /** Runs the following commands with the process environment again. */
+    public static void reset() {
+        environment = System.getenv();
+    }
+
+    /** Replaces the environment a child process inherits with the current invocation's. */
+    public static void apply(final ProcessBuilder processBuilder) {
+        if (isForwarded()) {
+            processBuilder.environment().clear();
+            processBuilder.environment().putAll(environment);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.wallet;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Solves the faucet proof of work: finds a nonce such that the hex encoded SHA-256 digest of the
+ * nonce in decimal followed by the seed starts with {@code difficulty} zeros.
+ *
+ * <p>The nonce space is handed out in chunks to a fixed number of workers, each of which reuses its
+ * own digest and buffers, so that the search does not allocate per attempt. The search can be
+ * bounded by a time and attempt budget, cancelled from another thread, and resumed from the {@link
+ * Progress#getNextNonce() next nonce} of an earlier search with the same seed.
+ */
+public class ProofOfWork {
+    static final int CHUNK_SIZE = 1 << 14;
+    private static final int NOT_FOUND = -1;
+    private static final long IDLE = Long.MAX_VALUE;
+    private static final int SHA_256_LENGTH = 32;
+
+    public enum Status {
+        FOUND,
+        CANCELLED,
+        BUDGET_EXHAUSTED,
+        NOT_FOUND
+    }
+
+    /** Receives the search progress periodically and once more when the search stops. */
+    public interface ProgressListener {
+        void onProgress(Progress progress);
+    }
+
+    private final byte[] seed;
+    private final int difficulty;
+    private final int workers;
+
+    private long startNonce;
+    private long maxAttempts = Long.MAX_VALUE;
+    private long timeoutMillis = Long.MAX_VALUE;
+    private ProgressListener listener = progress -> {};
+    private long progressIntervalMillis = 1000;
+
+    private volatile boolean cancelled;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    public ProofOfWork(final String seed, final int difficulty) {
+        this(seed, difficulty, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ProofOfWork(final String seed, final int difficulty, final int workers) {
+        if (difficulty < 0 || difficulty > SHA_256_LENGTH * 2) {
+            throw new IllegalArgumentException("Invalid proof of work difficulty: " + difficulty);
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one proof of work worker is required");
+        }
+        this.seed = seed.getBytes(StandardCharsets.UTF_8);
+        this.difficulty = difficulty;
+        this.workers = workers;
+    }
+
+    /** Starts the search at the given nonce, e.g. the next nonce of an interrupted search. */
+    public ProofOfWork startingAt(final long nonce) {
+        this.startNonce = Math.max(0, Math.min(nonce, Integer.MAX_VALUE));
+        return this;
+    }
+
+    /** Stops the search after the given number of attempts. */
+    public ProofOfWork withMaxAttempts(final long maxAttempts) {
+        this.maxAttempts = maxAttempts > 0 ? maxAttempts : Long.MAX_VALUE;
+        return this;
+    }
+
+    /** Stops the search after the given time. */
+    public ProofOfWork withTimeout(final long timeout, final TimeUnit unit) {
+        this.timeoutMillis = timeout > 0 ? unit.toMillis(timeout) : Long.MAX_VALUE;
+        return this;
+    }
+
+    public ProofOfWork withProgressListener(
+            final ProgressListener listener, final long interval, final TimeUnit unit) {
+        this.listener = listener;
+        this.progressIntervalMillis = Math.max(1, unit.toMillis(interval));
+        return this;
+    }
+
+    /** Stops all workers after their current chunk; {@link #solve()} then returns cancelled. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /** Waits for a cancelled search to stop and report its final progress. */
+    public boolean awaitStopped(final long timeout, final TimeUnit unit)
+            throws InterruptedException {
+        return stopped.await(timeout, unit);
+    }
+
+    /** Searches the non-negative int nonces until one satisfies the difficulty. */
+    public Result solve() throws InterruptedException {
+        final long endNonce =
+                maxAttempts >= Integer.MAX_VALUE - startNonce
+                        ? Integer.MAX_VALUE
+                        : startNonce + maxAttempts;
+        final Search search = new Search(startNonce, endNonce);
+        final long start = System.nanoTime();
+        final long deadline =
+                timeoutMillis == Long.MAX_VALUE
+                        ? Long.MAX_VALUE
+                        : start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        final List<Thread> threads = new ArrayList<>(workers);
+        final CountDownLatch finished = new CountDownLatch(workers);
+        for (int i = 0; i < workers; i++) {
+            final int worker = i;
+            final Thread thread =
+                    new Thread(
+                            () -> {
+                                try {
+                                    search.run(worker);
+                                } finally {
+                                    finished.countDown();
+                                }
+                            },
+                            "epirus-pow-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        boolean timedOut = false;
+        try {
+            while (!finished.await(progressIntervalMillis, TimeUnit.MILLISECONDS)) {
+                if (System.nanoTime() - deadline >= 0) {
+                    timedOut = true;
+                    search.stop();
+                }
+                listener.onProgress(search.progress(start));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            final Status status;
+            if (search.nonce.get() >= 0) {
+                status = Status.FOUND;
+            } else if (cancelled) {
+                status = Status.CANCELLED;
+            } else if (timedOut || endNonce < Integer.MAX_VALUE) {
+                status = Status.BUDGET_EXHAUSTED;
+            } else {
+                status = Status.NOT_FOUND;
+            }
+            final Progress progress = search.progress(start);
+            listener.onProgress(progress);
+            return new Result(status, search.nonce.get(), progress);
+        } finally {
+            // stop the remaining workers if the caller was interrupted
+            search.stop();
+            stopped.countDown();
+        }
+    }
+
+    private class Search {
+        private final AtomicLong nextChunk;
+        private final long endNonce;
+        private final AtomicInteger nonce = new AtomicInteger(NOT_FOUND);
+        private final LongAdder attempts = new LongAdder();
+        // the chunk each worker is searching, to know below which nonce everything was searched
+        private final AtomicLongArray inFlight = new AtomicLongArray(workers);
+        private volatile boolean stopped;
+
+        Search(final long startNonce, final long endNonce) {
+            this.nextChunk = new AtomicLong(startNonce);
+            this.endNonce = endNonce;
+            for (int i = 0; i < workers; i++) {
+                inFlight.set(i, IDLE);
+            }
+        }
+
+        void stop() {
+            stopped = true;
+        }
+
+        private boolean isRunning() {
+            return !stopped && !cancelled && nonce.get() == NOT_FOUND;
+        }
+
+        void run(final int worker) {
+            final MessageDigest sha256 = newSha256();
+            final byte[] digits = new byte[10];
+            final byte[] digest = new byte[SHA_256_LENGTH];
+
+            while (isRunning()) {
+                // claim the chunk before taking it, so that it is never missed by progress()
+                inFlight.set(worker, nextChunk.get());
+                final long chunkStart = nextChunk.getAndAdd(CHUNK_SIZE);
+                inFlight.set(worker, chunkStart);
+                if (chunkStart >= endNonce) {
+                    break;
+                }
+                final int chunkEnd = (int) Math.min(chunkStart + CHUNK_SIZE, endNonce);
+                for (int candidate = (int) chunkStart; candidate < chunkEnd; candidate++) {
+                    final int offset = writeDigits(candidate, digits);
+                    sha256.update(digits, offset, digits.length - offset);
+                    sha256.update(seed);
+                    try {
+                        sha256.digest(digest, 0, SHA_256_LENGTH);
+                    } catch (DigestException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    if (hasLeadingZeroNibbles(digest, difficulty)) {
+                        attempts.add(candidate - chunkStart + 1);
+                        nonce.compareAndSet(NOT_FOUND, candidate);
+                        return;
+                    }
+                }
+                attempts.add(chunkEnd - chunkStart);
+                inFlight.set(worker, IDLE);
+            }
+        }
+
+        Progress progress(final long start) {
+            long nextNonce = Math.min(nextChunk.get(), endNonce);
+            for (int i = 0; i < workers; i++) {
+                nextNonce = Math.min(nextNonce, inFlight.get(i));
+            }
+            return new Progress(attempts.sum(), difficulty, nextNonce, System.nanoTime() - start);
+        }
+    }
+
+    /** Writes the decimal digits of a non-negative value right aligned, returning the offset. */
+    static int writeDigits(int value, final byte[] digits) {
+        int offset = digits.length;
+        do {
+            digits[--offset] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        return offset;
+    }
+
+    static boolean hasLeadingZeroNibbles(final byte[] digest, final int nibbles) {
+        final int fullBytes = nibbles / 2;
+        for (int i = 0; i < fullBytes; i++) {
+            if (digest[i] != 0) {
+                return false;
+            }
+        }
+        return nibbles % 2 == 0 || (digest[fullBytes] & 0xF0) == 0;
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class Progress {
+        private final long attempts;
+        private final int difficulty;
+        private final long nextNonce;
+        private final long elapsedNanos;
+
+        Progress(
+                final long attempts,
+                final int difficulty,
+                final long nextNonce,
+                final long elapsedNanos) {
+            this.attempts = attempts;
+            this.difficulty = difficulty;
+            this.nextNonce = nextNonce;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getAttempts() {
+            return attempts;
+        }
+
+        /** Every nonce below this one was searched, a new search can resume from here. */
+        public long getNextNonce() {
+            return nextNonce;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        public double getHashesPerSecond() {
+            return elapsedNanos == 0 ? 0 : attempts * 1e9 / elapsedNanos;
+        }
+
+        /** On average a solution takes 16 attempts per leading zero. */
+        public double getExpectedAttempts() {
+            return Math.pow(16, difficulty);
+        }
+
+        /**
+         * Estimated time until the expected number of attempts is reached, or -1 if the rate is not
+         * known yet or the search already took longer than expected.
+         */
+        public long getEstimatedRemainingMillis() {
+            final double rate = getHashesPerSecond();
+            final double remaining = getExpectedAttempts() - attempts;
+            return rate <= 0 || remaining <= 0 ? -1 : (long) (remaining / rate * 1000);
+        }
+    }
+
+    public static class Result {
+        private final Status status;
+        private final int nonce;
+        private final Progress progress;
+
+        Result(final Status status, final int nonce, final Progress progress) {
+            this.status = status;
+            this.nonce = nonce;
+            this.progress = progress;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public boolean isFound() {
+            return status == Status.FOUND;
+        }
+
+        public int getNonce() {
+            return nonce;
+        }
+
+        public long getAttempts() {
+            return progress.getAttempts();
+        }
+
+        /** The nonce to resume an unsuccessful search from. */
+        public long getNextNonce() {
+            return progress.getNextNonce();
+        }
+
+        public long getElapsedMillis() {
+            return progress.getElapsedMillis();
+        }
+
+        public double getHashesPerSecond() {
+            return progress.getHashesPerSecond();
+        }
+    }
+}
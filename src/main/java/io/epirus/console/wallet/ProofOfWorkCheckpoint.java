@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.wallet;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * Remembers how far the proof of work for a faucet seed got, so that a funding request that was
+ * interrupted or ran out of budget resumes the search instead of starting over.
+ */
+public class ProofOfWorkCheckpoint {
+    public static final Path DEFAULT_PATH =
+            Paths.get(System.getProperty("user.home"), ".epirus", "pow.checkpoint");
+
+    private static final Gson GSON = new Gson();
+
+    private final Path path;
+
+    public ProofOfWorkCheckpoint(final Path path) {
+        this.path = path;
+    }
+
+    /** The nonce to resume the search for the given seed from, or 0 without a checkpoint. */
+    public long resumeFrom(final String seed, final int difficulty) {
+        try {
+            final State state =
+                    GSON.fromJson(
+                            new String(Files.readAllBytes(path), StandardCharsets.UTF_8),
+                            State.class);
+            if (state != null && seed.equals(state.seed) && difficulty == state.difficulty) {
+                return state.nextNonce;
+            }
+        } catch (IOException | JsonParseException ignored) {
+            // no usable checkpoint, start over
+        }
+        return 0;
+    }
+
+    public void save(final String seed, final int difficulty, final long nextNonce) {
+        try {
+            Files.createDirectories(path.getParent());
+            final Path temp = Files.createTempFile(path.getParent(), "pow", ".tmp");
+            Files.write(
+                    temp,
+                    GSON.toJson(new State(seed, difficulty, nextNonce))
+                            .getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ignored) {
+            // the search just starts over next time
+        }
+    }
+
+    public void clear() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static class State {
+        private final String seed;
+        private final int difficulty;
+        private final long nextNonce;
+
+        State(final String seed, final int difficulty, final long nextNonce) {
+            this.seed = seed;
+            this.difficulty = difficulty;
+            this.nextNonce = nextNonce;
+        }
+    }
+}
@@ -12,17 +12,16 @@
  */
 package io.epirus.console.wallet.subcommands;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.IntStream;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
 import io.epirus.console.EpirusVersionProvider;
 import io.epirus.console.wallet.Faucet;
+import io.epirus.console.wallet.ProofOfWork;
+import io.epirus.console.wallet.ProofOfWorkCheckpoint;
 import io.epirus.console.wallet.WalletManager;
+import io.epirus.console.web.services.HttpClientProvider;
 import okhttp3.MultipartBody;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -30,11 +29,8 @@ import okhttp3.RequestBody;
 import okhttp3.Response;
 import picocli.CommandLine;
 
-import org.web3j.utils.Numeric;
-
 import static io.epirus.console.config.ConfigManager.config;
 import static org.web3j.codegen.Console.exitError;
-import static org.web3j.crypto.Hash.sha256;
 
 @CommandLine.Command(
         name = "fund",
@@ -67,6 +63,24 @@ public class WalletFundCommand extends WalletManager implements Runnable {
     @CommandLine.Option(names = {"-t", "--token"})
     String token;
 
+    @CommandLine.Option(
+            names = {"--pow-threads"},
+            description = "Number of threads used to solve the faucet proof of work.")
+    int powThreads = Runtime.getRuntime().availableProcessors();
+
+    @CommandLine.Option(
+            names = {"--pow-timeout"},
+            description =
+                    "Seconds after which the proof of work is stopped, 0 for no limit. "
+                            + "A stopped proof of work resumes when the command is run again.")
+    long powTimeout;
+
+    @CommandLine.Option(
+            names = {"--pow-max-attempts"},
+            description =
+                    "Number of attempts after which the proof of work is stopped, 0 for no limit.")
+    long powMaxAttempts;
+
     @Override
     public void run() {
 
@@ -84,7 +98,14 @@ public class WalletFundCommand extends WalletManager implements Runnable {
                 token = config.getLoginToken();
             }
 
-            String transactionHash = fundWallet(destinationAddress, selectedFaucet, token);
+            String transactionHash =
+                    fundWallet(
+                            destinationAddress,
+                            selectedFaucet,
+                            token,
+                            powThreads,
+                            powTimeout,
+                            powMaxAttempts);
             System.out.println(
                     String.format(
                             "Your wallet was successfully funded. You can view the associated transaction here, after it has been mined: https://%s.epirus.io/transactions/%s",
@@ -95,43 +116,108 @@ public class WalletFundCommand extends WalletManager implements Runnable {
         }
     }
 
-    private static boolean loading = true;
+    private static void printProgress(ProofOfWork.Progress progress) {
+        String anim = "|/―\\";
+        long eta = progress.getEstimatedRemainingMillis();
+        System.out.print(
+                String.format(
+                        "\r[ %s ] Performing proof of work to validate your request: %,d attempts, %,.0f hashes/s, ETA %s   ",
+                        anim.charAt((int) (progress.getElapsedMillis() / 500 % anim.length())),
+                        progress.getAttempts(),
+                        progress.getHashesPerSecond(),
+                        eta < 0 ? "unknown" : (eta / 1000 + 1) + "s"));
+    }
 
-    private static synchronized void loading() {
-        Thread th =
+    private static ProofOfWork.Result solveProofOfWork(
+            WalletFundConfig config, int workers, long timeoutSeconds, long maxAttempts)
+            throws InterruptedException {
+        ProofOfWorkCheckpoint checkpoint =
+                new ProofOfWorkCheckpoint(ProofOfWorkCheckpoint.DEFAULT_PATH);
+        long resumeFrom = checkpoint.resumeFrom(config.seed, config.difficulty);
+        if (resumeFrom > 0) {
+            System.out.println(
+                    String.format("Resuming the proof of work from nonce %,d", resumeFrom));
+        }
+
+        ProofOfWork proofOfWork =
+                new ProofOfWork(config.seed, config.difficulty, workers)
+                        .startingAt(resumeFrom)
+                        .withTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                        .withMaxAttempts(maxAttempts)
+                        .withProgressListener(
+                                progress -> {
+                                    printProgress(progress);
+                                    checkpoint.save(
+                                            config.seed,
+                                            config.difficulty,
+                                            progress.getNextNonce());
+                                },
+                                500,
+                                TimeUnit.MILLISECONDS);
+
+        // on Ctrl-C stop the workers and let the final checkpoint be written before exiting
+        Thread cancelOnExit =
                 new Thread(
                         () -> {
-                            String anim = "|/―\\";
+                            proofOfWork.cancel();
                             try {
-                                System.out.write("\r|".getBytes());
-                                int current = 0;
-                                while (loading) {
-                                    current++;
-                                    String data =
-                                            String.format(
-                                                    "\r[ %s ] %s",
-                                                    anim.charAt(current % anim.length()),
-                                                    "Performing proof of work to validate your request");
-                                    System.out.write(data.getBytes());
-                                    Thread.sleep(500);
-                                }
-                                System.out.write("\n".getBytes());
-                            } catch (IOException | InterruptedException e) {
-                                e.printStackTrace();
+                                proofOfWork.awaitStopped(2, TimeUnit.SECONDS);
+                            } catch (InterruptedException ignored) {
                             }
                         });
-        th.start();
+        Runtime.getRuntime().addShutdownHook(cancelOnExit);
+        ProofOfWork.Result result;
+        try {
+            result = proofOfWork.solve();
+        } finally {
+            try {
+                Runtime.getRuntime().removeShutdownHook(cancelOnExit);
+            } catch (IllegalStateException shuttingDown) {
+                // the hook is already running
+            }
+        }
+        System.out.println();
+
+        if (result.isFound()) {
+            checkpoint.clear();
+        }
+        return result;
     }
 
     public static String fundWallet(String walletAddress, Faucet faucet, String token)
             throws Exception {
-        OkHttpClient client =
-                new OkHttpClient.Builder()
-                        .connectTimeout(15, TimeUnit.SECONDS)
-                        .writeTimeout(10, TimeUnit.SECONDS)
-                        .readTimeout(30, TimeUnit.SECONDS)
-                        .build();
+        return fundWallet(
+                walletAddress, faucet, token, Runtime.getRuntime().availableProcessors(), 0, 0);
+    }
 
+    public static String fundWallet(
+            String walletAddress,
+            Faucet faucet,
+            String token,
+            int workers,
+            long timeoutSeconds,
+            long maxAttempts)
+            throws Exception {
+        return fundWallet(
+                walletAddress,
+                faucet.url,
+                token,
+                workers,
+                timeoutSeconds,
+                maxAttempts,
+                HttpClientProvider.getClient());
+    }
+
+    @VisibleForTesting
+    public static String fundWallet(
+            String walletAddress,
+            String faucetUrl,
+            String token,
+            int workers,
+            long timeoutSeconds,
+            long maxAttempts,
+            OkHttpClient client)
+            throws Exception {
         ObjectMapper mapper = new ObjectMapper();
         System.out.println("Sending funding request...");
         Request sendEtherRequest;
@@ -145,67 +231,64 @@ public class WalletFundCommand extends WalletManager implements Runnable {
 
             sendEtherRequest =
                     new okhttp3.Request.Builder()
-                            .url(String.format("%s/send/%s", faucet.url, token))
+                            .url(String.format("%s/send/%s", faucetUrl, token))
                             .post(fundingBody)
                             .build();
         } else {
             Request getSeedRequest =
                     new okhttp3.Request.Builder()
-                            .url(String.format("%s/seed/0.2", faucet.url))
+                            .url(String.format("%s/seed/0.2", faucetUrl))
                             .get()
                             .build();
-            Response configRawResponse = client.newCall(getSeedRequest).execute();
-
-            if (configRawResponse.code() != 200) {
-                exitError("An HTTP request failed with code: " + configRawResponse.code());
+            String configResponse;
+            try (Response configRawResponse = client.newCall(getSeedRequest).execute()) {
+                if (configRawResponse.code() != 200) {
+                    exitError("An HTTP request failed with code: " + configRawResponse.code());
+                }
+                configResponse = configRawResponse.body().string();
             }
 
-            String configResponse = configRawResponse.body().string();
-
             WalletFundConfig config = mapper.readValue(configResponse, WalletFundConfig.class);
 
-            AtomicBoolean found = new AtomicBoolean(false);
-            AtomicInteger intResult = new AtomicInteger(0);
-            loading();
-
-            IntStream.range(0, Integer.MAX_VALUE)
-                    .parallel()
-                    .forEach(
-                            i -> {
-                                if (found.get()) return;
-                                String potentialHash =
-                                        Numeric.toHexString(
-                                                        sha256(
-                                                                (i + config.seed)
-                                                                        .getBytes(
-                                                                                StandardCharsets
-                                                                                        .UTF_8)))
-                                                .substring(2);
-                                if (potentialHash.startsWith(
-                                        new String(new char[config.difficulty])
-                                                .replace("\0", "0"))) {
-                                    found.set(true);
-                                    intResult.set(i);
-                                }
-                            });
-
-            loading = false;
+            ProofOfWork.Result proofOfWork =
+                    solveProofOfWork(config, workers, timeoutSeconds, maxAttempts);
+            switch (proofOfWork.getStatus()) {
+                case FOUND:
+                    break;
+                case CANCELLED:
+                    exitError("Proof of work cancelled, run the command again to resume it.");
+                    break;
+                case BUDGET_EXHAUSTED:
+                    exitError(
+                            String.format(
+                                    "No proof of work found within %,d attempts, run the command again to resume it.",
+                                    proofOfWork.getAttempts()));
+                    break;
+                default:
+                    exitError("No proof of work was found for the faucet seed.");
+            }
+            System.out.println(
+                    String.format(
+                            "Proof of work found after %,d attempts in %d ms (%,.0f hashes/s)",
+                            proofOfWork.getAttempts(),
+                            proofOfWork.getElapsedMillis(),
+                            proofOfWork.getHashesPerSecond()));
+
             RequestBody fundingBody =
                     new MultipartBody.Builder()
                             .setType(MultipartBody.FORM)
                             .addFormDataPart("address", walletAddress)
                             .addFormDataPart("seed", config.seed)
-                            .addFormDataPart("nonce", String.valueOf(intResult.get()))
+                            .addFormDataPart("nonce", String.valueOf(proofOfWork.getNonce()))
                             .build();
 
             sendEtherRequest =
                     new okhttp3.Request.Builder()
-                            .url(String.format("%s/send", faucet.url))
+                            .url(String.format("%s/send", faucetUrl))
                             .post(fundingBody)
                             .build();
         }
-        try {
-            Response sendRawResponse = client.newCall(sendEtherRequest).execute();
+        try (Response sendRawResponse = client.newCall(sendEtherRequest).execute()) {
 
             if (sendRawResponse.code() != 200) {
                 exitError(
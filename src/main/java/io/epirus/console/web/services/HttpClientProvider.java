@@ -0,0 +1,184 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.web.services;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.epirus.console.utils.CliEnvironment;
+import okhttp3.ConnectionPool;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Provides the HTTP client shared by all the network services of the CLI, so that they reuse the
+ * same connection pool and dispatcher instead of opening new connections for every request.
+ *
+ * <p>Timeouts and retries can be changed with the {@code EPIRUS_HTTP_CONNECT_TIMEOUT}, {@code
+ * EPIRUS_HTTP_READ_TIMEOUT}, {@code EPIRUS_HTTP_WRITE_TIMEOUT} (in seconds) and {@code
+ * EPIRUS_HTTP_RETRIES} environment variables.
+ */
+public class HttpClientProvider {
+    static final long DEFAULT_CONNECT_TIMEOUT_SECONDS = 15;
+    static final long DEFAULT_READ_TIMEOUT_SECONDS = 30;
+    static final long DEFAULT_WRITE_TIMEOUT_SECONDS = 10;
+    static final int DEFAULT_RETRIES = 2;
+
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private static final long RETRY_BACKOFF_MILLIS = 500;
+
+    private static final String SETTINGS_PREFIX = "EPIRUS_HTTP_";
+
+    private static OkHttpClient client;
+    // the settings the client was created with, or null if it was set by a test
+    private static Map<String, String> clientSettings;
+
+    /**
+     * The process-wide client. It is created again if a command run by the daemon changes the
+     * settings, which are otherwise read once.
+     */
+    public static synchronized OkHttpClient getClient() {
+        final Map<String, String> settings = settings(CliEnvironment.get());
+        if (client == null || (clientSettings != null && !clientSettings.equals(settings))) {
+            client = createClient(settings);
+            clientSettings = settings;
+        }
+        return client;
+    }
+
+    /**
+     * A client limiting every call to the given time, which still shares the connection pool and
+     * dispatcher of the process-wide client.
+     */
+    public static OkHttpClient getClient(final long callTimeout, final TimeUnit unit) {
+        return getClient().newBuilder().callTimeout(callTimeout, unit).build();
+    }
+
+    @VisibleForTesting
+    public static synchronized void setClient(final OkHttpClient client) {
+        HttpClientProvider.client = client;
+        HttpClientProvider.clientSettings = null;
+    }
+
+    static OkHttpClient createClient(final Map<String, String> environment) {
+        return new OkHttpClient.Builder()
+                .connectionPool(
+                        new ConnectionPool(
+                                MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectTimeout(
+                        readLong(
+                                environment,
+                                "EPIRUS_HTTP_CONNECT_TIMEOUT",
+                                DEFAULT_CONNECT_TIMEOUT_SECONDS),
+                        TimeUnit.SECONDS)
+                .readTimeout(
+                        readLong(
+                                environment,
+                                "EPIRUS_HTTP_READ_TIMEOUT",
+                                DEFAULT_READ_TIMEOUT_SECONDS),
+                        TimeUnit.SECONDS)
+                .writeTimeout(
+                        readLong(
+                                environment,
+                                "EPIRUS_HTTP_WRITE_TIMEOUT",
+                                DEFAULT_WRITE_TIMEOUT_SECONDS),
+                        TimeUnit.SECONDS)
+                .addInterceptor(
+                        new RetryInterceptor(
+                                (int) readLong(environment, "EPIRUS_HTTP_RETRIES", DEFAULT_RETRIES),
+                                RETRY_BACKOFF_MILLIS))
+                .build();
+    }
+
+    private static Map<String, String> settings(final Map<String, String> environment) {
+        final Map<String, String> settings = new HashMap<>();
+        environment.forEach(
+                (name, value) -> {
+                    if (name.startsWith(SETTINGS_PREFIX)) {
+                        settings.put(name, value);
+                    }
+                });
+        return settings;
+    }
+
+    private static long readLong(
+            final Map<String, String> environment, final String name, final long defaultValue) {
+        final String value = environment.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Retries idempotent requests that failed with an I/O error or a transient server error, with a
+     * linear backoff. Requests with a body are never retried, since they may have been applied.
+     */
+    static class RetryInterceptor implements Interceptor {
+        private final int retries;
+        private final long backoffMillis;
+
+        RetryInterceptor(final int retries, final long backoffMillis) {
+            this.retries = retries;
+            this.backoffMillis = backoffMillis;
+        }
+
+        @Override
+        public Response intercept(final Chain chain) throws IOException {
+            final Request request = chain.request();
+            if (!isIdempotent(request)) {
+                return chain.proceed(request);
+            }
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    final Response response = chain.proceed(request);
+                    if (attempt >= retries || !isTransient(response.code())) {
+                        return response;
+                    }
+                    response.close();
+                } catch (IOException e) {
+                    if (attempt >= retries || chain.call().isCanceled()) {
+                        throw e;
+                    }
+                }
+                try {
+                    Thread.sleep(backoffMillis * (attempt + 1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while retrying " + request.url(), e);
+                }
+            }
+        }
+
+        private static boolean isIdempotent(final Request request) {
+            return request.method().equals("GET") || request.method().equals("HEAD");
+        }
+
+        private static boolean isTransient(final int code) {
+            return code == 502 || code == 503 || code == 504;
+        }
+    }
+}
@@ -12,18 +12,9 @@
  */
 package io.epirus.console.web.services;
 
-import java.io.File;
-import java.io.IOException;
-import java.net.URISyntaxException;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
-import io.epirus.console.EpirusCommand;
-import io.epirus.console.utils.OSUtils;
-import okhttp3.MultipartBody;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.RequestBody;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 import static io.epirus.console.config.ConfigManager.config;
 
@@ -31,48 +22,38 @@ public class Telemetry {
     private static final String DEFAULT_TELEMETRY_URL =
             "https://internal.services.web3labs.com/api/analytics";
 
-    public static void invokeTelemetryUpload(String... args)
-            throws URISyntaxException, IOException {
-        final String jarFile =
-                new File(
-                                EpirusCommand.class
-                                        .getProtectionDomain()
-                                        .getCodeSource()
-                                        .getLocation()
-                                        .toURI())
-                        .getPath();
-        if (jarFile.endsWith(".jar")) {
-            Runtime.getRuntime()
-                    .exec(
-                            Stream.of(new String[] {"java", "-jar", jarFile, "--telemetry"}, args)
-                                    .flatMap(Stream::of)
-                                    .toArray(String[]::new));
-        }
-    }
+    static final Path DEFAULT_SPOOL_PATH =
+            Paths.get(System.getProperty("user.home"), ".epirus", "telemetry.spool");
 
-    public static void uploadTelemetry(String... args) {
-        uploadTelemetry(DEFAULT_TELEMETRY_URL, args);
-    }
+    /** How long the CLI may wait on exit for a pending upload before leaving it to the next run. */
+    private static final long SHUTDOWN_DEADLINE_MILLIS = 300;
 
-    public static void uploadTelemetry(String telemetryUrl, String[] args) {
-        OkHttpClient client = new OkHttpClient();
-        String argsToUpload = Stream.of(args).skip(2).collect(Collectors.joining(", "));
+    private static TelemetryUploader uploader;
 
-        RequestBody analyticsBody =
-                new MultipartBody.Builder()
-                        .setType(MultipartBody.FORM)
-                        .addFormDataPart("os", OSUtils.determineOS().toString())
-                        .addFormDataPart("clientId", config.getClientId())
-                        .addFormDataPart("data", args.length >= 2 ? args[1] : "No args")
-                        .addFormDataPart("params", argsToUpload)
-                        .build();
+    public static void recordCommand(String... args) {
+        getUploader().record(config.getClientId(), args);
+    }
 
-        Request analyticsRequest =
-                new okhttp3.Request.Builder().url(telemetryUrl).post(analyticsBody).build();
+    public static int getSpoolSize() {
+        return getUploader().getSpoolSize();
+    }
 
-        try {
-            client.newCall(analyticsRequest).execute();
-        } catch (Exception ignored) {
+    private static synchronized TelemetryUploader getUploader() {
+        if (uploader == null) {
+            final TelemetryUploader telemetryUploader =
+                    new TelemetryUploader(
+                            DEFAULT_TELEMETRY_URL,
+                            DEFAULT_SPOOL_PATH,
+                            HttpClientProvider.getClient(5, TimeUnit.SECONDS));
+            Runtime.getRuntime()
+                    .addShutdownHook(
+                            new Thread(
+                                    () ->
+                                            telemetryUploader.awaitTermination(
+                                                    SHUTDOWN_DEADLINE_MILLIS,
+                                                    TimeUnit.MILLISECONDS)));
+            uploader = telemetryUploader;
         }
+        return uploader;
     }
 }
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.web.services;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import io.epirus.console.utils.OSUtils;
+import okhttp3.MultipartBody;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * Appends telemetry events to a local spool file and uploads them in batches from a single
+ * background thread, so that recording an event never blocks the command being run. The analytics
+ * endpoint takes one event per form, so a batch is sent over the shared keep-alive connection and
+ * removed from the spool at once. Events that could not be sent stay in the spool and are retried
+ * by the next invocation.
+ */
+public class TelemetryUploader {
+    static final int MAX_SPOOLED_EVENTS = 1000;
+    static final int MAX_BATCH_SIZE = 50;
+
+    private static final Gson GSON = new Gson();
+    private static final Object SPOOL_LOCK = new Object();
+
+    private final String telemetryUrl;
+    private final Path spoolFile;
+    private final OkHttpClient client;
+    private final ThreadPoolExecutor executor;
+
+    public TelemetryUploader(
+            final String telemetryUrl, final Path spoolFile, final OkHttpClient client) {
+        this.telemetryUrl = telemetryUrl;
+        this.spoolFile = spoolFile;
+        this.client = client;
+        // a single pending flush is enough, since each flush reads the spool afresh
+        this.executor =
+                new ThreadPoolExecutor(
+                        1,
+                        1,
+                        0,
+                        TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(1),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "epirus-telemetry");
+                            thread.setDaemon(true);
+                            return thread;
+                        },
+                        new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /** Spools an event for the given command line and schedules an asynchronous upload. */
+    public void record(final String clientId, final String... args) {
+        final TelemetryEvent event =
+                new TelemetryEvent(
+                        OSUtils.determineOS().toString(),
+                        clientId,
+                        args.length >= 1 ? args[0] : "No args",
+                        Stream.of(args).skip(1).collect(Collectors.joining(", ")));
+        try {
+            append(Collections.singletonList(event));
+        } catch (IOException ignored) {
+            return;
+        }
+        executor.execute(this::flush);
+    }
+
+    /**
+     * Uploads spooled events on the calling thread. The events sent are removed from the spool in
+     * one rewrite once the batch is done, so an upload cut short by the JVM exiting sends them
+     * again from the next run rather than losing them.
+     */
+    public void flush() {
+        final List<String> batch;
+        try {
+            batch = peek();
+        } catch (IOException e) {
+            return;
+        }
+
+        final List<String> sent = new ArrayList<>(batch.size());
+        for (String line : batch) {
+            final TelemetryEvent event = parse(line);
+            if (event != null && !upload(event)) {
+                // the endpoint is unreachable, keep the remaining events for the next run
+                break;
+            }
+            sent.add(line);
+        }
+        if (!sent.isEmpty()) {
+            try {
+                remove(sent);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /** Waits for pending uploads up to the given deadline; anything unsent remains spooled. */
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** Number of events waiting in the spool file. */
+    public int getSpoolSize() {
+        synchronized (SPOOL_LOCK) {
+            try {
+                return Files.exists(spoolFile) ? Files.readAllLines(spoolFile).size() : 0;
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+    }
+
+    private boolean upload(final TelemetryEvent event) {
+        final RequestBody analyticsBody =
+                new MultipartBody.Builder()
+                        .setType(MultipartBody.FORM)
+                        .addFormDataPart("os", event.os)
+                        .addFormDataPart("clientId", event.clientId)
+                        .addFormDataPart("data", event.data)
+                        .addFormDataPart("params", event.params)
+                        .build();
+        final Request analyticsRequest =
+                new Request.Builder().url(telemetryUrl).post(analyticsBody).build();
+
+        try (Response response = client.newCall(analyticsRequest).execute()) {
+            // client errors will not go away by retrying, so they are dropped as well
+            return response.code() < 500;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void append(final List<TelemetryEvent> events) throws IOException {
+        synchronized (SPOOL_LOCK) {
+            try (FileChannel channel = openSpool();
+                    FileLock ignored = channel.lock()) {
+                final List<String> lines = readLines(channel);
+                events.forEach(event -> lines.add(GSON.toJson(event)));
+                writeLines(
+                        channel,
+                        lines.subList(
+                                Math.max(0, lines.size() - MAX_SPOOLED_EVENTS), lines.size()));
+            }
+        }
+    }
+
+    private List<String> peek() throws IOException {
+        synchronized (SPOOL_LOCK) {
+            if (!Files.exists(spoolFile)) {
+                return Collections.emptyList();
+            }
+            try (FileChannel channel = openSpool();
+                    FileLock ignored = channel.lock()) {
+                final List<String> lines = readLines(channel);
+                return new ArrayList<>(lines.subList(0, Math.min(MAX_BATCH_SIZE, lines.size())));
+            }
+        }
+    }
+
+    private void remove(final List<String> sent) throws IOException {
+        synchronized (SPOOL_LOCK) {
+            try (FileChannel channel = openSpool();
+                    FileLock ignored = channel.lock()) {
+                final List<String> lines = readLines(channel);
+                boolean removed = false;
+                for (String line : sent) {
+                    // another invocation may have sent the event meanwhile, then it is gone
+                    removed |= lines.remove(line);
+                }
+                if (removed) {
+                    writeLines(channel, lines);
+                }
+            }
+        }
+    }
+
+    private static TelemetryEvent parse(final String line) {
+        try {
+            return GSON.fromJson(line, TelemetryEvent.class);
+        } catch (JsonSyntaxException e) {
+            // a truncated line left behind by a killed process
+            return null;
+        }
+    }
+
+    private FileChannel openSpool() throws IOException {
+        Files.createDirectories(spoolFile.getParent());
+        return new RandomAccessFile(spoolFile.toFile(), "rw").getChannel();
+    }
+
+    private static List<String> readLines(final FileChannel channel) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        channel.read(buffer, 0);
+        final String contents = new String(buffer.array(), StandardCharsets.UTF_8);
+        return contents.isEmpty()
+                ? new ArrayList<>()
+                : new ArrayList<>(Arrays.asList(contents.split("\n")));
+    }
+
+    private static void writeLines(final FileChannel channel, final List<String> lines)
+            throws IOException {
+        final StringBuilder contents = new StringBuilder();
+        lines.forEach(line -> contents.append(line).append('\n'));
+        channel.truncate(0);
+        channel.write(ByteBuffer.wrap(contents.toString().getBytes(StandardCharsets.UTF_8)), 0);
+        channel.force(false);
+    }
+
+    private static class TelemetryEvent {
+        private final String os;
+        private final String clientId;
+        private final String data;
+        private final String params;
+
+        TelemetryEvent(String os, String clientId, String data, String params) {
+            this.os = os;
+            this.clientId = clientId;
+            this.data = data;
+            this.params = params;
+        }
+    }
+}
@@ -13,6 +13,8 @@
 package io.epirus.console.web.services;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.github.zafarkhaja.semver.Version;
 import com.google.gson.JsonElement;
@@ -27,6 +29,10 @@ import static io.epirus.console.config.ConfigManager.config;
 public class Updater {
     private static final String DEFAULT_UPDATE_URL =
             "https://internal.services.web3labs.com/api/epirus/versions/latest";
+    private static final long UPDATE_CHECK_TIMEOUT_SECONDS = 5;
+
+    // a check in flight is only known to this process, e.g. the daemon, until it completes
+    private static final AtomicBoolean UPDATE_CHECK_RUNNING = new AtomicBoolean();
 
     public static void promptIfUpdateAvailable() throws IOException {
         String version = CliVersion.getVersion();
@@ -44,12 +50,46 @@ public class Updater {
         }
     }
 
+    /**
+     * Looks for a newer version on a daemon thread, unless the previous check happened within the
+     * configured interval. Never blocks the calling thread.
+     *
+     * @return whether a check was started
+     */
+    public static boolean scheduleUpdateCheck() {
+        return scheduleUpdateCheck(DEFAULT_UPDATE_URL);
+    }
+
+    public static boolean scheduleUpdateCheck(String updateUrl) {
+        if (System.currentTimeMillis() - config.getLastUpdateCheck()
+                < config.getUpdateCheckInterval()) {
+            return false;
+        }
+        if (!UPDATE_CHECK_RUNNING.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread updateCheck =
+                new Thread(
+                        () -> {
+                            try {
+                                onlineUpdateCheck(updateUrl);
+                            } finally {
+                                UPDATE_CHECK_RUNNING.set(false);
+                            }
+                        },
+                        "epirus-update-check");
+        updateCheck.setDaemon(true);
+        updateCheck.start();
+        return true;
+    }
+
     public static void onlineUpdateCheck() {
         onlineUpdateCheck(DEFAULT_UPDATE_URL);
     }
 
     public static void onlineUpdateCheck(String updateUrl) {
-        OkHttpClient client = new OkHttpClient();
+        OkHttpClient client =
+                HttpClientProvider.getClient(UPDATE_CHECK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
 
         RequestBody updateBody =
                 new MultipartBody.Builder()
@@ -62,8 +102,7 @@ public class Updater {
         Request updateCheckRequest =
                 new okhttp3.Request.Builder().url(updateUrl).post(updateBody).build();
 
-        try {
-            Response sendRawResponse = client.newCall(updateCheckRequest).execute();
+        try (Response sendRawResponse = client.newCall(updateCheckRequest).execute()) {
             JsonElement element;
             ResponseBody body;
             if (sendRawResponse.code() == 200
@@ -84,5 +123,9 @@ public class Updater {
             }
         } catch (Exception ignored) {
         }
+        // recorded once the call completed or failed, so that an offline machine or a failing
+        // server does not trigger another check on every start, while a check cut short by the
+        // command exiting is retried by the next one
+        config.setLastUpdateCheck(System.currentTimeMillis());
     }
 }
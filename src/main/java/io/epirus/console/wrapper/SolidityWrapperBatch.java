@@ -0,0 +1,344 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.wrapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.web3j.codegen.SolidityFunctionWrapperGenerator;
+
+/**
+ * Generates the wrappers of many contracts in one JVM. The ABI and BIN inputs can be files, folders
+ * or globs such as {@code build/*.abi}, and are paired by contract name, i.e. the file name without
+ * its extension. Contracts without a BIN file get wrappers without deploy methods.
+ *
+ * <p>The wrappers are generated concurrently on a fork-join pool. The Solidity to Java type
+ * mappings of web3j are resolved through {@link Class#forName}, so every contract after the first
+ * reuses the classes the JVM already loaded and linked instead of paying for them in a new process.
+ */
+public class SolidityWrapperBatch {
+    static final String ABI_EXTENSION = ".abi";
+    static final String BIN_EXTENSION = ".bin";
+
+    private final List<Contract> contracts;
+
+    private SolidityWrapperBatch(final List<Contract> contracts) {
+        this.contracts = contracts;
+    }
+
+    /** Pairs the ABI files with the BIN files of the same contract name. */
+    public static SolidityWrapperBatch of(final List<File> abiInputs, final List<File> binInputs)
+            throws IOException {
+        final Map<String, File> abis = resolve(abiInputs, ABI_EXTENSION);
+        final Map<String, File> bins = resolve(binInputs, BIN_EXTENSION);
+        final List<Contract> contracts = new ArrayList<>(abis.size());
+        for (Map.Entry<String, File> abi : abis.entrySet()) {
+            contracts.add(new Contract(abi.getKey(), abi.getValue(), bins.get(abi.getKey())));
+        }
+        return new SolidityWrapperBatch(contracts);
+    }
+
+    /** A single contract, named after the ABI file unless a name is given. */
+    public static SolidityWrapperBatch of(
+            final File abiFile, final File binFile, final String contractName) {
+        final String name =
+                contractName == null || contractName.isEmpty()
+                        ? contractName(abiFile)
+                        : contractName;
+        return new SolidityWrapperBatch(
+                Collections.singletonList(new Contract(name, abiFile, binFile)));
+    }
+
+    public List<Contract> getContracts() {
+        return Collections.unmodifiableList(contracts);
+    }
+
+    /** Generates every wrapper, collecting the failures instead of stopping at the first one. */
+    public List<Result> generate(
+            final File destinationDir,
+            final String packageName,
+            final boolean useJavaTypes,
+            final boolean primitiveTypes,
+            final int addressLength,
+            final int parallelism)
+            throws InterruptedException, IOException {
+        return generate(
+                destinationDir,
+                packageName,
+                useJavaTypes,
+                primitiveTypes,
+                addressLength,
+                parallelism,
+                null);
+    }
+
+    /**
+     * Generates the wrappers whose inputs changed since they were recorded in the index, and
+     * records the wrappers it generates. Without an index every wrapper is generated.
+     */
+    public List<Result> generate(
+            final File destinationDir,
+            final String packageName,
+            final boolean useJavaTypes,
+            final boolean primitiveTypes,
+            final int addressLength,
+            final int parallelism,
+            final WrapperIndex index)
+            throws InterruptedException, IOException {
+        final Path outputDir = destinationDir.toPath();
+        final List<Callable<Result>> tasks = new ArrayList<>(contracts.size());
+        for (Contract contract : contracts) {
+            tasks.add(
+                    () -> {
+                        final String inputs =
+                                WrapperIndex.hashInputs(
+                                        contract.abiFile,
+                                        contract.binFile,
+                                        contract.name,
+                                        packageName,
+                                        useJavaTypes,
+                                        primitiveTypes,
+                                        addressLength);
+                        if (index != null
+                                && index.isUpToDate(outputDir, contract.abiFile, inputs)) {
+                            return new Result(contract, 0, inputs, true, null);
+                        }
+                        return contract.generate(
+                                destinationDir,
+                                packageName,
+                                useJavaTypes,
+                                primitiveTypes,
+                                addressLength,
+                                inputs);
+                    });
+        }
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            final List<Result> results = new ArrayList<>(contracts.size());
+            for (Future<Result> future : pool.invokeAll(tasks)) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    }
+                    // Contract.generate() reports its own failures
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            if (index != null) {
+                for (Result result : results) {
+                    if (result.isSuccessful() && !result.isUpToDate()) {
+                        index.update(
+                                outputDir,
+                                result.contract.abiFile,
+                                result.inputs,
+                                Collections.singletonList(
+                                        WrapperIndex.wrapperFile(
+                                                packageName, result.contract.name)));
+                    }
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    static Map<String, File> resolve(final List<File> inputs, final String extension)
+            throws IOException {
+        final Map<String, File> files = new TreeMap<>();
+        for (File input : inputs) {
+            final List<File> resolved;
+            if (input.isDirectory()) {
+                try (Stream<Path> paths = Files.list(input.toPath())) {
+                    resolved =
+                            paths.filter(path -> path.toString().endsWith(extension))
+                                    .map(Path::toFile)
+                                    .collect(Collectors.toList());
+                }
+            } else if (isGlob(input.getPath())) {
+                resolved = expand(input.getPath());
+            } else if (input.isFile()) {
+                resolved = Collections.singletonList(input);
+            } else {
+                throw new IOException("No such file or folder: " + input);
+            }
+            for (File file : resolved) {
+                final File previous = files.put(contractName(file), file);
+                if (previous != null && !previous.equals(file)) {
+                    throw new IOException(
+                            "Contract "
+                                    + contractName(file)
+                                    + " is defined by both "
+                                    + previous
+                                    + " and "
+                                    + file);
+                }
+            }
+        }
+        return files;
+    }
+
+    /** The contract name of an input file, i.e. its name without the extension. */
+    public static String contractName(final File file) {
+        final String name = file.getName();
+        final int extension = name.lastIndexOf('.');
+        return extension > 0 ? name.substring(0, extension) : name;
+    }
+
+    private static boolean isGlob(final String path) {
+        return path.indexOf('*') >= 0 || path.indexOf('?') >= 0 || path.indexOf('[') >= 0;
+    }
+
+    private static List<File> expand(final String glob) throws IOException {
+        final String pattern = glob.replace(File.separatorChar, '/');
+        // the folders before the first wildcard are walked, the rest is matched
+        final int wildcard = firstWildcard(pattern);
+        final int separator = pattern.lastIndexOf('/', wildcard);
+        final Path base = Paths.get(separator < 0 ? "." : pattern.substring(0, separator + 1));
+        final String relative = pattern.substring(separator + 1);
+        final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + relative);
+        final int depth =
+                relative.contains("**") ? Integer.MAX_VALUE : relative.split("/", -1).length;
+        if (!Files.isDirectory(base)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> paths = Files.walk(base, depth)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> matcher.matches(base.relativize(path)))
+                    .map(Path::toFile)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static int firstWildcard(final String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            final char c = pattern.charAt(i);
+            if (c == '*' || c == '?' || c == '[') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static class Contract {
+        private final String name;
+        private final File abiFile;
+        private final File binFile;
+
+        Contract(final String name, final File abiFile, final File binFile) {
+            this.name = name;
+            this.abiFile = abiFile;
+            this.binFile = binFile;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public File getAbiFile() {
+            return abiFile;
+        }
+
+        /** The BIN file of the contract, or null if there is none. */
+        public File getBinFile() {
+            return binFile;
+        }
+
+        Result generate(
+                final File destinationDir,
+                final String packageName,
+                final boolean useJavaTypes,
+                final boolean primitiveTypes,
+                final int addressLength,
+                final String inputs) {
+            final long start = System.nanoTime();
+            try {
+                new SolidityFunctionWrapperGenerator(
+                                binFile,
+                                abiFile,
+                                destinationDir,
+                                name,
+                                packageName,
+                                useJavaTypes,
+                                primitiveTypes,
+                                addressLength)
+                        .generate();
+                return new Result(this, System.nanoTime() - start, inputs, false, null);
+            } catch (Exception e) {
+                return new Result(this, System.nanoTime() - start, inputs, false, e);
+            }
+        }
+    }
+
+    public static class Result {
+        private final Contract contract;
+        private final long durationNanos;
+        private final String inputs;
+        private final boolean upToDate;
+        private final Exception failure;
+
+        Result(
+                final Contract contract,
+                final long durationNanos,
+                final String inputs,
+                final boolean upToDate,
+                final Exception failure) {
+            this.contract = contract;
+            this.durationNanos = durationNanos;
+            this.inputs = inputs;
+            this.upToDate = upToDate;
+            this.failure = failure;
+        }
+
+        public Contract getContract() {
+            return contract;
+        }
+
+        public long getDurationMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        }
+
+        public boolean isSuccessful() {
+            return failure == null;
+        }
+
+        /** The wrapper was left alone since its inputs did not change. */
+        public boolean isUpToDate() {
+            return upToDate;
+        }
+
+        public Exception getFailure() {
+            return failure;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.wrapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.web3j.abi.datatypes.Address;
+import org.web3j.codegen.SolidityFunctionWrapper;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.methods.response.AbiDefinition;
+import org.web3j.utils.Strings;
+
+/**
+ * The parts of a Truffle build artifact a wrapper is generated from: the contract name, ABI,
+ * bytecode and deployed addresses.
+ *
+ * <p>The artifact is read with a pull parser that skips every other field, such as {@code ast},
+ * {@code legacyAST}, {@code source} and the source maps, without materializing them, so reading an
+ * artifact takes about as much memory as its ABI whatever the size of the file.
+ */
+public class TruffleArtifact {
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperFactory.getObjectMapper();
+    private static final TypeReference<List<AbiDefinition>> ABI_TYPE =
+            new TypeReference<List<AbiDefinition>>() {};
+
+    private final String contractName;
+    private final List<AbiDefinition> abi;
+    private final String bytecode;
+    private final Map<String, String> addresses;
+
+    private TruffleArtifact(
+            final String contractName,
+            final List<AbiDefinition> abi,
+            final String bytecode,
+            final Map<String, String> addresses) {
+        this.contractName = contractName;
+        this.abi = abi;
+        this.bytecode = bytecode;
+        this.addresses = addresses;
+    }
+
+    public static TruffleArtifact read(final File file) throws IOException {
+        String contractName = null;
+        List<AbiDefinition> abi = null;
+        String bytecode = null;
+        Map<String, String> addresses = Collections.emptyMap();
+
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(file)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException(file + " is not a Truffle artifact");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                final JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "contractName":
+                        contractName = parser.getValueAsString();
+                        break;
+                    case "abi":
+                        abi = OBJECT_MAPPER.readValue(parser, ABI_TYPE);
+                        break;
+                    case "bytecode":
+                        bytecode = parser.getValueAsString();
+                        break;
+                    case "networks":
+                        addresses = readAddresses(parser);
+                        break;
+                    default:
+                        // strings are skipped without being read into memory
+                        parser.skipChildren();
+                }
+            }
+        }
+        if (abi == null) {
+            throw new IOException(file + " is not a Truffle artifact, it has no ABI");
+        }
+        return new TruffleArtifact(contractName, abi, bytecode, addresses);
+    }
+
+    /** The address of each network the contract was deployed to. */
+    private static Map<String, String> readAddresses(final JsonParser parser) throws IOException {
+        // same order as the wrappers TruffleJsonFunctionWrapperGenerator generates
+        final Map<String, String> addresses = new HashMap<>();
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return addresses;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String network = parser.getCurrentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                if (field.equals("address") && parser.currentToken() == JsonToken.VALUE_STRING) {
+                    addresses.put(network, parser.getText());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return addresses;
+    }
+
+    public String getContractName() {
+        return contractName;
+    }
+
+    public List<AbiDefinition> getAbi() {
+        return abi;
+    }
+
+    public String getBytecode() {
+        return bytecode;
+    }
+
+    public Map<String, String> getAddresses() {
+        return addresses;
+    }
+
+    /**
+     * Generates the wrapper of the artifact as {@code TruffleJsonFunctionWrapperGenerator} does,
+     * naming the class after the artifact file.
+     */
+    public static void generateWrapper(
+            final File artifact,
+            final File destinationDir,
+            final String packageName,
+            final boolean useJavaNativeTypes)
+            throws IOException, ClassNotFoundException {
+        final TruffleArtifact contract = read(artifact);
+        final String className =
+                Strings.capitaliseFirstLetter(SolidityWrapperBatch.contractName(artifact));
+        new SolidityFunctionWrapper(useJavaNativeTypes, Address.DEFAULT_LENGTH)
+                .generateJavaFiles(
+                        className,
+                        contract.bytecode,
+                        contract.abi,
+                        destinationDir.toString(),
+                        packageName,
+                        contract.addresses);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.wrapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import io.epirus.console.project.ProjectManifest;
+import io.epirus.console.utils.CliVersion;
+
+import org.web3j.utils.Strings;
+
+/**
+ * Records, in the output directory, which wrappers were generated from which input file and a hash
+ * of that input, its BIN and the generator options, so that generating the same wrappers again only
+ * regenerates those whose inputs changed.
+ */
+public class WrapperIndex {
+    public static final String FILE_NAME = ".epirus-wrappers.json";
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final Map<String, Entry> wrappers;
+    private transient boolean modified;
+
+    private WrapperIndex(final Map<String, Entry> wrappers) {
+        this.wrappers = wrappers;
+    }
+
+    private static class Entry {
+        private final String inputs;
+        private final List<String> files;
+
+        Entry(final String inputs, final List<String> files) {
+            this.inputs = inputs;
+            this.files = files;
+        }
+    }
+
+    /** The index of the output directory, or an empty one if it has none or it cannot be read. */
+    public static WrapperIndex load(final Path outputDir) {
+        try {
+            final WrapperIndex index =
+                    GSON.fromJson(
+                            new String(
+                                    Files.readAllBytes(outputDir.resolve(FILE_NAME)),
+                                    StandardCharsets.UTF_8),
+                            WrapperIndex.class);
+            if (index != null && index.wrappers != null) {
+                return index;
+            }
+        } catch (IOException | JsonParseException e) {
+            // generate everything again
+        }
+        return new WrapperIndex(new TreeMap<>());
+    }
+
+    /** Hashes the inputs of a wrapper, with the CLI version since it decides what is generated. */
+    public static String hashInputs(final File input, final File binFile, final Object... options)
+            throws IOException {
+        final ProjectManifest.Inputs inputs =
+                new ProjectManifest.Inputs()
+                        .add(CliVersion.getVersion())
+                        .addContent(input.toPath());
+        if (binFile != null) {
+            inputs.addContent(binFile.toPath());
+        }
+        for (Object option : options) {
+            inputs.add(option);
+        }
+        return inputs.hash();
+    }
+
+    /** The Java file of a wrapper, relative to the output directory. */
+    public static String wrapperFile(final String packageName, final String contractName) {
+        return packageName.replace('.', '/')
+                + "/"
+                + Strings.capitaliseFirstLetter(contractName)
+                + ".java";
+    }
+
+    /** The wrappers of the input were generated from the same inputs and are all still there. */
+    public boolean isUpToDate(final Path outputDir, final File input, final String inputs) {
+        final Entry entry = wrappers.get(key(input));
+        if (entry == null || !entry.inputs.equals(inputs)) {
+            return false;
+        }
+        for (String file : entry.files) {
+            if (!Files.isRegularFile(outputDir.resolve(file))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Records the wrappers generated from the input, deleting those it no longer generates. */
+    public void update(
+            final Path outputDir, final File input, final String inputs, final List<String> files)
+            throws IOException {
+        final Entry previous = wrappers.put(key(input), new Entry(inputs, files));
+        modified = true;
+        if (previous != null) {
+            for (String file : previous.files) {
+                if (!files.contains(file)) {
+                    Files.deleteIfExists(outputDir.resolve(file));
+                }
+            }
+        }
+    }
+
+    /** Deletes the wrappers whose input file no longer exists, returning their inputs. */
+    public List<String> removeMissingInputs(final Path outputDir) throws IOException {
+        final List<String> removed = new ArrayList<>();
+        final Iterator<Map.Entry<String, Entry>> iterator = wrappers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, Entry> wrapper = iterator.next();
+            if (!Files.exists(Paths.get(wrapper.getKey()))) {
+                for (String file : wrapper.getValue().files) {
+                    Files.deleteIfExists(outputDir.resolve(file));
+                }
+                iterator.remove();
+                removed.add(wrapper.getKey());
+                modified = true;
+            }
+        }
+        return removed;
+    }
+
+    /** Writes the index, unless nothing changed so that a run without changes touches no file. */
+    public void save(final Path outputDir) throws IOException {
+        if (!modified && Files.exists(outputDir.resolve(FILE_NAME))) {
+            return;
+        }
+        Files.createDirectories(outputDir);
+        final Path temp = Files.createTempFile(outputDir, "wrappers", ".tmp");
+        Files.write(temp, GSON.toJson(this).getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, outputDir.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String key(final File input) {
+        return input.toPath().toAbsolutePath().normalize().toString();
+    }
+}
@@ -13,13 +13,17 @@
 package io.epirus.console.wrapper.subcommand;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import io.epirus.console.EpirusVersionProvider;
+import io.epirus.console.wrapper.SolidityWrapperBatch;
+import io.epirus.console.wrapper.WrapperIndex;
 import picocli.CommandLine;
 
 import org.web3j.abi.datatypes.Address;
 import org.web3j.codegen.Console;
-import org.web3j.codegen.SolidityFunctionWrapperGenerator;
 
 import static org.web3j.codegen.Console.exitError;
 import static picocli.CommandLine.Help.Visibility.ALWAYS;
@@ -44,16 +48,20 @@ public class SolidityGenerateCommand implements Runnable {
 
     @CommandLine.Option(
             names = {"-a", "--abiFile"},
-            description = "abi file with contract definition.",
+            description =
+                    "abi files with contract definitions, " + "or folders and globs of .abi files.",
+            arity = "1..*",
             required = true)
-    private File abiFile;
+    private List<File> abiFiles = new ArrayList<>();
 
     @CommandLine.Option(
             names = {"-b", "--binFile"},
             description =
-                    "bin file with contract compiled code "
-                            + "in order to generate deploy methods.")
-    private File binFile;
+                    "bin files with contract compiled code "
+                            + "in order to generate deploy methods, "
+                            + "or folders and globs of .bin files.",
+            arity = "1..*")
+    private List<File> binFiles = new ArrayList<>();
 
     @CommandLine.Option(
             names = {"-c", "--contractName"},
@@ -93,30 +101,100 @@ public class SolidityGenerateCommand implements Runnable {
             description = "use Java primitive types.")
     private boolean primitiveTypes = false;
 
+    @CommandLine.Option(
+            names = {"--parallelism"},
+            description = "number of wrappers generated concurrently.",
+            showDefaultValue = ALWAYS)
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
     @Override
     public void run() {
         try {
             boolean useJavaTypes = useJavaNativeTypes();
 
-            if (contractName == null || contractName.isEmpty()) {
-                contractName = getFileNameNoExtension(abiFile.getName());
+            final SolidityWrapperBatch batch;
+            if (isSingleContract()) {
+                batch =
+                        SolidityWrapperBatch.of(
+                                abiFiles.get(0),
+                                binFiles.isEmpty() ? null : binFiles.get(0),
+                                contractName);
+            } else {
+                if (contractName != null && !contractName.isEmpty()) {
+                    exitError(
+                            "The contract name can only be set when generating a single wrapper.");
+                }
+                batch = SolidityWrapperBatch.of(abiFiles, binFiles);
+                if (batch.getContracts().isEmpty()) {
+                    exitError("No ABI files found in " + abiFiles);
+                }
             }
-
-            new SolidityFunctionWrapperGenerator(
-                            binFile,
-                            abiFile,
-                            destinationFileDir,
-                            contractName,
-                            packageName,
-                            useJavaTypes,
-                            primitiveTypes,
-                            addressLength)
-                    .generate();
+            generate(batch, useJavaTypes);
         } catch (Exception e) {
             exitError(e);
         }
     }
 
+    private boolean isSingleContract() {
+        return abiFiles.size() == 1
+                && abiFiles.get(0).isFile()
+                && binFiles.size() <= 1
+                && (binFiles.isEmpty() || binFiles.get(0).isFile());
+    }
+
+    private void generate(final SolidityWrapperBatch batch, final boolean useJavaTypes)
+            throws Exception {
+        if (parallelism < 1) {
+            exitError("The parallelism must be at least 1.");
+        }
+        // only the wrappers whose inputs changed since the last run are generated again
+        final Path outputDir = destinationFileDir.toPath();
+        final WrapperIndex index = WrapperIndex.load(outputDir);
+        final long start = System.nanoTime();
+        final List<SolidityWrapperBatch.Result> results =
+                batch.generate(
+                        destinationFileDir,
+                        packageName,
+                        useJavaTypes,
+                        primitiveTypes,
+                        addressLength,
+                        parallelism,
+                        index);
+        for (String input : index.removeMissingInputs(outputDir)) {
+            System.out.println("Removed the wrappers of " + input);
+        }
+        index.save(outputDir);
+        final long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        int failures = 0;
+        int upToDate = 0;
+        for (SolidityWrapperBatch.Result result : results) {
+            if (result.isUpToDate()) {
+                upToDate++;
+            } else if (!result.isSuccessful()) {
+                if (results.size() == 1) {
+                    exitError(result.getFailure());
+                }
+                failures++;
+                System.err.println(
+                        "Could not generate "
+                                + result.getContract().getName()
+                                + ": "
+                                + result.getFailure().getMessage());
+            }
+        }
+        if (results.size() == 1 && upToDate == 1) {
+            System.out.println(results.get(0).getContract().getName() + " is up to date.");
+        } else if (results.size() > 1) {
+            System.out.printf(
+                    "Generated %d of %d wrappers in %d ms, %d were up to date%n",
+                    results.size() - failures - upToDate, results.size(), elapsedMillis, upToDate);
+        }
+        if (failures > 0) {
+            exitError(failures + " wrappers could not be generated.");
+        }
+    }
+
     private boolean useJavaNativeTypes() {
         boolean useJavaNativeTypes = true;
         if ((solidityTypes == false && javaTypes == false)
@@ -132,9 +210,4 @@ public class SolidityGenerateCommand implements Runnable {
         }
         return useJavaNativeTypes;
     }
-
-    private String getFileNameNoExtension(String fileName) {
-        String[] splitName = fileName.split("\\.(?=[^.]*$)");
-        return splitName[0];
-    }
 }
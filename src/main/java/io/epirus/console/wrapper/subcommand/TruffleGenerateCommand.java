@@ -13,12 +13,19 @@
 package io.epirus.console.wrapper.subcommand;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import io.epirus.console.EpirusVersionProvider;
+import io.epirus.console.wrapper.SolidityWrapperBatch;
+import io.epirus.console.wrapper.TruffleArtifact;
+import io.epirus.console.wrapper.WrapperIndex;
 import picocli.CommandLine;
 
 import org.web3j.codegen.Console;
-import org.web3j.codegen.TruffleJsonFunctionWrapperGenerator;
+import org.web3j.utils.Strings;
 
 import static picocli.CommandLine.Help.Visibility.ALWAYS;
 
@@ -41,7 +48,9 @@ public class TruffleGenerateCommand implements Runnable {
 
     @CommandLine.Option(
             names = {"-t", "--truffle-json"},
-            description = "abi file with contract definition.",
+            description =
+                    "truffle json artifact with contract definition, "
+                            + "or a folder of artifacts such as build/contracts.",
             required = true)
     private File jsonFileLocation;
 
@@ -76,17 +85,79 @@ public class TruffleGenerateCommand implements Runnable {
         boolean useJavaNativeTypes = useJavaNativeTypes();
 
         try {
-            new TruffleJsonFunctionWrapperGenerator(
-                            jsonFileLocation.getAbsolutePath(),
-                            destinationDirLocation.getAbsolutePath(),
-                            basePackageName,
-                            useJavaNativeTypes)
-                    .generate();
+            final List<File> artifacts = artifacts();
+            if (artifacts.isEmpty()) {
+                Console.exitError("No Truffle artifacts found in " + jsonFileLocation);
+            }
+            // a wrapper is only generated again if its json or the options changed
+            final Path outputDir = destinationDirLocation.toPath();
+            final WrapperIndex index = WrapperIndex.load(outputDir);
+            int failures = 0;
+            for (File artifact : artifacts) {
+                try {
+                    generate(artifact, index, useJavaNativeTypes);
+                } catch (Exception e) {
+                    if (artifacts.size() == 1) {
+                        throw e;
+                    }
+                    failures++;
+                    System.err.println("Could not generate " + artifact + ": " + e.getMessage());
+                }
+            }
+            for (String input : index.removeMissingInputs(outputDir)) {
+                System.out.println("Removed the wrappers of " + input);
+            }
+            index.save(outputDir);
+            if (failures > 0) {
+                Console.exitError(failures + " wrappers could not be generated.");
+            }
         } catch (Exception e) {
             Console.exitError(e);
         }
     }
 
+    /** The artifact, or every artifact of a folder such as {@code build/contracts}. */
+    private List<File> artifacts() {
+        if (!jsonFileLocation.isDirectory()) {
+            return Collections.singletonList(jsonFileLocation);
+        }
+        final File[] files = jsonFileLocation.listFiles((dir, name) -> name.endsWith(".json"));
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+
+    private void generate(
+            final File artifact, final WrapperIndex index, final boolean useJavaNativeTypes)
+            throws Exception {
+        if (!artifact.isFile() || !artifact.canRead()) {
+            Console.exitError("Invalid input json file specified: " + artifact);
+        }
+        final Path outputDir = destinationDirLocation.toPath();
+        final String contractName = SolidityWrapperBatch.contractName(artifact);
+        final String inputs =
+                WrapperIndex.hashInputs(artifact, null, basePackageName, useJavaNativeTypes);
+        if (index.isUpToDate(outputDir, artifact, inputs)) {
+            System.out.println(contractName + " is up to date.");
+            return;
+        }
+        System.out.println(
+                "Generating "
+                        + basePackageName
+                        + "."
+                        + Strings.capitaliseFirstLetter(contractName)
+                        + " ... ");
+        TruffleArtifact.generateWrapper(
+                artifact, destinationDirLocation, basePackageName, useJavaNativeTypes);
+        index.update(
+                outputDir,
+                artifact,
+                inputs,
+                Collections.singletonList(WrapperIndex.wrapperFile(basePackageName, contractName)));
+    }
+
     private boolean useJavaNativeTypes() {
         boolean useJavaNativeTypes = true;
         if ((solidityTypes == false && javaTypes == false)
@@ -34,6 +34,10 @@ class OpenApiGeneratorService(
     val contextPath: String,
     val generateSwagger: Boolean
 ) {
+    private var showProgress = true
+
+    /** Generates the project without printing its progress, e.g. next to other projects. */
+    fun withoutProgress() = apply { showProgress = false }
 
     fun generate() {
         if (abis.isEmpty()) {
@@ -42,9 +46,9 @@ class OpenApiGeneratorService(
             generateInternal(abis, bins)
         }
 
-        if (generateSwagger) GradleUtils.runGradleTask(Paths.get(outputDir, projectName).toFile(), "completeSwaggerUiGeneration", "Generating SwaggerUI...")
+        if (generateSwagger) GradleUtils.runGradleTask(Paths.get(outputDir, projectName).toFile(), "completeSwaggerUiGeneration", "Generating SwaggerUI...", showProgress = showProgress)
 
-        println("Done.")
+        if (showProgress) println("Done.")
     }
 
     private fun generateWithHelloWorldTemplate() {
@@ -64,7 +68,7 @@ class OpenApiGeneratorService(
         val solidityFile = SolidityFile(contractPath)
         val compilerInstance = solidityFile.getCompilerInstance(redirectOutput = true)
 
-        println("Using solidity compiler ${compilerInstance.solcRelease.version} for $fileName")
+        if (showProgress) println("Using solidity compiler ${compilerInstance.solcRelease.version} for $fileName")
 
         compilerInstance.execute(
                 SolcArguments.OUTPUT_DIR.param { buildPath },
@@ -12,9 +12,7 @@
  */
 package io.epirus.console.openapi.utils
 
-import org.gradle.tooling.GradleConnectionException
-import org.gradle.tooling.GradleConnector
-import org.gradle.tooling.ResultHandler
+import io.epirus.console.gradle.GradleExecutionService
 import java.io.File
 import java.io.OutputStream
 
@@ -23,27 +21,14 @@ internal object GradleUtils {
         projectFolder: File,
         task: String,
         description: String,
-        outputStream: OutputStream? = null
+        outputStream: OutputStream? = null,
+        showProgress: Boolean = true
     ) {
-        print(description)
-        GradleConnector.newConnector()
-            .useBuildDistribution()
-            .forProjectDirectory(projectFolder)
-            .connect()
-            .apply {
-                newBuild()
-                    .forTasks(task)
-                    .setStandardOutput(outputStream)
-                    .run(object : ResultHandler<Void> {
-                        override fun onFailure(failure: GradleConnectionException) {
-                            throw failure
-                        }
-
-                        override fun onComplete(result: Void?) {
-                            print(" Done.\n")
-                        }
-                    })
-                close()
-            }
+        if (showProgress) print(description)
+        GradleExecutionService.getInstance()
+            .newBuild(projectFolder, task)
+            .withOutput(outputStream, outputStream)
+            .run()
+        if (showProgress) print(" Done.\n")
     }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console;
+
+import java.util.Collections;
+import java.util.Map;
+
+import io.epirus.console.wallet.WalletCommand;
+import org.junit.jupiter.api.Test;
+import picocli.CommandLine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EpirusCommandTest {
+
+    @Test
+    public void testVersionRegistersNoSubcommands() {
+        assertTrue(subcommands("--version").isEmpty());
+    }
+
+    @Test
+    public void testOnlyInvokedSubcommandIsRegistered() {
+        final Map<String, CommandLine> subcommands = subcommands("wallet", "create");
+
+        assertEquals(Collections.singleton("wallet"), subcommands.keySet());
+        assertTrue(subcommands.get("wallet").getCommand() instanceof WalletCommand);
+    }
+
+    @Test
+    public void testUsageRegistersAllSubcommandsUnderTheirOwnNames() {
+        for (String[] args : new String[][] {{}, {"--help"}, {"help", "wallet"}, {"walet"}}) {
+            final Map<String, CommandLine> subcommands = subcommands(args);
+
+            assertEquals(16, subcommands.size());
+            subcommands.forEach(
+                    (name, subcommand) -> assertEquals(name, subcommand.getCommandSpec().name()));
+        }
+    }
+
+    private static Map<String, CommandLine> subcommands(String... args) {
+        return new EpirusCommand(Collections.emptyMap(), args).getCommandLine().getSubcommands();
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.account;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.http.HttpService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BalanceWatcherTest {
+    private static final String ADDRESS = "0x2c1ba3e9d8f74b6a2c1ba3e9d8f74b6a2c1ba3e9";
+    private static final String TRANSACTION_HASH =
+            "0x5f1d2b8f6e5f4a3c5f1d2b8f6e5f4a3c5f1d2b8f6e5f4a3c5f1d2b8f6e5f4a3c";
+    private static final BigInteger FUNDED_BALANCE = new BigInteger("200000000000000000");
+
+    private Node node;
+    private Web3j web3j;
+
+    @AfterEach
+    void tearDown() {
+        web3j.shutdown();
+        node.stop();
+    }
+
+    @Test
+    void testWaitsForReceiptWithBlockFilter() throws Exception {
+        start(new Node(true, 100, 12));
+
+        final BigInteger balance =
+                new BalanceWatcher(web3j, 50, 400)
+                        .awaitFunding(ADDRESS, TRANSACTION_HASH, 10, TimeUnit.SECONDS);
+
+        assertEquals(FUNDED_BALANCE, balance);
+        assertEquals(1, node.calls("eth_newBlockFilter"));
+        assertEquals(1, node.calls("eth_uninstallFilter"));
+        assertEquals(1, node.calls("eth_getBalance"));
+        // the receipt is requested at most once per poll that saw new blocks
+        assertTrue(
+                node.calls("eth_getTransactionReceipt") <= node.calls("eth_getFilterChanges") + 1);
+    }
+
+    @Test
+    void testMakesFarFewerCallsThanBlockCountPolling() throws Exception {
+        // 200 ms blocks, scaled down from 15 s blocks and the 5 s sleep of the previous polling
+        start(new Node(true, 200, 12));
+        new BalanceWatcher(web3j, 15, 200)
+                .awaitFunding(ADDRESS, TRANSACTION_HASH, 10, TimeUnit.SECONDS);
+        final int watcherCalls = node.totalCalls();
+        tearDown();
+
+        // the previous implementation: block number and balance on every iteration
+        start(new Node(true, 200, 12));
+        long nextPoll = System.currentTimeMillis();
+        while (true) {
+            web3j.ethBlockNumber().send();
+            if (web3j.ethGetBalance(ADDRESS, DefaultBlockParameterName.LATEST)
+                            .send()
+                            .getBalance()
+                            .signum()
+                    > 0) {
+                break;
+            }
+            nextPoll += 67;
+            Thread.sleep(Math.max(0, nextPoll - System.currentTimeMillis()));
+        }
+        final int pollingCalls = node.totalCalls();
+
+        // about two calls per block against six, less the warm up before the block time is known
+        assertTrue(
+                watcherCalls * 3 < pollingCalls * 2,
+                String.format("watcher: %d calls, polling: %d calls", watcherCalls, pollingCalls)
+                        + node.calls);
+    }
+
+    @Test
+    void testFallsBackToPollingWithoutFilters() throws Exception {
+        start(new Node(false, 100, 5));
+
+        final BigInteger balance =
+                new BalanceWatcher(web3j, 50, 400)
+                        .awaitFunding(ADDRESS, TRANSACTION_HASH, 10, TimeUnit.SECONDS);
+
+        assertEquals(FUNDED_BALANCE, balance);
+        assertEquals(0, node.calls("eth_getFilterChanges"));
+        assertTrue(node.calls("eth_getTransactionReceipt") > 1);
+    }
+
+    @Test
+    void testWaitsForBalanceWithoutTransactionHash() throws Exception {
+        start(new Node(true, 100, 5));
+
+        assertEquals(
+                FUNDED_BALANCE,
+                new BalanceWatcher(web3j, 50, 400)
+                        .awaitFunding(ADDRESS, null, 10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testTimesOut() throws Exception {
+        start(new Node(true, 100, Integer.MAX_VALUE));
+
+        final long start = System.nanoTime();
+        assertThrows(
+                TimeoutException.class,
+                () ->
+                        new BalanceWatcher(web3j, 50, 400)
+                                .awaitFunding(
+                                        ADDRESS, TRANSACTION_HASH, 500, TimeUnit.MILLISECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        assertEquals(1, node.calls("eth_uninstallFilter"));
+    }
+
+    private void start(final Node node) throws IOException {
+        this.node = node;
+        node.start();
+        web3j = Web3j.build(new HttpService(node.url()));
+    }
+
+    /** A JSON-RPC node producing a block every interval, which mines the funding at a block. */
+    private static class Node {
+        private final boolean supportsFilters;
+        private final long blockMillis;
+        private final int fundingBlock;
+        private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        private final Gson gson = new Gson();
+        private long startMillis;
+        private long lastSeenBlock;
+        private HttpServer server;
+
+        Node(final boolean supportsFilters, final long blockMillis, final int fundingBlock) {
+            this.supportsFilters = supportsFilters;
+            this.blockMillis = blockMillis;
+            this.fundingBlock = fundingBlock;
+        }
+
+        void start() throws IOException {
+            startMillis = System.currentTimeMillis();
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", this::handle);
+            server.start();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        String url() {
+            return "http://localhost:" + server.getAddress().getPort();
+        }
+
+        int calls(final String method) {
+            final AtomicInteger count = calls.get(method);
+            return count == null ? 0 : count.get();
+        }
+
+        int totalCalls() {
+            return calls.values().stream().mapToInt(AtomicInteger::get).sum();
+        }
+
+        private long blockNumber() {
+            return (System.currentTimeMillis() - startMillis) / blockMillis;
+        }
+
+        private synchronized void handle(final HttpExchange exchange) throws IOException {
+            final JsonObject request =
+                    JsonParser.parseString(new String(readAll(exchange), StandardCharsets.UTF_8))
+                            .getAsJsonObject();
+            final String method = request.get("method").getAsString();
+            calls.computeIfAbsent(method, name -> new AtomicInteger()).incrementAndGet();
+
+            final JsonObject response = new JsonObject();
+            response.addProperty("jsonrpc", "2.0");
+            response.add("id", request.get("id"));
+            final long block = blockNumber();
+            final boolean funded = block >= fundingBlock;
+            switch (method) {
+                case "eth_blockNumber":
+                    response.addProperty("result", "0x" + Long.toHexString(block));
+                    break;
+                case "eth_newBlockFilter":
+                    if (supportsFilters) {
+                        lastSeenBlock = block;
+                        response.addProperty("result", "0x1");
+                    } else {
+                        response.add(
+                                "error", error("the method eth_newBlockFilter is not available"));
+                    }
+                    break;
+                case "eth_getFilterChanges":
+                    final List<String> hashes = new ArrayList<>();
+                    for (long b = lastSeenBlock + 1; b <= block; b++) {
+                        hashes.add(String.format("0x%064x", b));
+                    }
+                    lastSeenBlock = block;
+                    response.add("result", gson.toJsonTree(hashes));
+                    break;
+                case "eth_uninstallFilter":
+                    response.addProperty("result", true);
+                    break;
+                case "eth_getTransactionReceipt":
+                    if (funded) {
+                        final JsonObject receipt = new JsonObject();
+                        receipt.addProperty("transactionHash", TRANSACTION_HASH);
+                        receipt.addProperty("blockNumber", "0x" + Long.toHexString(fundingBlock));
+                        receipt.addProperty("status", "0x1");
+                        response.add("result", receipt);
+                    } else {
+                        response.add("result", null);
+                    }
+                    break;
+                case "eth_getBalance":
+                    response.addProperty(
+                            "result", funded ? "0x" + FUNDED_BALANCE.toString(16) : "0x0");
+                    break;
+                default:
+                    response.add("error", error("unexpected method " + method));
+            }
+
+            final byte[] body = gson.toJson(response).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+
+        private static JsonObject error(final String message) {
+            final JsonObject error = new JsonObject();
+            error.addProperty("code", -32601);
+            error.addProperty("message", message);
+            return error;
+        }
+
+        private static byte[] readAll(final HttpExchange exchange) throws IOException {
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            final byte[] chunk = new byte[4096];
+            int read;
+            while ((read = exchange.getRequestBody().read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+            return buffer.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.config;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import com.google.gson.Gson;
+import io.epirus.console.project.utils.Folders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CliConfigTest {
+    private static final int WRITERS = 8;
+    private static final int COMMITS_PER_WRITER = 50;
+    private static final int PROCESSES = 3;
+
+    private Path configPath;
+
+    @BeforeEach
+    void setup() {
+        configPath = Paths.get(Folders.tempBuildFolder().getAbsolutePath(), ".epirus", ".config");
+    }
+
+    @Test
+    public void testChangesAreOnlyWrittenOnCommit() throws Exception {
+        final CliConfig config = ConfigManager.loadPersistentConfig(configPath);
+        final String initialContents = new String(Files.readAllBytes(configPath));
+
+        config.setLoginToken("token");
+        config.setDefaultWalletPath("wallet");
+        assertEquals(initialContents, new String(Files.readAllBytes(configPath)));
+
+        config.commit();
+        final CliConfig saved = CliConfig.read(configPath);
+        assertEquals("token", saved.getLoginToken());
+        assertEquals("wallet", saved.getDefaultWalletPath());
+        assertEquals(config.getClientId(), saved.getClientId());
+    }
+
+    @Test
+    public void testCommitKeepsChangesOfOtherInvocations() throws Exception {
+        final CliConfig first = ConfigManager.loadPersistentConfig(configPath);
+        final CliConfig second = ConfigManager.loadPersistentConfig(configPath);
+
+        first.setLoginToken("token");
+        second.setLatestVersion("9.9.9");
+        first.commit();
+        second.commit();
+
+        final CliConfig saved = CliConfig.read(configPath);
+        assertEquals("token", saved.getLoginToken());
+        assertEquals("9.9.9", saved.getLatestVersion());
+        assertEquals("token", second.getLoginToken());
+        assertNull(saved.getDefaultWalletPath());
+    }
+
+    @Test
+    public void testParallelWritersDoNotCorruptOrClobberTheConfig() throws Exception {
+        final String clientId = ConfigManager.loadPersistentConfig(configPath).getClientId();
+        final List<Process> processes = new ArrayList<>();
+        for (int i = 0; i < PROCESSES; i++) {
+            processes.add(startWriterProcess(configPath, "process-" + i));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(WRITERS + 1);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final Future<?> reader =
+                executor.submit(
+                        () -> {
+                            while (writing.get()) {
+                                // the file must be complete whenever somebody reads it
+                                assertNotNull(CliConfig.read(configPath).getClientId());
+                            }
+                            return null;
+                        });
+        final List<Future<?>> writers = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            final int writer = i;
+            writers.add(
+                    executor.submit(
+                            () -> {
+                                for (int commit = 0; commit < COMMITS_PER_WRITER; commit++) {
+                                    final CliConfig config =
+                                            ConfigManager.loadPersistentConfig(configPath);
+                                    if (writer % 2 == 0) {
+                                        config.setLoginToken("token-" + writer);
+                                    } else {
+                                        config.setLatestVersion("1.0." + writer);
+                                    }
+                                    config.setLastUpdateCheck(commit);
+                                    config.commit();
+                                }
+                                return null;
+                            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        for (Process process : processes) {
+            assertTrue(process.waitFor(60, TimeUnit.SECONDS));
+            assertEquals(0, process.exitValue());
+        }
+        writing.set(false);
+        reader.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        final CliConfig saved = CliConfig.read(configPath);
+        assertEquals(clientId, saved.getClientId());
+        assertTrue(saved.getLoginToken().startsWith("token-"));
+        assertTrue(saved.getLatestVersion().startsWith("1.0."));
+        assertTrue(saved.getDefaultWalletPath().startsWith("process-"));
+        try (Stream<Path> files = Files.list(configPath.getParent())) {
+            assertFalse(files.anyMatch(file -> file.toString().endsWith(".tmp")));
+        }
+    }
+
+    /** Entry point of the writer processes started by the stress test. */
+    public static void main(String[] args) throws Exception {
+        final Path configPath = Paths.get(args[0]);
+        for (int commit = 0; commit < COMMITS_PER_WRITER; commit++) {
+            final CliConfig config = ConfigManager.loadPersistentConfig(configPath);
+            config.setDefaultWalletPath(args[1]);
+            config.commit();
+        }
+    }
+
+    private static Process startWriterProcess(Path configPath, String walletPath) throws Exception {
+        final String classpath =
+                String.join(
+                        File.pathSeparator,
+                        codeSource(CliConfig.class),
+                        codeSource(CliConfigTest.class),
+                        codeSource(Gson.class));
+        return new ProcessBuilder(
+                        Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                        "-cp",
+                        classpath,
+                        CliConfigTest.class.getName(),
+                        configPath.toString(),
+                        walletPath)
+                .inheritIO()
+                .start();
+    }
+
+    private static String codeSource(Class<?> type) throws URISyntaxException {
+        return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.daemon;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.OptionalInt;
+import java.util.Scanner;
+
+import io.epirus.console.project.utils.Folders;
+import io.epirus.console.utils.CliEnvironment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DaemonServerTest {
+    private static final String DIRECTORY = "/projects/epirus";
+
+    private File stateFile;
+    private DaemonServer server;
+    private int port;
+    private Thread serverThread;
+    private final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        stateFile = new File(Folders.tempBuildFolder(), "daemon.properties");
+        server =
+                new DaemonServer(
+                        DIRECTORY,
+                        stateFile,
+                        (args, environment) -> {
+                            if (args[0].equals("echo")) {
+                                System.out.print(String.join(" ", args));
+                                System.err.print(environment.get("EPIRUS_TEST"));
+                                return 3;
+                            }
+                            if (args[0].equals("env")) {
+                                System.out.print(CliEnvironment.get("EPIRUS_TEST"));
+                                return 0;
+                            }
+                            System.out.print("read " + new Scanner(System.in).nextLine());
+                            return 0;
+                        });
+        port = server.start();
+        serverThread = new Thread(server::serve);
+        serverThread.start();
+    }
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        server.close();
+        serverThread.join(5000);
+    }
+
+    @Test
+    public void testOutputAndExitCodeAreForwarded() {
+        OptionalInt result = forward(DIRECTORY, "", "echo", "wallet", "create");
+
+        assertEquals(OptionalInt.of(3), result);
+        assertEquals("echo wallet create", output(stdout));
+        assertEquals("value", output(stderr));
+    }
+
+    @Test
+    public void testClientEnvironmentIsUsedForTheCommand() {
+        OptionalInt result = forward(DIRECTORY, "", "env");
+
+        assertEquals(OptionalInt.of(0), result);
+        assertEquals("value", output(stdout));
+        assertFalse(CliEnvironment.isForwarded());
+    }
+
+    @Test
+    public void testStandardInputIsForwarded() {
+        OptionalInt result = forward(DIRECTORY, "password\n", "read");
+
+        assertEquals(OptionalInt.of(0), result);
+        assertEquals("read password", output(stdout));
+    }
+
+    @Test
+    public void testOtherDirectoriesFallBackToLocalExecution() {
+        assertFalse(forward("/projects/other", "", "echo").isPresent());
+    }
+
+    @Test
+    public void testMissingDaemonFallsBackToLocalExecution() throws Exception {
+        server.close();
+        serverThread.join(5000);
+
+        assertFalse(forward(DIRECTORY, "", "echo").isPresent());
+    }
+
+    @Test
+    public void testSilentConnectionDoesNotBlockTheDaemon() throws Exception {
+        try (Socket ignored = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            OptionalInt result = forward(DIRECTORY, "", "echo", "wallet");
+
+            assertEquals(OptionalInt.of(3), result);
+            assertEquals("echo wallet", output(stdout));
+        }
+    }
+
+    @Test
+    public void testOversizedRequestDoesNotStopTheDaemon() throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                DataOutputStream out = new DataOutputStream(socket.getOutputStream())) {
+            out.writeByte(DaemonProtocol.REQUEST_RUN);
+            out.writeInt(Integer.MAX_VALUE);
+            out.flush();
+            // the daemon drops the connection without allocating the token
+            assertEquals(-1, socket.getInputStream().read());
+        }
+
+        assertEquals(OptionalInt.of(3), forward(DIRECTORY, "", "echo"));
+    }
+
+    @Test
+    public void testStop() throws Exception {
+        assertTrue(DaemonClient.stop(stateFile));
+        serverThread.join(5000);
+
+        assertFalse(serverThread.isAlive());
+        assertFalse(stateFile.exists());
+    }
+
+    private OptionalInt forward(String directory, String input, String... args) {
+        return DaemonClient.forward(
+                stateFile,
+                directory,
+                args,
+                Collections.singletonMap("EPIRUS_TEST", "value"),
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(stdout),
+                new PrintStream(stderr));
+    }
+
+    private static String output(ByteArrayOutputStream stream) {
+        return new String(stream.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
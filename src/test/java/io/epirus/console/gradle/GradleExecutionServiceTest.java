@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.gradle;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.gradle.tooling.BuildCancelledException;
+import org.gradle.tooling.BuildException;
+import org.gradle.tooling.BuildLauncher;
+import org.gradle.tooling.CancellationToken;
+import org.gradle.tooling.GradleConnectionException;
+import org.gradle.tooling.ProjectConnection;
+import org.gradle.tooling.events.OperationType;
+import org.gradle.tooling.events.ProgressListener;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GradleExecutionServiceTest {
+
+    private final File projectDir = new File("build/tmp/gradle-execution/project");
+    private final File otherProjectDir = new File("build/tmp/gradle-execution/other");
+    private final List<File> connected = new ArrayList<>();
+    private final List<ProjectConnection> connections = new ArrayList<>();
+    private final BuildLauncher launcher = mock(BuildLauncher.class, RETURNS_SELF);
+
+    private GradleExecutionService newService() {
+        return new GradleExecutionService(
+                dir -> {
+                    connected.add(dir);
+                    final ProjectConnection connection = mock(ProjectConnection.class);
+                    when(connection.newBuild()).thenReturn(launcher);
+                    connections.add(connection);
+                    return connection;
+                });
+    }
+
+    @Test
+    public void testConnectionIsReusedPerProject() {
+        final GradleExecutionService service = newService();
+        service.newBuild(projectDir, "build").run();
+        service.newBuild(new File(projectDir, "../project"), "test").run();
+        service.newBuild(otherProjectDir, "run").run();
+
+        assertEquals(2, connected.size());
+        verify(launcher).forTasks("build");
+        verify(launcher).forTasks("test");
+        verify(launcher, times(3)).run();
+
+        service.close();
+        connections.forEach(connection -> verify(connection).close());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBuildIsConfigured() {
+        final ProgressListener listener = event -> {};
+        newService()
+                .newBuild(projectDir, "run")
+                .withArguments("-q")
+                .withEnvironment(Collections.singletonMap("DEPLOY_NETWORK", "rinkeby"))
+                .withOutput(System.out, System.err)
+                .withProgressListener(listener, OperationType.TASK)
+                .run();
+
+        final ArgumentCaptor<Map<String, String>> environment = ArgumentCaptor.forClass(Map.class);
+        verify(launcher).setEnvironmentVariables(environment.capture());
+        assertEquals("rinkeby", environment.getValue().get("DEPLOY_NETWORK"));
+        assertEquals(System.getenv("PATH"), environment.getValue().get("PATH"));
+        verify(launcher).withArguments(Collections.singletonList("-q"));
+        verify(launcher).setStandardOutput(System.out);
+        verify(launcher).addProgressListener(listener, OperationType.TASK);
+    }
+
+    @Test
+    public void testBuildWithoutEnvironmentInheritsDaemonEnvironment() {
+        newService().newBuild(projectDir, "build").run();
+        verify(launcher, never()).setEnvironmentVariables(any());
+    }
+
+    @Test
+    public void testBuildFailureKeepsConnection() {
+        final GradleExecutionService service = newService();
+        doThrow(new BuildException("Tests failed", null)).when(launcher).run();
+
+        assertThrows(BuildException.class, () -> service.newBuild(projectDir, "test").run());
+        assertThrows(BuildException.class, () -> service.newBuild(projectDir, "test").run());
+        assertEquals(1, connected.size());
+    }
+
+    @Test
+    public void testConnectionFailureReconnects() {
+        final GradleExecutionService service = newService();
+        doThrow(new GradleConnectionException("Daemon disappeared")).when(launcher).run();
+
+        assertThrows(
+                GradleConnectionException.class, () -> service.newBuild(projectDir, "build").run());
+        verify(connections.get(0)).close();
+        assertThrows(
+                GradleConnectionException.class, () -> service.newBuild(projectDir, "build").run());
+        assertEquals(2, connected.size());
+    }
+
+    @Test
+    public void testRunningBuildsAreCancelled() throws Exception {
+        final GradleExecutionService service = newService();
+        final AtomicReference<CancellationToken> token = new AtomicReference<>();
+        final CountDownLatch started = new CountDownLatch(1);
+        doAnswer(
+                        invocation -> {
+                            token.set(invocation.getArgument(0));
+                            return launcher;
+                        })
+                .when(launcher)
+                .withCancellationToken(any());
+        doAnswer(
+                        invocation -> {
+                            started.countDown();
+                            while (!token.get().isCancellationRequested()) {
+                                Thread.sleep(10);
+                            }
+                            throw new BuildCancelledException("Build cancelled");
+                        })
+                .when(launcher)
+                .run();
+
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        final Thread build =
+                new Thread(
+                        () -> {
+                            try {
+                                service.newBuild(projectDir, "run").run();
+                            } catch (Exception e) {
+                                failure.set(e);
+                            }
+                        });
+        build.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        service.cancelAll();
+        build.join(5000);
+
+        assertTrue(failure.get() instanceof BuildCancelledException);
+    }
+}
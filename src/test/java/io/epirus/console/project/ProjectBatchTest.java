@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.project;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.epirus.console.gradle.GradleExecutionService;
+import io.epirus.console.project.utils.Folders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProjectBatchTest {
+
+    private Path folder;
+
+    @BeforeEach
+    public void createFolder() {
+        folder = Folders.tempBuildFolder().toPath();
+    }
+
+    @Test
+    public void testLoadBatch() throws IOException {
+        final ProjectBatch batch =
+                load(
+                        "[{\"name\": \"Token\", \"package\": \"io.epirus.token\", \"solidityPath\": \"contracts\"},"
+                                + "{\"name\": \"Greeter\", \"package\": \"io.epirus.greeter\", \"type\": \"kotlin\"},"
+                                + "{\"name\": \"Api\", \"package\": \"io.epirus.api\", \"type\": \"openapi\","
+                                + " \"abis\": [\"Api.abi\"], \"bins\": [\"Api.bin\"], \"outputDir\": \"apis\"}]");
+
+        assertEquals(3, batch.getEntries().size());
+        final ProjectBatch.Entry token = batch.getEntries().get(0);
+        assertEquals("Token", token.getName());
+        assertEquals("io.epirus.token", token.getPackageName());
+        assertEquals(ProjectBatch.Type.JAVA, token.getType());
+        assertFalse(token.withTests());
+        assertEquals(".", token.getOutputDir("."));
+
+        final ProjectBatch.Entry greeter = batch.getEntries().get(1);
+        assertEquals(ProjectBatch.Type.KOTLIN, greeter.getType());
+        assertNull(greeter.getSolidityPath());
+        assertTrue(greeter.withTests());
+
+        final ProjectBatch.Entry api = batch.getEntries().get(2);
+        assertEquals(ProjectBatch.Type.OPENAPI, api.getType());
+        assertEquals(new File("Api.abi"), api.getAbis().get(0));
+        assertEquals(new File("Api.bin"), api.getBins().get(0));
+        assertEquals("apis", api.getOutputDir("."));
+    }
+
+    @Test
+    public void testInvalidBatchIsRejected() {
+        assertThrows(IOException.class, () -> load("{\"name\": \"Token\"}"));
+        assertThrows(IOException.class, () -> load("[{\"name\": \"Token\"}]"));
+        assertThrows(
+                IOException.class,
+                () -> load("[{\"name\": \"1Token\", \"package\": \"io.epirus.token\"}]"));
+        assertThrows(
+                IOException.class,
+                () ->
+                        load(
+                                "[{\"name\": \"Token\", \"package\": \"io.epirus.token\"},"
+                                        + "{\"name\": \"Token\", \"package\": \"io.epirus.other\"}]"));
+    }
+
+    @Test
+    public void testExistingProjectFailsWithoutStoppingTheBatch() throws Exception {
+        Files.createDirectories(folder.resolve("Token"));
+        final ProjectBatch batch =
+                load("[{\"name\": \"Token\", \"package\": \"io.epirus.token\"}]");
+
+        final ProjectBatchRunner.Report report =
+                new ProjectBatchRunner(batch, folder.toString(), BuildScope.NONE, 2).run();
+
+        assertEquals(1, report.getResults().size());
+        assertEquals(ProjectBatchRunner.Status.FAILED, report.getResults().get(0).getStatus());
+        assertTrue(report.hasFailures());
+        assertTrue(report.format().contains("Token"));
+    }
+
+    @Test
+    public void testBuildLimitIsRestoredAfterTheBatch() throws Exception {
+        final GradleExecutionService gradle = GradleExecutionService.getInstance();
+        final int maxConcurrentBuilds = gradle.getMaxConcurrentBuilds();
+        Files.createDirectories(folder.resolve("Token"));
+
+        new ProjectBatchRunner(
+                        load("[{\"name\": \"Token\", \"package\": \"io.epirus.token\"}]"),
+                        folder.toString(),
+                        BuildScope.NONE,
+                        2)
+                .run();
+
+        assertEquals(maxConcurrentBuilds, gradle.getMaxConcurrentBuilds());
+    }
+
+    private ProjectBatch load(final String json) throws IOException {
+        final Path batchFile = folder.resolve("batch.json");
+        Files.write(batchFile, json.getBytes(StandardCharsets.UTF_8));
+        return ProjectBatch.load(batchFile);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.project;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.epirus.console.project.utils.Folders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProjectManifestTest {
+
+    private Path projectRoot;
+
+    @BeforeEach
+    public void createProject() throws IOException {
+        projectRoot = Folders.tempBuildFolder().toPath();
+        write("build.gradle", "apply plugin: 'java'");
+        write("src/main/solidity/HelloWorld.sol", "contract HelloWorld {}");
+    }
+
+    @Test
+    public void testUnchangedProjectIsUpToDate() throws IOException {
+        assertFalse(ProjectManifest.exists(projectRoot));
+        ProjectManifest.create(projectRoot, "inputs").save(projectRoot);
+
+        assertTrue(ProjectManifest.exists(projectRoot));
+        assertTrue(ProjectManifest.load(projectRoot).isUpToDate(projectRoot, "inputs"));
+        assertFalse(ProjectManifest.load(projectRoot).isUpToDate(projectRoot, "other inputs"));
+    }
+
+    @Test
+    public void testBuildOutputsAreIgnored() throws IOException {
+        ProjectManifest.create(projectRoot, "inputs").save(projectRoot);
+        write("build/classes/java/main/HelloWorld.class", "class");
+        write(".gradle/6.2/fileHashes.bin", "hashes");
+
+        assertTrue(ProjectManifest.load(projectRoot).isUpToDate(projectRoot, "inputs"));
+    }
+
+    @Test
+    public void testModifiedProjectIsNotUpToDate() throws IOException {
+        ProjectManifest.create(projectRoot, "inputs").save(projectRoot);
+        write("src/main/solidity/HelloWorld.sol", "contract HelloWorld { uint x; }");
+        assertFalse(ProjectManifest.load(projectRoot).isUnmodified(projectRoot));
+
+        write("src/main/solidity/HelloWorld.sol", "contract HelloWorld {}");
+        write("src/main/solidity/Added.sol", "contract Added {}");
+        assertFalse(ProjectManifest.load(projectRoot).isUnmodified(projectRoot));
+    }
+
+    @Test
+    public void testDeleteFilesRemovesGeneratedFilesOnly() throws IOException {
+        ProjectManifest.create(projectRoot, "inputs").save(projectRoot);
+        write("build/libs/project.jar", "jar");
+        ProjectManifest.load(projectRoot).deleteFiles(projectRoot);
+
+        assertFalse(Files.exists(projectRoot.resolve("build.gradle")));
+        assertFalse(Files.exists(projectRoot.resolve("src/main/solidity/HelloWorld.sol")));
+        assertTrue(Files.exists(projectRoot.resolve("build/libs/project.jar")));
+        assertNull(ProjectManifest.load(projectRoot));
+    }
+
+    @Test
+    public void testInputsHashContent() throws IOException {
+        final Path solidity = projectRoot.resolve("src/main/solidity");
+        final String hash = new ProjectManifest.Inputs().add("import").addContent(solidity).hash();
+
+        assertEquals(hash, new ProjectManifest.Inputs().add("import").addContent(solidity).hash());
+        assertNotEquals(hash, new ProjectManifest.Inputs().add("new").addContent(solidity).hash());
+
+        write("src/main/solidity/HelloWorld.sol", "contract HelloWorld { uint x; }");
+        assertNotEquals(
+                hash, new ProjectManifest.Inputs().add("import").addContent(solidity).hash());
+    }
+
+    private void write(final String file, final String content) throws IOException {
+        final Path path = projectRoot.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.project;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import io.epirus.console.project.utils.Folders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SolidityImporterTest {
+
+    private Path source;
+    private Path destination;
+
+    @BeforeEach
+    public void createSources() throws IOException {
+        final Path folder = Folders.tempBuildFolder().toPath();
+        source = folder.resolve("contracts");
+        destination = folder.resolve("solidity");
+        write("Token.sol", "contract Token {}");
+        write("lib/openzeppelin/ERC20.sol", "contract ERC20 {}");
+        write("README.md", "# Contracts");
+        write("test/token.js", "contract('Token')");
+        write(".git/objects/Hidden.sol", "contract Hidden {}");
+    }
+
+    @Test
+    public void testOnlySolidityFilesAreImported() throws IOException {
+        final SolidityImporter.Result result =
+                new SolidityImporter(2).importSolidity(source, destination);
+
+        assertEquals(2, result.getCopied());
+        assertEquals("contract ERC20 {}", read(destination.resolve("lib/openzeppelin/ERC20.sol")));
+        assertTrue(Files.exists(destination.resolve("Token.sol")));
+        assertFalse(Files.exists(destination.resolve("README.md")));
+        assertFalse(Files.exists(destination.resolve("test")));
+        assertFalse(Files.exists(destination.resolve(".git")));
+    }
+
+    @Test
+    public void testUnchangedFilesAreSkipped() throws IOException {
+        final SolidityImporter importer = new SolidityImporter(2);
+        importer.importSolidity(source, destination);
+
+        final SolidityImporter.Result unchanged = importer.importSolidity(source, destination);
+        assertEquals(0, unchanged.getCopied());
+        assertEquals(2, unchanged.getSkipped());
+
+        write("Token.sol", "contract Token { uint supply; }");
+        Files.setLastModifiedTime(
+                source.resolve("Token.sol"),
+                FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        final SolidityImporter.Result changed = importer.importSolidity(source, destination);
+        assertEquals(1, changed.getCopied());
+        assertEquals("contract Token { uint supply; }", read(destination.resolve("Token.sol")));
+    }
+
+    @Test
+    public void testLargeTreeIsImportedConcurrently() throws IOException {
+        for (int i = 0; i < 500; i++) {
+            write(
+                    "vendor/v" + (i % 10) + "/Contract" + i + ".sol",
+                    "contract Contract" + i + " {}");
+        }
+        final SolidityImporter.Result result =
+                new SolidityImporter(4).importSolidity(source, destination);
+
+        assertEquals(502, result.getCopied());
+        assertEquals(
+                "contract Contract499 {}", read(destination.resolve("vendor/v9/Contract499.sol")));
+    }
+
+    @Test
+    public void testSingleFileIsImported() throws IOException {
+        final SolidityImporter.Result result =
+                new SolidityImporter().importSolidity(source.resolve("Token.sol"), destination);
+
+        assertEquals(1, result.getCopied());
+        assertEquals("contract Token {}", read(destination.resolve("Token.sol")));
+    }
+
+    private void write(final String file, final String content) throws IOException {
+        final Path path = source.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(final Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.project.templates;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TemplateTest {
+
+    @Test
+    public void testPlaceholdersAreReplaced() throws IOException {
+        final Template template =
+                Template.compile("package <package_name>;\n\nclass <project_name> {}\n");
+        final Map<String, String> values = values("io.epirus.test", "Test");
+
+        assertEquals("package io.epirus.test;\n\nclass Test {}\n", template.render(values));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        template.render(values, out);
+        assertEquals(
+                template.render(values), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testPlaceholdersWithoutValueAreKept() {
+        final Template template = Template.compile("<project_name> <other> List<String> a < b");
+        assertEquals(
+                "Test <other> List<String> a < b",
+                template.render(Collections.singletonMap(Template.PROJECT_NAME, "Test")));
+        assertEquals("", Template.compile("").render(Collections.emptyMap()));
+    }
+
+    @Test
+    public void testTemplatesAreCached() throws IOException {
+        assertSame(
+                TemplateReader.readTemplate("project/build.gradle.template"),
+                TemplateReader.readTemplate("project/build.gradle.template"));
+    }
+
+    @Test
+    public void testProjectTemplatesRenderLikeReplaceAll() throws IOException {
+        final File[] templates =
+                new File(String.join(File.separator, "src", "main", "resources", "project"))
+                        .listFiles((dir, name) -> name.endsWith(".template"));
+        for (File file : templates) {
+            final String name = "project/" + file.getName();
+            final String expected =
+                    TemplateReader.readFile(name)
+                            .replaceAll("<package_name>", "io.epirus.sample")
+                            .replaceAll("<project_name>", "Sample");
+            assertEquals(
+                    expected,
+                    TemplateReader.readTemplate(name).render(values("io.epirus.sample", "Sample")),
+                    name);
+        }
+    }
+
+    private static Map<String, String> values(final String packageName, final String projectName) {
+        final Map<String, String> values = new HashMap<>();
+        values.put(Template.PACKAGE_NAME, packageName);
+        values.put(Template.PROJECT_NAME, projectName);
+        return values;
+    }
+}
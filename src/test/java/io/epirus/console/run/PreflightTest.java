@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.run;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PreflightTest {
+
+    @Test
+    public void testChecksRunConcurrently() throws Exception {
+        final long start = System.nanoTime();
+        try (Preflight preflight = new Preflight(10, TimeUnit.SECONDS)) {
+            final Future<String> account = preflight.submit("account", () -> sleep(500, "active"));
+            final Future<Integer> balance = preflight.submit("balance", () -> sleep(500, 0));
+            final Future<Boolean> gradle = preflight.submit("gradle", () -> sleep(500, true));
+
+            assertEquals("active", preflight.await(account));
+            assertEquals(0, (int) preflight.await(balance));
+            assertTrue(preflight.await(gradle));
+            assertEquals("funded", preflight.run("funding", () -> sleep(100, "funded")));
+
+            final List<Preflight.Timing> timings = preflight.getTimings();
+            assertEquals(4, timings.size());
+            for (Preflight.Timing timing : timings) {
+                assertTrue(timing.getDurationMillis() >= 100);
+            }
+            assertTrue(preflight.formatTimings().contains("funding"));
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1400);
+    }
+
+    @Test
+    public void testDeadlineCancelsChecks() throws Exception {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        try (Preflight preflight = new Preflight(200, TimeUnit.MILLISECONDS)) {
+            final Future<Boolean> slow =
+                    preflight.submit(
+                            "slow",
+                            () -> {
+                                try {
+                                    return sleep(10_000, true);
+                                } catch (InterruptedException e) {
+                                    interrupted.countDown();
+                                    throw e;
+                                }
+                            });
+
+            assertThrows(TimeoutException.class, () -> preflight.await(slow));
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testDependentStepIsBoundedByTheDeadline() {
+        final long start = System.nanoTime();
+        try (Preflight preflight = new Preflight(200, TimeUnit.MILLISECONDS)) {
+            assertThrows(
+                    TimeoutException.class,
+                    () -> preflight.run("funding", () -> sleep(10_000, "funded")));
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+    }
+
+    @Test
+    public void testCheckFailureIsRethrown() {
+        try (Preflight preflight = new Preflight(10, TimeUnit.SECONDS)) {
+            final Future<Object> failing =
+                    preflight.submit(
+                            "failing",
+                            () -> {
+                                throw new IOException("node unreachable");
+                            });
+
+            assertEquals(
+                    "node unreachable",
+                    assertThrows(IOException.class, () -> preflight.await(failing)).getMessage());
+        }
+    }
+
+    private static <T> T sleep(final long millis, final T result) throws InterruptedException {
+        Thread.sleep(millis);
+        return result;
+    }
+}
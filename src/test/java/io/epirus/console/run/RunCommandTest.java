@@ -36,11 +36,8 @@ public class RunCommandTest extends ProjectTest {
     public void testAccountDeployment() throws Exception {
         AccountService accountService = mock(AccountService.class);
         Web3j web3j = mock(Web3j.class);
-        when(accountService.pollForAccountBalance(
-                        any(Credentials.class),
-                        any(Network.class),
-                        any(Web3j.class),
-                        any(int.class)))
+        when(accountService.waitForFunding(
+                        any(Credentials.class), any(Web3j.class), any(String.class)))
                 .thenReturn(BigInteger.TEN);
         when(accountService.checkIfAccountIsConfirmed(20)).thenReturn(true);
         RunCommand runCommand =
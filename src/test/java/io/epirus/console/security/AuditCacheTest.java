@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.epirus.console.project.utils.Folders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AuditCacheTest {
+
+    private Path contracts;
+    private Path cacheFile;
+
+    @BeforeEach
+    public void createContracts() throws IOException {
+        final Path project = Folders.tempBuildFolder().toPath().toAbsolutePath();
+        contracts = project.resolve("contracts");
+        cacheFile = project.resolve("build").resolve(AuditCache.FILE_NAME);
+        for (int i = 0; i < 40; i++) {
+            write("c" + i % 4 + "/Contract" + i + ".sol", "contract Contract" + i + " {}");
+        }
+        write("Token.vy", "# vyper");
+    }
+
+    @Test
+    public void testCachedFindingsAreTheAuditedFindings() throws Exception {
+        final CountingAuditor auditor = new CountingAuditor("rules-1", 0);
+        final AuditRunner.Result uncached = new AuditRunner(4, () -> auditor).run(contracts);
+        final AuditRunner.Result first =
+                new AuditRunner(4, () -> auditor).run(contracts, cacheFile);
+        final FileTime written = Files.getLastModifiedTime(cacheFile);
+        auditor.audited.set(0);
+        final AuditRunner.Result rerun =
+                new AuditRunner(4, () -> auditor).run(contracts, cacheFile);
+
+        assertEquals(0, auditor.audited.get());
+        assertEquals(0, first.getCachedFileCount());
+        assertEquals(41, rerun.getCachedFileCount());
+        assertEquals(
+                new ArrayList<>(uncached.getFindings().keySet()),
+                new ArrayList<>(rerun.getFindings().keySet()));
+        assertEquals(uncached.getFindings(), first.getFindings());
+        assertEquals(uncached.getFindings(), rerun.getFindings());
+        assertEquals(written, Files.getLastModifiedTime(cacheFile));
+    }
+
+    @Test
+    public void testNoChangeRerunSkipsTheAnalysis() throws Exception {
+        final CountingAuditor auditor = new CountingAuditor("rules-1", 10);
+        final AuditRunner.Result uncached =
+                new AuditRunner(1, () -> auditor).run(contracts, cacheFile);
+        final AuditRunner.Result cached =
+                new AuditRunner(1, () -> auditor).run(contracts, cacheFile);
+
+        System.out.println("Without cache: " + uncached.summary());
+        System.out.println("No-change rerun: " + cached.summary());
+        assertEquals(41, auditor.audited.get());
+        assertTrue(cached.getDurationMillis() < uncached.getDurationMillis());
+    }
+
+    @Test
+    public void testChangedContractsAreAuditedAgain() throws Exception {
+        final CountingAuditor auditor = new CountingAuditor("rules-1", 0);
+        new AuditRunner(2, () -> auditor).run(contracts, cacheFile);
+        write("c3/Contract7.sol", "contract Contract7 { function f() public {} }");
+        Files.delete(contracts.resolve("Token.vy"));
+        auditor.audited.set(0);
+
+        final AuditRunner.Result result =
+                new AuditRunner(2, () -> auditor).run(contracts, cacheFile);
+
+        assertEquals(1, auditor.audited.get());
+        assertEquals(39, result.getCachedFileCount());
+        assertEquals(40, result.getFileCount());
+        assertTrue(
+                !new String(Files.readAllBytes(cacheFile), StandardCharsets.UTF_8)
+                        .contains("Token.vy"));
+    }
+
+    @Test
+    public void testOtherRulesAuditEverythingAgain() throws Exception {
+        new AuditRunner(2, () -> new CountingAuditor("rules-1", 0)).run(contracts, cacheFile);
+        final CountingAuditor auditor = new CountingAuditor("rules-2", 0);
+
+        final AuditRunner.Result result =
+                new AuditRunner(2, () -> auditor).run(contracts, cacheFile);
+
+        assertEquals(41, auditor.audited.get());
+        assertEquals(0, result.getCachedFileCount());
+    }
+
+    @Test
+    public void testCacheIsInTheProjectBuildFolder() throws IOException {
+        final Path project = contracts.getParent();
+        Files.write(project.resolve("build.gradle"), new byte[0]);
+
+        assertEquals(cacheFile, AuditCache.location(contracts.resolve("c1")));
+        assertEquals(cacheFile, AuditCache.location(contracts.resolve("c1/Contract1.sol")));
+    }
+
+    private void write(final String file, final String content) throws IOException {
+        final Path path = contracts.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Finds one finding per line of every file, after a fixed delay standing in for parsing. */
+    private static class CountingAuditor implements FileAuditor {
+        private final String rules;
+        private final long delayMillis;
+        private final AtomicInteger audited = new AtomicInteger();
+
+        CountingAuditor(final String rules, final long delayMillis) {
+            this.rules = rules;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public boolean accepts(final Path file) {
+            return file.toString().endsWith(".sol") || file.toString().endsWith(".vy");
+        }
+
+        @Override
+        public List<AuditFinding> audit(final Path file) throws Exception {
+            audited.incrementAndGet();
+            Thread.sleep(delayMillis);
+            final List<AuditFinding> findings = new ArrayList<>();
+            final String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            for (int i = 0; i < content.length(); i += 8) {
+                findings.add(
+                        new AuditFinding(file, 1, i, i % 3, "SOLIDITY_" + i % 5, "p1", "Rule"));
+            }
+            Collections.reverse(findings);
+            return findings;
+        }
+
+        @Override
+        public String rulesVersion() {
+            return rules;
+        }
+    }
+}
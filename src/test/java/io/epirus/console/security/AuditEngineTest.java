@@ -0,0 +1,185 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.epirus.console.project.utils.Folders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import picocli.CommandLine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AuditEngineTest {
+
+    private Path contracts;
+    private final AtomicInteger audited = new AtomicInteger();
+
+    @BeforeEach
+    public void createContracts() throws IOException {
+        contracts = Folders.tempBuildFolder().toPath();
+        for (int i = 0; i < 200; i++) {
+            Files.write(
+                    contracts.resolve(String.format("Contract%03d.sol", i)),
+                    String.valueOf(i).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testFindingsAreFilteredBySeverityAndRule() throws Exception {
+        assertEquals(
+                Arrays.asList("SOLIDITY_CALL_p3", "SOLIDITY_LOOP_p2"),
+                ruleIds(new AuditEngine(RuleAuditor::new).withMinSeverity(2)));
+        assertEquals(
+                Collections.singletonList("SOLIDITY_LOOP_p2"),
+                ruleIds(
+                        new AuditEngine(RuleAuditor::new)
+                                .withIncludedRules(Arrays.asList("SOLIDITY_LOOP", "SOLIDITY_X"))));
+        assertEquals(
+                Arrays.asList("SOLIDITY_PRAGMA_p1", "SOLIDITY_LOOP_p2"),
+                ruleIds(
+                        new AuditEngine(RuleAuditor::new)
+                                .withExcludedRules(Collections.singletonList("SOLIDITY_CALL_p3"))));
+    }
+
+    @Test
+    public void testFailFastStopsAtTheFirstFailingFinding() throws Exception {
+        final List<AuditFinding> serial = new ArrayList<>();
+        final AuditRunner.Result serialResult =
+                new AuditEngine(RuleAuditor::new)
+                        .withWorkers(1)
+                        .withFailSeverity(3)
+                        .withFailFast(true)
+                        .audit(contracts, serial::add);
+        audited.set(0);
+        final List<AuditFinding> parallel = new ArrayList<>();
+        final AuditRunner.Result result =
+                new AuditEngine(RuleAuditor::new)
+                        .withWorkers(4)
+                        .withFailSeverity(3)
+                        .withFailFast(true)
+                        .audit(contracts, parallel::add);
+
+        assertEquals(serial, parallel);
+        assertEquals(serialResult.getFileCount(), result.getFileCount());
+        assertEquals(11, result.getFileCount());
+        final AuditFinding last = parallel.get(parallel.size() - 1);
+        assertEquals("Contract010.sol", last.getFile().getFileName().toString());
+        assertEquals(3, last.getSeverity());
+        assertEquals(1, result.getFailingFindingCount());
+        assertTrue(result.isStoppedEarly());
+        assertEquals(189, result.getSkippedFileCount());
+        assertTrue(audited.get() <= 11 + 4 * AuditRunner.FILES_AHEAD_PER_WORKER + 4);
+        assertEquals(AuditRunner.Result.FAILED, result.getExitCode());
+    }
+
+    @Test
+    public void testMaxFindingsStopsTheAudit() throws Exception {
+        final List<AuditFinding> findings = new ArrayList<>();
+        final AuditRunner.Result result =
+                new AuditEngine(RuleAuditor::new)
+                        .withWorkers(3)
+                        .withMinSeverity(2)
+                        .withFailSeverity(3)
+                        .withMaxFindings(5)
+                        .audit(contracts, findings::add);
+
+        assertEquals(5, findings.size());
+        assertEquals(5, result.getFindingCount());
+        assertEquals(5, result.getFileCount());
+        assertTrue(result.isStoppedEarly());
+        assertTrue(result.summary().endsWith("stopped before 195 files"));
+        assertEquals(AuditRunner.Result.PASSED, result.getExitCode());
+    }
+
+    @Test
+    public void testExitCodes() throws Exception {
+        assertEquals(
+                AuditRunner.Result.FAILED,
+                new AuditEngine(RuleAuditor::new).audit(contracts, finding -> {}).getExitCode());
+        assertEquals(
+                AuditRunner.Result.PASSED,
+                new AuditEngine(RuleAuditor::new)
+                        .withFailSeverity(4)
+                        .audit(contracts, finding -> {})
+                        .getExitCode());
+
+        Files.write(contracts.resolve("Broken.sol"), new byte[0]);
+        final AuditRunner.Result incomplete =
+                new AuditEngine(RuleAuditor::new)
+                        .withFailSeverity(4)
+                        .audit(contracts, finding -> {});
+        assertFalse(incomplete.isStoppedEarly());
+        assertEquals(1, incomplete.getFailures().size());
+        assertEquals(3, incomplete.getExitCode());
+        assertNotEquals(
+                new CommandLine(new ContractAuditCommand())
+                        .getCommandSpec()
+                        .exitCodeOnInvalidInput(),
+                incomplete.getExitCode());
+    }
+
+    private List<String> ruleIds(final AuditEngine engine) throws Exception {
+        final List<String> ruleIds = new ArrayList<>();
+        engine.audit(
+                contracts.resolve("Contract010.sol"),
+                finding -> ruleIds.add(finding.getRuleId() + "_" + finding.getPatternId()));
+        return ruleIds;
+    }
+
+    /**
+     * Finds an informational pragma and a warning loop in every contract, and a critical call in
+     * every tenth one.
+     */
+    private class RuleAuditor implements FileAuditor {
+
+        @Override
+        public boolean accepts(final Path file) {
+            return file.toString().endsWith(".sol");
+        }
+
+        @Override
+        public List<AuditFinding> audit(final Path file) throws IOException {
+            audited.incrementAndGet();
+            final String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            if (content.isEmpty()) {
+                throw new IOException("Empty contract");
+            }
+            final int number = Integer.parseInt(content);
+            final List<AuditFinding> findings = new ArrayList<>();
+            findings.add(new AuditFinding(file, 1, 0, 1, "SOLIDITY_PRAGMA", "p1", "Pragma"));
+            findings.add(new AuditFinding(file, 5, 4, 2, "SOLIDITY_LOOP", "p2", "Loop"));
+            if (number > 0 && number % 10 == 0) {
+                findings.add(new AuditFinding(file, 3, 8, 3, "SOLIDITY_CALL", "p3", "Call"));
+            }
+            return findings;
+        }
+
+        @Override
+        public String rulesVersion() {
+            return "rules";
+        }
+    }
+}
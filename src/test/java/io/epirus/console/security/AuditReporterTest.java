@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.epirus.console.project.utils.Folders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AuditReporterTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private Path contracts;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @BeforeEach
+    public void createContracts() throws IOException {
+        contracts = Folders.tempBuildFolder().toPath().toAbsolutePath();
+        for (String contract : Arrays.asList("A.sol", "B.sol", "Broken.sol", "C.sol")) {
+            Files.write(contracts.resolve(contract), contract.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testTextReportIsATablePerFile() throws Exception {
+        final AuditRunner.Result result =
+                audit(new TextAuditReporter(new PrintStream(out), new PrintStream(err)));
+
+        final String expected =
+                contracts.resolve("A.sol")
+                        + System.lineSeparator()
+                        + "   1:0   severity:1   Rule one   SOLIDITY_ONE_p1   \n"
+                        + "   3:4   severity:3   Rule two   SOLIDITY_TWO_p2   \n";
+        assertTrue(out.toString().startsWith(expected));
+        assertTrue(out.toString().endsWith(result.summary() + System.lineSeparator()));
+        assertTrue(err.toString().startsWith("Could not audit " + contracts.resolve("Broken.sol")));
+    }
+
+    @Test
+    public void testJsonLinesHaveOneFindingPerLine() throws Exception {
+        final AuditRunner.Result result = audit(new JsonLinesAuditReporter(out));
+
+        final String[] lines = out.toString("UTF-8").split("\n");
+        assertEquals(result.getFindingCount() + 1, lines.length);
+        final List<JsonNode> findings = new ArrayList<>();
+        for (String line : lines) {
+            findings.add(MAPPER.readTree(line));
+        }
+        assertEquals(contracts.resolve("A.sol").toString(), findings.get(0).get("file").asText());
+        assertEquals(3, findings.get(1).get("line").asInt());
+        assertEquals(4, findings.get(1).get("column").asInt());
+        assertEquals(3, findings.get(1).get("severity").asInt());
+        assertEquals("SOLIDITY_TWO", findings.get(1).get("ruleId").asText());
+        assertEquals("p2", findings.get(1).get("patternId").asText());
+        assertEquals("Rule two", findings.get(1).get("ruleName").asText());
+        assertEquals("parse error", findings.get(4).get("error").asText().split(": ")[1]);
+        assertEquals(contracts.resolve("C.sol").toString(), findings.get(5).get("file").asText());
+    }
+
+    @Test
+    public void testSarifLogHasResultsRulesAndFailures() throws Exception {
+        final AuditRunner.Result result = audit(new SarifAuditReporter(out));
+
+        final JsonNode log = MAPPER.readTree(out.toByteArray());
+        assertEquals("2.1.0", log.get("version").asText());
+        assertEquals(SarifAuditReporter.SCHEMA, log.get("$schema").asText());
+        final JsonNode run = log.get("runs").get(0);
+        assertEquals(result.getFindingCount(), run.get("results").size());
+
+        final JsonNode result1 = run.get("results").get(1);
+        assertEquals("SOLIDITY_TWO", result1.get("ruleId").asText());
+        assertEquals("error", result1.get("level").asText());
+        assertEquals("Rule two", result1.get("message").get("text").asText());
+        final JsonNode location = result1.get("locations").get(0).get("physicalLocation");
+        assertEquals(
+                contracts.resolve("A.sol").toUri().toString(),
+                location.get("artifactLocation").get("uri").asText());
+        assertEquals(3, location.get("region").get("startLine").asInt());
+        assertEquals(5, location.get("region").get("startColumn").asInt());
+
+        final JsonNode rules = run.get("tool").get("driver").get("rules");
+        assertEquals(2, rules.size());
+        assertEquals("SOLIDITY_ONE", rules.get(0).get("id").asText());
+        assertEquals("Rule one", rules.get(0).get("shortDescription").get("text").asText());
+
+        final JsonNode invocation = run.get("invocations").get(0);
+        assertFalse(invocation.get("executionSuccessful").asBoolean());
+        assertEquals(1, invocation.get("toolExecutionNotifications").size());
+    }
+
+    @Test
+    public void testSeveritiesMapToSarifLevels() {
+        assertEquals("note", SarifAuditReporter.level(1));
+        assertEquals("warning", SarifAuditReporter.level(2));
+        assertEquals("error", SarifAuditReporter.level(3));
+    }
+
+    private AuditRunner.Result audit(final AuditReporter reporter) throws Exception {
+        return new AuditRunner(2, FixedAuditor::new).run(contracts, null, reporter);
+    }
+
+    /** Finds the same two findings in every file, and fails to parse the broken one. */
+    private static class FixedAuditor implements FileAuditor {
+
+        @Override
+        public boolean accepts(final Path file) {
+            return file.toString().endsWith(".sol");
+        }
+
+        @Override
+        public List<AuditFinding> audit(final Path file) {
+            if (file.getFileName().toString().equals("Broken.sol")) {
+                throw new IllegalStateException("parse error");
+            }
+            return Arrays.asList(
+                    new AuditFinding(file, 3, 4, 3, "SOLIDITY_TWO", "p2", "Rule two"),
+                    new AuditFinding(file, 1, 0, 1, "SOLIDITY_ONE", "p1", "Rule one"));
+        }
+
+        @Override
+        public String rulesVersion() {
+            return "fixed";
+        }
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.epirus.console.project.utils.Folders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AuditRunnerTest {
+
+    private Path contracts;
+
+    @BeforeEach
+    public void createContracts() throws IOException {
+        contracts = Folders.tempBuildFolder().toPath();
+        for (int i = 0; i < 40; i++) {
+            write(
+                    "contracts/c" + i % 4 + "/Contract" + i + ".sol",
+                    "contract Contract" + i + " {}");
+        }
+        write("contracts/Token.vy", "# vyper");
+        write("contracts/README.md", "# Contracts");
+    }
+
+    @Test
+    public void testFindingsDoNotDependOnTheWorkers() throws Exception {
+        final AuditRunner.Result serial = new AuditRunner(1, ShuffledAuditor::new).run(contracts);
+        final AuditRunner.Result parallel = new AuditRunner(8, ShuffledAuditor::new).run(contracts);
+
+        assertEquals(41, serial.getFileCount());
+        assertEquals(
+                new ArrayList<>(serial.getFindings().keySet()),
+                new ArrayList<>(parallel.getFindings().keySet()));
+        assertEquals(serial.getAllFindings(), parallel.getAllFindings());
+        final List<AuditFinding> sorted = new ArrayList<>(parallel.getAllFindings());
+        Collections.sort(sorted);
+        assertEquals(sorted, parallel.getAllFindings());
+    }
+
+    @Test
+    public void testEachAuditorIsUsedByOneThread() throws Exception {
+        final Set<ShuffledAuditor> shared = ConcurrentHashMap.newKeySet();
+        new AuditRunner(
+                        4,
+                        () -> {
+                            final ShuffledAuditor auditor = new ShuffledAuditor();
+                            shared.add(auditor);
+                            return auditor;
+                        })
+                .run(contracts);
+
+        assertEquals(4, shared.size());
+        for (ShuffledAuditor auditor : shared) {
+            assertTrue(auditor.threads.size() <= 1);
+        }
+    }
+
+    @Test
+    public void testFailedFilesDoNotStopTheAudit() throws Exception {
+        final AuditRunner.Result result =
+                new AuditRunner(
+                                4,
+                                () ->
+                                        new ShuffledAuditor() {
+                                            @Override
+                                            public List<AuditFinding> audit(final Path file) {
+                                                if (file.toString().endsWith("Contract7.sol")) {
+                                                    throw new IllegalStateException("parse error");
+                                                }
+                                                return super.audit(file);
+                                            }
+                                        })
+                        .run(contracts);
+
+        assertEquals(1, result.getFailures().size());
+        assertEquals(40, result.getFindings().size());
+        assertEquals(41, result.getFileCount());
+    }
+
+    @Test
+    public void testReportedFindingsAreNotHeldInMemory() throws Exception {
+        auditCorpus(null);
+    }
+
+    @Test
+    public void testCachedFindingsAreNotHeldInMemory() throws Exception {
+        final Path cacheFile = contracts.resolve("build").resolve(AuditCache.FILE_NAME);
+
+        assertEquals(0, auditCorpus(cacheFile).getCachedFileCount());
+        // the second run reads every finding back from the cache file
+        assertEquals(1000, auditCorpus(cacheFile).getCachedFileCount());
+    }
+
+    private AuditRunner.Result auditCorpus(final Path cacheFile) throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            write("corpus/c" + i % 10 + "/Contract" + i + ".sol", "contract Contract" + i + " {}");
+        }
+        final AtomicInteger audited = new AtomicInteger();
+        final AtomicInteger reported = new AtomicInteger();
+        final AtomicInteger maxHeldBack = new AtomicInteger();
+        final JsonLinesAuditReporter jsonLines =
+                new JsonLinesAuditReporter(
+                        new OutputStream() {
+                            @Override
+                            public void write(final int b) {}
+
+                            @Override
+                            public void write(final byte[] b, final int off, final int len) {}
+                        });
+
+        final AuditRunner.Result result =
+                new AuditRunner(
+                                4,
+                                () ->
+                                        new ShuffledAuditor() {
+                                            @Override
+                                            public List<AuditFinding> audit(final Path file) {
+                                                final int heldBack =
+                                                        audited.incrementAndGet() - reported.get();
+                                                maxHeldBack.accumulateAndGet(heldBack, Math::max);
+                                                final List<AuditFinding> findings =
+                                                        new ArrayList<>();
+                                                for (int i = 0; i < 100; i++) {
+                                                    findings.add(
+                                                            new AuditFinding(
+                                                                    file,
+                                                                    i,
+                                                                    0,
+                                                                    1,
+                                                                    "SOLIDITY_" + i % 7,
+                                                                    "p1",
+                                                                    "Rule"));
+                                                }
+                                                return findings;
+                                            }
+                                        })
+                        .run(
+                                contracts.resolve("corpus"),
+                                cacheFile,
+                                new AuditReporter() {
+                                    @Override
+                                    public void report(
+                                            final Path file, final List<AuditFinding> findings)
+                                            throws IOException {
+                                        jsonLines.report(file, findings);
+                                        reported.incrementAndGet();
+                                    }
+
+                                    @Override
+                                    public void failed(final Path file, final Exception failure) {}
+                                });
+
+        assertEquals(100_000, result.getFindingCount());
+        assertEquals(1000, reported.get());
+        assertTrue(result.getFindings().isEmpty());
+        assertTrue(maxHeldBack.get() <= 4 * AuditRunner.FILES_AHEAD_PER_WORKER + 4);
+        return result;
+    }
+
+    @Test
+    public void testEveryAuditorIsClosed() throws Exception {
+        final Set<ShuffledAuditor> created = ConcurrentHashMap.newKeySet();
+        new AuditRunner(
+                        4,
+                        () -> {
+                            final ShuffledAuditor auditor = new ShuffledAuditor();
+                            created.add(auditor);
+                            return auditor;
+                        })
+                .run(contracts.resolve("contracts/Token.vy"));
+
+        assertEquals(1, created.size());
+        new AuditRunner(
+                        4,
+                        () -> {
+                            final ShuffledAuditor auditor = new ShuffledAuditor();
+                            created.add(auditor);
+                            return auditor;
+                        })
+                .run(contracts);
+
+        assertEquals(5, created.size());
+        for (ShuffledAuditor auditor : created) {
+            assertTrue(auditor.closed);
+        }
+    }
+
+    @Test
+    public void testAuditorSetupFailureFailsTheAudit() {
+        assertThrows(
+                IOException.class,
+                () ->
+                        new AuditRunner(
+                                        2,
+                                        () -> {
+                                            throw new IOException("no rules");
+                                        })
+                                .run(contracts));
+    }
+
+    private void write(final String file, final String content) throws IOException {
+        final Path path = contracts.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Finds a few findings per file, in a random order and after a random delay. */
+    private static class ShuffledAuditor implements FileAuditor {
+        private final Random random = new Random();
+        private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        private volatile boolean closed;
+
+        @Override
+        public boolean accepts(final Path file) {
+            return file.toString().endsWith(".sol") || file.toString().endsWith(".vy");
+        }
+
+        @Override
+        public List<AuditFinding> audit(final Path file) {
+            threads.add(Thread.currentThread());
+            final List<AuditFinding> findings = new ArrayList<>();
+            final int seed = file.getFileName().toString().length();
+            for (int i = 0; i < 5; i++) {
+                findings.add(
+                        new AuditFinding(
+                                file,
+                                seed % 7 + i,
+                                i % 2,
+                                i % 3,
+                                "SOLIDITY_" + i,
+                                "p" + i,
+                                "Rule"));
+            }
+            Collections.shuffle(findings, random);
+            try {
+                Thread.sleep(random.nextInt(3));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return findings;
+        }
+
+        @Override
+        public String rulesVersion() {
+            return "shuffled";
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.security;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import io.epirus.console.project.utils.Folders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RulesFileSystemTest {
+
+    private Path jar;
+    private URI rules;
+
+    @BeforeEach
+    public void createJar() throws IOException {
+        jar = Folders.tempBuildFolder().toPath().toAbsolutePath().resolve("rules.jar");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry("rules/solidity.xml"));
+            out.write("<rules/>".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        rules = URI.create("jar:" + jar.toUri() + "!/rules/solidity.xml");
+    }
+
+    @Test
+    public void testJarIsOpenedOnceAndClosedByTheLastUser() throws IOException {
+        final Path first = RulesFileSystem.acquire(rules);
+        final Path second = RulesFileSystem.acquire(rules);
+
+        assertTrue(first.getFileSystem() == second.getFileSystem());
+        RulesFileSystem.release(rules);
+        assertTrue(RulesFileSystem.isOpen(rules));
+        assertEquals("<rules/>", read(second));
+
+        RulesFileSystem.release(rules);
+        assertFalse(RulesFileSystem.isOpen(rules));
+        assertFalse(first.getFileSystem().isOpen());
+    }
+
+    @Test
+    public void testJarOpenedElsewhereIsLeftOpen() throws IOException {
+        try (FileSystem opened =
+                FileSystems.newFileSystem(
+                        URI.create("jar:" + jar.toUri()), Collections.<String, Object>emptyMap())) {
+            final Path path = RulesFileSystem.acquire(rules);
+            RulesFileSystem.release(rules);
+
+            assertTrue(opened.isOpen());
+            assertEquals("<rules/>", read(path));
+        }
+    }
+
+    @Test
+    public void testRulesOutsideOfAJarNeedNoFileSystem() throws IOException {
+        final Path file = jar.resolveSibling("solidity.xml");
+        Files.write(file, "<rules/>".getBytes(StandardCharsets.UTF_8));
+
+        final Path path = RulesFileSystem.acquire(file.toUri());
+        RulesFileSystem.release(file.toUri());
+
+        assertEquals(file, path);
+        assertFalse(RulesFileSystem.isOpen(file.toUri()));
+    }
+
+    private static String read(final Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.wallet;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.epirus.console.project.utils.Folders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class ProofOfWorkCheckpointTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    public void setUp() {
+        tempDir = Folders.tempBuildFolder().toPath();
+    }
+
+    @Test
+    public void testResumesOnlyMatchingSeed() {
+        final ProofOfWorkCheckpoint checkpoint =
+                new ProofOfWorkCheckpoint(tempDir.resolve(".epirus").resolve("pow.checkpoint"));
+        assertEquals(0, checkpoint.resumeFrom("seed", 5));
+
+        checkpoint.save("seed", 5, 123_456);
+
+        assertEquals(123_456, checkpoint.resumeFrom("seed", 5));
+        assertEquals(0, checkpoint.resumeFrom("seed", 6));
+        assertEquals(0, checkpoint.resumeFrom("other", 5));
+
+        checkpoint.clear();
+        assertEquals(0, checkpoint.resumeFrom("seed", 5));
+    }
+
+    @Test
+    public void testIgnoresCorruptCheckpoint() throws IOException {
+        final Path path = tempDir.resolve("pow.checkpoint");
+        Files.write(path, "{\"seed\":".getBytes());
+
+        final ProofOfWorkCheckpoint checkpoint = new ProofOfWorkCheckpoint(path);
+        assertEquals(0, checkpoint.resumeFrom("seed", 5));
+
+        checkpoint.clear();
+        assertFalse(Files.exists(path));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.wallet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import org.web3j.utils.Numeric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.web3j.crypto.Hash.sha256;
+
+public class ProofOfWorkTest {
+
+    private static final String SEED = "0x5f1d2b8f6e5f4a3c";
+
+    @Test
+    public void testLeadingZeroNibbles() {
+        final byte[] digest = new byte[32];
+        digest[2] = 0x0F;
+        assertTrue(ProofOfWork.hasLeadingZeroNibbles(digest, 5));
+        assertFalse(ProofOfWork.hasLeadingZeroNibbles(digest, 6));
+
+        digest[2] = 0x10;
+        assertTrue(ProofOfWork.hasLeadingZeroNibbles(digest, 4));
+        assertFalse(ProofOfWork.hasLeadingZeroNibbles(digest, 5));
+    }
+
+    @Test
+    public void testWriteDigits() {
+        final byte[] digits = new byte[10];
+        assertEquals(9, ProofOfWork.writeDigits(0, digits));
+        assertEquals(
+                String.valueOf(Integer.MAX_VALUE),
+                new String(
+                        digits,
+                        ProofOfWork.writeDigits(Integer.MAX_VALUE, digits),
+                        10,
+                        StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testSolvedNonceMatchesFaucetCheck() throws InterruptedException {
+        final ProofOfWork.Result result = new ProofOfWork(SEED, 4, 4).solve();
+
+        assertTrue(result.isFound());
+        assertTrue(result.getAttempts() > 0);
+        final String hash =
+                Numeric.toHexStringNoPrefix(
+                        sha256((result.getNonce() + SEED).getBytes(StandardCharsets.UTF_8)));
+        assertTrue(hash.startsWith("0000"), hash);
+    }
+
+    @Test
+    public void testSingleWorkerFindsLowestNonce() throws InterruptedException {
+        final ProofOfWork.Result result = new ProofOfWork(SEED, 3, 1).solve();
+
+        for (int nonce = 0; nonce < result.getNonce(); nonce++) {
+            final String hash =
+                    Numeric.toHexStringNoPrefix(
+                            sha256((nonce + SEED).getBytes(StandardCharsets.UTF_8)));
+            assertFalse(hash.startsWith("000"), hash);
+        }
+        assertEquals(result.getNonce() + 1, result.getAttempts());
+    }
+
+    @Test
+    public void testAttemptBudget() throws InterruptedException {
+        final ProofOfWork.Result result =
+                new ProofOfWork(SEED, 12, 2).withMaxAttempts(100_000).solve();
+
+        assertEquals(ProofOfWork.Status.BUDGET_EXHAUSTED, result.getStatus());
+        assertEquals(100_000, result.getAttempts());
+        assertEquals(100_000, result.getNextNonce());
+    }
+
+    @Test
+    public void testTimeBudget() throws InterruptedException {
+        final ProofOfWork.Result result =
+                new ProofOfWork(SEED, 12, 2)
+                        .withTimeout(200, TimeUnit.MILLISECONDS)
+                        .withProgressListener(progress -> {}, 50, TimeUnit.MILLISECONDS)
+                        .solve();
+
+        assertEquals(ProofOfWork.Status.BUDGET_EXHAUSTED, result.getStatus());
+        assertTrue(result.getElapsedMillis() < 2000, "stopped after " + result.getElapsedMillis());
+    }
+
+    @Test
+    public void testCancelReportsProgressAndResumePoint() throws InterruptedException {
+        final List<ProofOfWork.Progress> reports = new ArrayList<>();
+        final ProofOfWork proofOfWork =
+                new ProofOfWork(SEED, 12, 2)
+                        .withProgressListener(reports::add, 20, TimeUnit.MILLISECONDS);
+        final Thread canceller =
+                new Thread(
+                        () -> {
+                            try {
+                                Thread.sleep(200);
+                            } catch (InterruptedException ignored) {
+                            }
+                            proofOfWork.cancel();
+                        });
+        canceller.start();
+
+        final ProofOfWork.Result result = proofOfWork.solve();
+
+        assertEquals(ProofOfWork.Status.CANCELLED, result.getStatus());
+        assertTrue(proofOfWork.awaitStopped(0, TimeUnit.MILLISECONDS));
+        assertTrue(reports.size() > 1);
+        final ProofOfWork.Progress last = reports.get(reports.size() - 1);
+        assertEquals(result.getAttempts(), last.getAttempts());
+        assertTrue(last.getNextNonce() > 0);
+        assertTrue(last.getNextNonce() <= result.getAttempts());
+        assertTrue(last.getHashesPerSecond() > 0);
+        assertEquals(Math.pow(16, 12), last.getExpectedAttempts());
+    }
+
+    @Test
+    public void testResumeFindsSameNonce() throws InterruptedException {
+        final ProofOfWork.Result expected = new ProofOfWork(SEED, 4, 1).solve();
+
+        final ProofOfWork.Result interrupted =
+                new ProofOfWork(SEED, 4, 1).withMaxAttempts(expected.getNonce() / 2).solve();
+        assertFalse(interrupted.isFound());
+
+        final ProofOfWork.Result resumed =
+                new ProofOfWork(SEED, 4, 1).startingAt(interrupted.getNextNonce()).solve();
+        assertEquals(expected.getNonce(), resumed.getNonce());
+        assertEquals(expected.getNonce() - interrupted.getNextNonce() + 1, resumed.getAttempts());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ProofOfWork(SEED, 65, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ProofOfWork(SEED, 4, 0));
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.web.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import io.epirus.console.account.AccountService;
+import io.epirus.console.config.ConfigManager;
+import io.epirus.console.project.utils.Folders;
+import io.epirus.console.project.utils.ProjectUtils;
+import io.epirus.console.utils.CliEnvironment;
+import io.epirus.console.wallet.subcommands.WalletFundCommand;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.http.HttpService;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HttpClientProviderTest {
+    private WireMockServer wireMockServer;
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+        wireMockServer.start();
+        WireMock.configureFor("localhost", wireMockServer.port());
+        ConfigManager.setDevelopment();
+
+        HttpClientProvider.setClient(
+                HttpClientProvider.createClient(Collections.emptyMap())
+                        .newBuilder()
+                        .eventListener(
+                                new EventListener() {
+                                    @Override
+                                    public void callStart(Call call) {
+                                        calls.incrementAndGet();
+                                    }
+
+                                    @Override
+                                    public void connectStart(
+                                            Call call,
+                                            InetSocketAddress inetSocketAddress,
+                                            Proxy proxy) {
+                                        connections.incrementAndGet();
+                                    }
+                                })
+                        .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        HttpClientProvider.setClient(null);
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testRunFlowReusesConnection() throws Exception {
+        stubFor(
+                get(urlPathMatching("/api/users/status/.*"))
+                        .willReturn(aResponse().withStatus(200).withBody("{\"active\": true}")));
+        stubFor(
+                post(urlEqualTo("/rpc"))
+                        .willReturn(
+                                aResponse()
+                                        .withStatus(200)
+                                        .withBody(
+                                                "{\"jsonrpc\":\"2.0\",\"id\":0,\"result\":\"0x0\"}")));
+        stubFor(
+                post(urlEqualTo("/send/token"))
+                        .willReturn(aResponse().withStatus(200).withBody("{\"result\":\"0x1\"}")));
+        stubFor(post(urlEqualTo("/metadata")).willReturn(aResponse().withStatus(200)));
+
+        final Credentials credentials =
+                Credentials.create(
+                        "0x8f2a55949038a9610f50fb23b5883af3b4ecb3c3bb792cbcefbd1542c692be63");
+        final AccountService accountService = new AccountService(wireMockServer.baseUrl());
+        final Web3j web3j =
+                Web3j.build(
+                        new HttpService(
+                                wireMockServer.baseUrl() + "/rpc", HttpClientProvider.getClient()));
+        final File metadata = new File(Folders.tempBuildFolder(), "Contract_meta.json");
+        Files.write(metadata.toPath(), "{}".getBytes());
+
+        assertTrue(accountService.checkIfAccountIsConfirmed(1));
+        assertEquals(BigInteger.ZERO, accountService.getAccountBalance(credentials, web3j));
+        assertEquals(
+                "0x1",
+                WalletFundCommand.fundWallet(
+                        credentials.getAddress(),
+                        wireMockServer.baseUrl(),
+                        "token",
+                        1,
+                        0,
+                        0,
+                        HttpClientProvider.getClient()));
+        ProjectUtils.uploadFile(
+                metadata, wireMockServer.baseUrl() + "/metadata", HttpClientProvider.getClient());
+
+        assertEquals(4, calls.get());
+        assertEquals(1, connections.get());
+    }
+
+    @Test
+    void testRetriesTransientFailuresOfIdempotentRequests() throws IOException {
+        stubFor(
+                get(urlEqualTo("/status"))
+                        .inScenario("retry")
+                        .whenScenarioStateIs(Scenario.STARTED)
+                        .willReturn(aResponse().withStatus(503))
+                        .willSetStateTo("recovered"));
+        stubFor(
+                get(urlEqualTo("/status"))
+                        .inScenario("retry")
+                        .whenScenarioStateIs("recovered")
+                        .willReturn(aResponse().withStatus(200)));
+        stubFor(post(urlEqualTo("/status")).willReturn(aResponse().withStatus(503)));
+
+        final OkHttpClient client = HttpClientProvider.getClient();
+        try (Response response =
+                client.newCall(
+                                new Request.Builder()
+                                        .url(wireMockServer.baseUrl() + "/status")
+                                        .build())
+                        .execute()) {
+            assertEquals(200, response.code());
+        }
+        try (Response response =
+                client.newCall(
+                                new Request.Builder()
+                                        .url(wireMockServer.baseUrl() + "/status")
+                                        .post(RequestBody.create(new byte[0]))
+                                        .build())
+                        .execute()) {
+            assertEquals(503, response.code());
+        }
+
+        verify(2, getRequestedFor(urlEqualTo("/status")));
+        verify(1, postRequestedFor(urlEqualTo("/status")));
+    }
+
+    @Test
+    void testCallTimeoutClientSharesConnectionPool() {
+        final OkHttpClient client = HttpClientProvider.getClient(1, TimeUnit.SECONDS);
+
+        assertEquals(1000, client.callTimeoutMillis());
+        assertSame(HttpClientProvider.getClient().connectionPool(), client.connectionPool());
+        assertSame(HttpClientProvider.getClient().dispatcher(), client.dispatcher());
+    }
+
+    @Test
+    void testTimeoutsFromEnvironment() {
+        final Map<String, String> environment = new HashMap<>();
+        environment.put("EPIRUS_HTTP_CONNECT_TIMEOUT", "3");
+        environment.put("EPIRUS_HTTP_READ_TIMEOUT", "not a number");
+
+        final OkHttpClient client = HttpClientProvider.createClient(environment);
+
+        assertEquals(3000, client.connectTimeoutMillis());
+        assertEquals(
+                HttpClientProvider.DEFAULT_READ_TIMEOUT_SECONDS * 1000, client.readTimeoutMillis());
+    }
+
+    @Test
+    void testForwardedEnvironmentChangesTheTimeouts() {
+        HttpClientProvider.setClient(null);
+        final OkHttpClient processClient = HttpClientProvider.getClient();
+        try {
+            CliEnvironment.set(Collections.singletonMap("EPIRUS_HTTP_CONNECT_TIMEOUT", "3"));
+
+            assertEquals(3000, HttpClientProvider.getClient().connectTimeoutMillis());
+        } finally {
+            CliEnvironment.reset();
+        }
+        assertEquals(
+                processClient.connectTimeoutMillis(),
+                HttpClientProvider.getClient().connectTimeoutMillis());
+    }
+}
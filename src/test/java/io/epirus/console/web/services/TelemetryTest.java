@@ -12,11 +12,13 @@
  */
 package io.epirus.console.web.services;
 
-import java.io.IOException;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
-import io.epirus.console.config.ConfigManager;
+import io.epirus.console.project.utils.Folders;
+import okhttp3.OkHttpClient;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,69 +30,102 @@ import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
-import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
 import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TelemetryTest {
 
     private static WireMockServer wireMockServer;
 
+    private TelemetryUploader uploader;
+
     @BeforeEach
-    void setup() throws IOException {
+    void setup() {
         wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
         wireMockServer.start();
         WireMock.configureFor("localhost", wireMockServer.port());
-        ConfigManager.setDevelopment();
 
-        stubFor(
-                post(urlPathMatching("/api/analytics/"))
-                        .willReturn(
-                                aResponse()
-                                        .withStatus(200)
-                                        .withHeader("Content-Type", "application/json")));
+        stubAnalytics(200, 0);
+        uploader =
+                new TelemetryUploader(
+                        String.format("%s/api/analytics", wireMockServer.baseUrl()),
+                        new File(Folders.tempBuildFolder(), "telemetry.spool").toPath(),
+                        new OkHttpClient());
     }
 
     @AfterEach
     void tearDown() {
+        uploader.awaitTermination(10, TimeUnit.SECONDS);
         wireMockServer.stop();
     }
 
     @Test
     public void testExpectedTelemetryWorks() {
-        Telemetry.uploadTelemetry(
-                String.format("%s/api/analytics", wireMockServer.baseUrl()),
-                new String[] {
-                    "--telemetry", "wallet", "fund", "0xceeeefe21b2f2ea5df62ed2efde1e3f1e5540f96"
-                });
+        uploader.record("clientId", "wallet", "fund", "0xceeeefe21b2f2ea5df62ed2efde1e3f1e5540f96");
+        uploader.awaitTermination(10, TimeUnit.SECONDS);
 
         verify(
                 postRequestedFor(urlEqualTo("/api/analytics"))
-                        .withRequestBody(containing("0xceeeefe21b2f2ea5df62ed2efde1e3f1e5540f96"))
-                        .withRequestBody(notMatching(".*--telemetry.*")));
+                        .withRequestBody(containing("wallet"))
+                        .withRequestBody(containing("0xceeeefe21b2f2ea5df62ed2efde1e3f1e5540f96")));
+        assertEquals(0, uploader.getSpoolSize());
     }
 
     @Test
-    public void testFewerArgsWorks() {
-        Telemetry.uploadTelemetry(
-                String.format("%s/api/analytics", wireMockServer.baseUrl()),
-                new String[] {"--telemetry", "version"});
+    public void testNoArgsWorks() {
+        uploader.record("clientId");
+        uploader.awaitTermination(10, TimeUnit.SECONDS);
 
         verify(
                 postRequestedFor(urlEqualTo("/api/analytics"))
-                        .withRequestBody(containing("version"))
+                        .withRequestBody(containing("No args"))
                         .withRequestBody(notMatching(".*--telemetry.*")));
     }
 
     @Test
-    public void testNoArgsWorks() {
-        Telemetry.uploadTelemetry(
-                String.format("%s/api/analytics", wireMockServer.baseUrl()),
-                new String[] {"--telemetry"});
+    public void testSpooledEventsAreUploadedOnFlush() {
+        // stop the background sender so that events only accumulate in the spool
+        uploader.awaitTermination(10, TimeUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            uploader.record("clientId", "version");
+        }
+        assertEquals(5, uploader.getSpoolSize());
 
-        verify(
-                postRequestedFor(urlEqualTo("/api/analytics"))
-                        .withRequestBody(containing("No args"))
-                        .withRequestBody(notMatching(".*--telemetry.*")));
+        stubAnalytics(503, 0);
+        uploader.flush();
+        assertEquals(5, uploader.getSpoolSize());
+
+        wireMockServer.resetRequests();
+        stubAnalytics(200, 0);
+        uploader.flush();
+
+        verify(5, postRequestedFor(urlEqualTo("/api/analytics")));
+        assertEquals(0, uploader.getSpoolSize());
+    }
+
+    @Test
+    public void testSlowEndpointDoesNotDelayTheCommand() {
+        stubAnalytics(200, 5000);
+
+        final long start = System.nanoTime();
+        uploader.record("clientId", "version");
+        final boolean flushed = uploader.awaitTermination(300, TimeUnit.MILLISECONDS);
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(!flushed && elapsedMillis < 2000, "Exit took " + elapsedMillis + " ms");
+        // the event is still spooled while its upload is in flight
+        assertEquals(1, uploader.getSpoolSize());
+    }
+
+    private static void stubAnalytics(final int status, final int delayMillis) {
+        stubFor(
+                post(urlEqualTo("/api/analytics"))
+                        .willReturn(
+                                aResponse()
+                                        .withStatus(status)
+                                        .withFixedDelay(delayMillis)
+                                        .withHeader("Content-Type", "application/json")));
     }
 }
@@ -14,6 +14,7 @@ package io.epirus.console.web.services;
 
 import java.io.IOException;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
@@ -26,6 +27,8 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
@@ -35,6 +38,9 @@ import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static io.epirus.console.config.ConfigManager.config;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class UpdaterTest {
     private static WireMockServer wireMockServer;
@@ -71,6 +77,43 @@ public class UpdaterTest {
         testWorksWithVersion(currentVersion, currentVersion);
     }
 
+    @Test
+    void testFreshCacheSkipsNetworkCall() {
+        config.setLastUpdateCheck(System.currentTimeMillis());
+
+        assertFalse(Updater.scheduleUpdateCheck(updateUrl()));
+
+        verify(0, anyRequestedFor(anyUrl()));
+    }
+
+    @Test
+    void testFailedCheckIsNotRetriedOnNextStart() {
+        stubFor(
+                post(urlPathMatching("/api/epirus/versions/latest"))
+                        .willReturn(aResponse().withStatus(500)));
+
+        Updater.onlineUpdateCheck(updateUrl());
+
+        verify(1, postRequestedFor(urlEqualTo("/api/epirus/versions/latest")));
+        assertFalse(Updater.scheduleUpdateCheck(updateUrl()));
+    }
+
+    @Test
+    void testSlowUpdateServerDoesNotDelayStartup() {
+        stubFor(
+                post(urlPathMatching("/api/epirus/versions/latest"))
+                        .willReturn(aResponse().withStatus(200).withFixedDelay(10000)));
+
+        final long start = System.nanoTime();
+        assertTrue(Updater.scheduleUpdateCheck(updateUrl()));
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 1000, "Update check blocked for " + elapsedMillis + " ms");
+        // the check in flight is not recorded, but not started twice either
+        assertEquals(0, config.getLastUpdateCheck());
+        assertFalse(Updater.scheduleUpdateCheck(updateUrl()));
+    }
+
     private void testWorksWithVersion(String version, String currentVersion) {
         String validUpdateResponse =
                 String.format(
@@ -91,9 +134,7 @@ public class UpdaterTest {
                                         .withHeader("Content-Type", "application/json")
                                         .withBody(validUpdateResponse)));
 
-        Updater.onlineUpdateCheck(
-                String.format(
-                        "http://localhost:%s/api/epirus/versions/latest", wireMockServer.port()));
+        Updater.onlineUpdateCheck(updateUrl());
 
         verify(postRequestedFor(urlEqualTo("/api/epirus/versions/latest")));
 
@@ -102,7 +143,13 @@ public class UpdaterTest {
         } else {
             assertEquals(version, config.getLatestVersion());
         }
+        assertNotEquals(0, config.getLastUpdateCheck());
 
         wireMockServer.stop();
     }
+
+    private static String updateUrl() {
+        return String.format(
+                "http://localhost:%s/api/epirus/versions/latest", wireMockServer.port());
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.wrapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.epirus.console.project.utils.Folders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SolidityWrapperBatchTest {
+
+    private static final String ABI =
+            "[{\"constant\":true,\"inputs\":[],\"name\":\"value\","
+                    + "\"outputs\":[{\"name\":\"\",\"type\":\"uint256\"}],\"payable\":false,"
+                    + "\"stateMutability\":\"view\",\"type\":\"function\"}]";
+
+    private Path folder;
+
+    @BeforeEach
+    public void createContracts() throws IOException {
+        folder = Folders.tempBuildFolder().toPath();
+        write("abi/Token.abi", ABI);
+        write("abi/Greeter.abi", ABI);
+        write("abi/notes.txt", "not an abi");
+        write("bin/Token.bin", "0x6080");
+    }
+
+    @Test
+    public void testContractsArePairedByName() throws IOException {
+        final SolidityWrapperBatch batch =
+                SolidityWrapperBatch.of(
+                        Collections.singletonList(folder.resolve("abi").toFile()),
+                        Collections.singletonList(folder.resolve("bin").toFile()));
+
+        final List<SolidityWrapperBatch.Contract> contracts = batch.getContracts();
+        assertEquals(2, contracts.size());
+        assertEquals("Greeter", contracts.get(0).getName());
+        assertNull(contracts.get(0).getBinFile());
+        assertEquals("Token", contracts.get(1).getName());
+        assertEquals(folder.resolve("bin/Token.bin").toFile(), contracts.get(1).getBinFile());
+    }
+
+    @Test
+    public void testGlobsAreExpanded() throws IOException {
+        final SolidityWrapperBatch batch =
+                SolidityWrapperBatch.of(
+                        Collections.singletonList(new File(folder + "/abi/T*.abi")),
+                        Collections.singletonList(new File(folder + "/*/*.bin")));
+
+        assertEquals(1, batch.getContracts().size());
+        assertEquals("Token", batch.getContracts().get(0).getName());
+        assertEquals(
+                folder.resolve("bin/Token.bin").toFile(), batch.getContracts().get(0).getBinFile());
+    }
+
+    @Test
+    public void testDuplicateContractsAreRejected() throws IOException {
+        write("other/Token.abi", ABI);
+
+        assertThrows(
+                IOException.class,
+                () ->
+                        SolidityWrapperBatch.of(
+                                Arrays.asList(
+                                        folder.resolve("abi").toFile(),
+                                        folder.resolve("other").toFile()),
+                                Collections.emptyList()));
+    }
+
+    @Test
+    public void testWrappersAreGenerated() throws Exception {
+        write("abi/Broken.abi", "{");
+        final File destination = folder.resolve("src").toFile();
+
+        final List<SolidityWrapperBatch.Result> results =
+                SolidityWrapperBatch.of(
+                                Collections.singletonList(folder.resolve("abi").toFile()),
+                                Collections.singletonList(folder.resolve("bin").toFile()))
+                        .generate(destination, "io.epirus.contracts", true, false, 20, 2);
+
+        assertEquals(3, results.size());
+        assertEquals("Broken", results.get(0).getContract().getName());
+        assertFalse(results.get(0).isSuccessful());
+        assertTrue(results.get(1).isSuccessful());
+        assertTrue(results.get(2).isSuccessful());
+        assertTrue(new File(destination, "io/epirus/contracts/Greeter.java").exists());
+        assertTrue(new File(destination, "io/epirus/contracts/Token.java").exists());
+    }
+
+    private void write(final String file, final String content) throws IOException {
+        final Path path = folder.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
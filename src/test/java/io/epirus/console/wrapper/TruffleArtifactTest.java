@@ -0,0 +1,136 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.wrapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.epirus.console.project.utils.Folders;
+import io.epirus.console.wrapper.subcommand.TruffleGenerateCommand;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import picocli.CommandLine;
+
+import org.web3j.codegen.TruffleJsonFunctionWrapperGenerator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TruffleArtifactTest {
+
+    private static final String ABI =
+            "[{\"constant\":true,\"inputs\":[],\"name\":\"value\","
+                    + "\"outputs\":[{\"name\":\"\",\"type\":\"uint256\"}],\"payable\":false,"
+                    + "\"stateMutability\":\"view\",\"type\":\"function\"}]";
+
+    private static final String ARTIFACT =
+            "{\"contractName\":\"MetaCoin\","
+                    + "\"abi\":"
+                    + ABI
+                    + ",\"bytecode\":\"0x6080\","
+                    + "\"deployedBytecode\":\"0x6081\","
+                    + "\"sourceMap\":\"1:2:3\","
+                    + "\"source\":\"contract MetaCoin { \\\"quoted\\\" }\","
+                    + "\"ast\":{\"nodes\":[{\"abi\":[],\"bytecode\":\"0x00\"}],\"id\":1},"
+                    + "\"legacyAST\":{\"children\":[[1,2],{\"name\":\"x\"}]},"
+                    + "\"compiler\":{\"name\":\"solc\",\"version\":\"0.5.16\"},"
+                    + "\"networks\":{"
+                    + "\"5777\":{\"events\":{},\"links\":{},"
+                    + "\"address\":\"0x2a5a5f3c7e2d8a0b9f4e1e6b8d5c3a2f1e0d9c8b\","
+                    + "\"transactionHash\":\"0x01\"},"
+                    + "\"3\":{\"events\":{\"0x1\":{\"anonymous\":false}}}},"
+                    + "\"schemaVersion\":\"3.0.23\","
+                    + "\"updatedAt\":\"2020-04-01T10:00:00.000Z\"}";
+
+    private Path folder;
+
+    @BeforeEach
+    public void createFolder() {
+        folder = Folders.tempBuildFolder().toPath();
+    }
+
+    @Test
+    public void testOnlyTheWrapperFieldsAreRead() throws IOException {
+        final TruffleArtifact artifact = TruffleArtifact.read(write("MetaCoin.json", ARTIFACT));
+
+        assertEquals("MetaCoin", artifact.getContractName());
+        assertEquals(1, artifact.getAbi().size());
+        assertEquals("value", artifact.getAbi().get(0).getName());
+        assertEquals("0x6080", artifact.getBytecode());
+        assertEquals(1, artifact.getAddresses().size());
+        assertEquals(
+                "0x2a5a5f3c7e2d8a0b9f4e1e6b8d5c3a2f1e0d9c8b", artifact.getAddresses().get("5777"));
+    }
+
+    @Test
+    public void testFilesWithoutAbiAreRejected() throws IOException {
+        final File noAbi = write("NoAbi.json", "{\"contractName\":\"NoAbi\",\"ast\":{}}");
+        final File array = write("Array.json", ABI);
+
+        assertThrows(IOException.class, () -> TruffleArtifact.read(noAbi));
+        assertThrows(IOException.class, () -> TruffleArtifact.read(array));
+    }
+
+    @Test
+    public void testWrapperMatchesTruffleJsonFunctionWrapperGenerator() throws Exception {
+        final File artifact = write("MetaCoin.json", ARTIFACT);
+        final File streamed = folder.resolve("streamed").toFile();
+        final File loaded = folder.resolve("loaded").toFile();
+
+        TruffleArtifact.generateWrapper(artifact, streamed, "io.epirus.contracts", true);
+        new TruffleJsonFunctionWrapperGenerator(
+                        artifact.getAbsolutePath(),
+                        loaded.getAbsolutePath(),
+                        "io.epirus.contracts",
+                        true)
+                .generate();
+
+        final String wrapper = "io/epirus/contracts/MetaCoin.java";
+        assertEquals(read(new File(loaded, wrapper)), read(new File(streamed, wrapper)));
+    }
+
+    @Test
+    public void testFolderOfArtifactsIsGenerated() throws IOException {
+        write("contracts/MetaCoin.json", ARTIFACT);
+        write("contracts/ConvertLib.json", ARTIFACT.replace("MetaCoin", "ConvertLib"));
+        final Path output = folder.resolve("src");
+
+        assertEquals(
+                0,
+                new CommandLine(new TruffleGenerateCommand())
+                        .execute(
+                                "-t",
+                                folder.resolve("contracts").toString(),
+                                "-o",
+                                output.toString(),
+                                "-p",
+                                "io.epirus.contracts"));
+        assertTrue(Files.exists(output.resolve("io/epirus/contracts/MetaCoin.java")));
+        assertTrue(Files.exists(output.resolve("io/epirus/contracts/ConvertLib.java")));
+    }
+
+    private File write(final String file, final String content) throws IOException {
+        final Path path = folder.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path.toFile();
+    }
+
+    private static String read(final File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.epirus.console.wrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.epirus.console.project.utils.Folders;
+import io.epirus.console.wrapper.subcommand.SolidityGenerateCommand;
+import io.epirus.console.wrapper.subcommand.TruffleGenerateCommand;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import picocli.CommandLine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WrapperIndexTest {
+
+    private static final String ABI =
+            "[{\"constant\":true,\"inputs\":[],\"name\":\"value\","
+                    + "\"outputs\":[{\"name\":\"\",\"type\":\"uint256\"}],\"payable\":false,"
+                    + "\"stateMutability\":\"view\",\"type\":\"function\"}]";
+
+    private static final FileTime EPOCH = FileTime.fromMillis(0);
+
+    private Path folder;
+    private Path output;
+
+    @BeforeEach
+    public void createContracts() throws IOException {
+        folder = Folders.tempBuildFolder().toPath();
+        output = folder.resolve("src");
+        write("abi/Token.abi", ABI);
+        write("abi/Greeter.abi", ABI);
+        write("abi/Token.bin", "0x6080");
+        write(
+                "truffle/MetaCoin.json",
+                "{\"contractName\":\"MetaCoin\",\"abi\":" + ABI + ",\"bytecode\":\"0x6080\"}");
+    }
+
+    @Test
+    public void testUnchangedSolidityWrappersAreNotTouched() throws IOException {
+        generateSolidity();
+        final Map<Path, FileTime> outputs = resetTimestamps();
+        assertEquals(3, outputs.size());
+
+        generateSolidity();
+        assertEquals(outputs, timestamps());
+    }
+
+    @Test
+    public void testOnlyChangedSolidityWrappersAreGenerated() throws IOException {
+        generateSolidity();
+        resetTimestamps();
+        write("abi/Token.bin", "0x608060");
+
+        generateSolidity();
+        assertNotEquals(EPOCH, Files.getLastModifiedTime(wrapper("Token")));
+        assertEquals(EPOCH, Files.getLastModifiedTime(wrapper("Greeter")));
+    }
+
+    @Test
+    public void testWrappersOfRemovedInputsAreDeleted() throws IOException {
+        generateSolidity();
+        Files.delete(folder.resolve("abi/Greeter.abi"));
+
+        generateSolidity();
+        assertFalse(Files.exists(wrapper("Greeter")));
+        assertTrue(Files.exists(wrapper("Token")));
+    }
+
+    @Test
+    public void testChangedOptionsRegenerateTheWrappers() throws IOException {
+        generateSolidity();
+        resetTimestamps();
+
+        generate(
+                new SolidityGenerateCommand(),
+                "-a",
+                folder.resolve("abi").toString(),
+                "-b",
+                folder.resolve("abi").toString(),
+                "-o",
+                output.toString(),
+                "-p",
+                "io.epirus.contracts",
+                "--primitiveTypes");
+        assertNotEquals(EPOCH, Files.getLastModifiedTime(wrapper("Token")));
+        assertNotEquals(EPOCH, Files.getLastModifiedTime(wrapper("Greeter")));
+    }
+
+    @Test
+    public void testUnchangedTruffleWrapperIsNotTouched() throws IOException {
+        generateTruffle();
+        final Map<Path, FileTime> outputs = resetTimestamps();
+        assertTrue(outputs.containsKey(wrapper("MetaCoin")));
+
+        generateTruffle();
+        assertEquals(outputs, timestamps());
+    }
+
+    private void generateSolidity() {
+        generate(
+                new SolidityGenerateCommand(),
+                "-a",
+                folder.resolve("abi").toString(),
+                "-b",
+                folder.resolve("abi").toString(),
+                "-o",
+                output.toString(),
+                "-p",
+                "io.epirus.contracts");
+    }
+
+    private void generateTruffle() {
+        generate(
+                new TruffleGenerateCommand(),
+                "-t",
+                folder.resolve("truffle/MetaCoin.json").toString(),
+                "-o",
+                output.toString(),
+                "-p",
+                "io.epirus.contracts");
+    }
+
+    private static void generate(final Object command, final String... args) {
+        assertEquals(0, new CommandLine(command).execute(args));
+    }
+
+    private Path wrapper(final String contract) {
+        return output.resolve("io/epirus/contracts/" + contract + ".java");
+    }
+
+    /** Moves every output file to the epoch, so that any rewrite shows in its timestamp. */
+    private Map<Path, FileTime> resetTimestamps() throws IOException {
+        for (Path file : timestamps().keySet()) {
+            Files.setLastModifiedTime(file, EPOCH);
+        }
+        return timestamps();
+    }
+
+    private Map<Path, FileTime> timestamps() throws IOException {
+        final Map<Path, FileTime> timestamps = new HashMap<>();
+        try (Stream<Path> files = Files.walk(output)) {
+            for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                timestamps.put(file, Files.getLastModifiedTime(file));
+            }
+        }
+        return timestamps;
+    }
+
+    private void write(final String file, final String content) throws IOException {
+        final Path path = folder.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+}